@@ -0,0 +1,47 @@
+package com.dititalinnovation.buymore.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String ELECTRONICS_BY_NAME = "electronicsByName";
+    public static final String ELECTRONIC_STATS = "electronicStats";
+    public static final String MISSING_ELECTRONIC_NAMES = "missingElectronicNames";
+
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> electronicCachesCustomizer(
+            @Value("${buymore.cache.electronics-by-name.maximum-size:10000}") long electronicsByNameMaximumSize,
+            @Value("${buymore.cache.electronics-by-name.ttl:60s}") Duration electronicsByNameTtl,
+            @Value("${buymore.cache.electronic-stats.ttl:1s}") Duration electronicStatsTtl,
+            @Value("${buymore.cache.missing-electronic-names.maximum-size:100000}") long missingElectronicNamesMaximumSize,
+            @Value("${buymore.cache.missing-electronic-names.ttl:60s}") Duration missingElectronicNamesTtl) {
+        return cacheManager -> {
+            cacheManager.registerCustomCache(ELECTRONICS_BY_NAME, Caffeine.newBuilder()
+                    .maximumSize(electronicsByNameMaximumSize)
+                    .expireAfterWrite(electronicsByNameTtl)
+                    .recordStats()
+                    .build());
+            cacheManager.registerCustomCache(ELECTRONIC_STATS, Caffeine.newBuilder()
+                    .maximumSize(1)
+                    .expireAfterWrite(electronicStatsTtl)
+                    .recordStats()
+                    .build());
+            cacheManager.registerCustomCache(MISSING_ELECTRONIC_NAMES, Caffeine.newBuilder()
+                    .maximumSize(missingElectronicNamesMaximumSize)
+                    .expireAfterWrite(missingElectronicNamesTtl)
+                    .recordStats()
+                    .build());
+        };
+    }
+
+}
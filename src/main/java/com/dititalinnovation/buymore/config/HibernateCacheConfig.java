@@ -0,0 +1,67 @@
+package com.dititalinnovation.buymore.config;
+
+import com.dititalinnovation.buymore.entity.Electronic;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Backs Hibernate's second-level and query caches with Caffeine through JCache. The regions are
+ * created here from buymore.cache.hibernate.* so they are sized like the other caches; whether
+ * Hibernate uses them is switched with the spring.jpa.properties.hibernate.cache.* properties.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    public static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${buymore.cache.hibernate.electronic.maximum-size:100000}") long electronicMaximumSize,
+            @Value("${buymore.cache.hibernate.electronic.ttl:60s}") Duration electronicTtl,
+            @Value("${buymore.cache.hibernate.query-results.maximum-size:10000}") long queryResultsMaximumSize,
+            @Value("${buymore.cache.hibernate.query-results.ttl:60s}") Duration queryResultsTtl) {
+        // a manager of its own per application context, so regions are never shared between contexts
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("buymore-hibernate-" + UUID.randomUUID()), HibernateCacheConfig.class.getClassLoader());
+        cacheManager.createCache(Electronic.CACHE_REGION, region(electronicMaximumSize, electronicTtl));
+        cacheManager.createCache(QUERY_RESULTS_REGION, region(queryResultsMaximumSize, queryResultsTtl));
+        // last change per table; must never be evicted before the query results relying on it
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, region(null, null));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(Long maximumSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        if (maximumSize != null) {
+            configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        }
+        if (ttl != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        }
+        return configuration;
+    }
+
+}
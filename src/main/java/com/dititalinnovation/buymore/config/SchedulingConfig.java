@@ -0,0 +1,13 @@
+package com.dititalinnovation.buymore.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Scheduled tasks run on spring.task.scheduling.pool.size threads, one per task, so a slow stock gauge
+ * refresh or change feed heartbeat never delays the write-behind flush or the reservation expiry tick.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,17 +1,60 @@
 package com.dititalinnovation.buymore.controller;
 
+import com.dititalinnovation.buymore.dto.BatchCreationResultDTO;
+import com.dititalinnovation.buymore.dto.DecrementRequestDTO;
 import com.dititalinnovation.buymore.dto.ElectronicDTO;
+import com.dititalinnovation.buymore.dto.ElectronicFilterDTO;
+import com.dititalinnovation.buymore.dto.ElectronicImportResultDTO;
+import com.dititalinnovation.buymore.dto.ElectronicPageDTO;
+import com.dititalinnovation.buymore.dto.ElectronicStatsDTO;
 import com.dititalinnovation.buymore.dto.QuantityDTO;
-import com.dititalinnovation.buymore.exception.BuyMoreExceededException;
+import com.dititalinnovation.buymore.dto.ReservationDTO;
+import com.dititalinnovation.buymore.dto.ReservationRequestDTO;
+import com.dititalinnovation.buymore.dto.RejectedElectronicDTO;
+import com.dititalinnovation.buymore.dto.StockAdjustmentRequestDTO;
+import com.dititalinnovation.buymore.dto.StockAdjustmentResultDTO;
+import com.dititalinnovation.buymore.enums.ElectronicType;
+import com.dititalinnovation.buymore.enums.WireFormat;
+import com.dititalinnovation.buymore.exception.BatchTooLargeException;
+import com.dititalinnovation.buymore.exception.BuyMoreException;
 import com.dititalinnovation.buymore.exception.ElectronicAlreadyRegisteredException;
+import com.dititalinnovation.buymore.exception.ElectronicConcurrentUpdateException;
 import com.dititalinnovation.buymore.exception.ElectronicNotFoundException;
+import com.dititalinnovation.buymore.exception.ElectronicOutOfStockException;
+import com.dititalinnovation.buymore.exception.IdempotencyKeyReusedException;
+import com.dititalinnovation.buymore.exception.InvalidCsvException;
+import com.dititalinnovation.buymore.exception.InvalidQuantityException;
+import com.dititalinnovation.buymore.exception.ReservationNotFoundException;
+import com.dititalinnovation.buymore.exception.StockAdjustmentRejectedException;
+import com.dititalinnovation.buymore.service.CatalogSnapshot;
+import com.dititalinnovation.buymore.service.ChangeFeed;
+import com.dititalinnovation.buymore.service.CatalogVersion;
+import com.dititalinnovation.buymore.service.ElectronicCsvReader;
+import com.dititalinnovation.buymore.service.ElectronicImportService;
+import com.dititalinnovation.buymore.service.ElectronicSearchIndex;
+import com.dititalinnovation.buymore.service.IdempotentRequests;
 import com.dititalinnovation.buymore.service.ElectronicService;
+import com.dititalinnovation.buymore.service.LowStockIndex;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -19,22 +62,141 @@ import java.util.List;
 @AllArgsConstructor(onConstructor = @__(@Autowired))
 public class ElectronicController implements ElectronicControllerDocs{
 
+    private static final String LAST_EVENT_ID = "Last-Event-ID";
+    private static final String CREATE = "create";
+    private static final String INCREMENT = "increment";
+
     private final ElectronicService electronicService;
+    private final ElectronicImportService electronicImportService;
+    private final ChangeFeed changeFeed;
+    private final CatalogVersion catalogVersion;
+    private final CatalogSnapshot catalogSnapshot;
+    private final LowStockIndex lowStockIndex;
+    private final ElectronicSearchIndex electronicSearchIndex;
+    private final IdempotentRequests idempotentRequests;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public ElectronicDTO createElectronic(@RequestBody @Valid ElectronicDTO electronicDTO) throws ElectronicAlreadyRegisteredException{
-        return electronicService.createElectronic(electronicDTO);
+    public ElectronicDTO createElectronic(@RequestBody @Valid ElectronicDTO electronicDTO,
+                                          @RequestHeader(value = IdempotentRequests.IDEMPOTENCY_KEY, required = false) String idempotencyKey) throws ElectronicAlreadyRegisteredException, IdempotencyKeyReusedException {
+        return idempotentRequests.execute(idempotencyKey, List.of(CREATE, electronicDTO),
+                () -> electronicService.createElectronic(electronicDTO));
+    }
+
+    @PostMapping("/batch")
+    public BatchCreationResultDTO createElectronics(@RequestBody List<ElectronicDTO> electronicDTOs) throws BatchTooLargeException, ElectronicAlreadyRegisteredException {
+        return electronicService.createElectronics(electronicDTOs);
     }
 
     @GetMapping("/{name}")
-    public ElectronicDTO findByName(@PathVariable String name) throws ElectronicNotFoundException {
+    public ElectronicDTO findByName(@PathVariable String name,
+                                    @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                    WebRequest request) throws ElectronicNotFoundException {
+        if (request.checkNotModified(etag(negotiateOrJson(accept), false))) {
+            return null;
+        }
         return electronicService.findByName(name);
     }
 
     @GetMapping
-    public List<ElectronicDTO> listElectronics() {
-        return electronicService.listAll();
+    public ElectronicPageDTO listElectronicsPage(ElectronicFilterDTO filter,
+                                                 @RequestParam(defaultValue = "100") int limit,
+                                                 @RequestParam(required = false) Long after,
+                                                 @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                 WebRequest request) {
+        if (request.checkNotModified(etag(negotiateOrJson(accept), false))) {
+            return null;
+        }
+        return electronicService.listPage(filter, after, limit);
+    }
+
+    @GetMapping(params = "unpaged=true")
+    public ResponseEntity<byte[]> listElectronics(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                  @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                                  @RequestHeader(value = HttpHeaders.CACHE_CONTROL, required = false) String cacheControl,
+                                                  WebRequest request) throws HttpMediaTypeNotAcceptableException {
+        WireFormat format = WireFormat.negotiate(accept)
+                .orElseThrow(() -> new HttpMediaTypeNotAcceptableException(WireFormat.mediaTypes()));
+        boolean gzip = format == WireFormat.JSON && CatalogSnapshot.acceptsGzip(acceptEncoding);
+        CatalogSnapshot.Snapshot snapshot = cacheControl != null && cacheControl.contains("no-cache")
+                ? catalogSnapshot.awaitCurrent()
+                : catalogSnapshot.peek();
+        // before the first snapshot is built, revalidation is answered from the catalog version alone
+        long version = snapshot != null ? snapshot.getVersion() : catalogVersion.current();
+        if (request.checkNotModified(etag(format, gzip, version))) {
+            return null;
+        }
+        if (snapshot == null) {
+            snapshot = catalogSnapshot.current();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, CatalogSnapshot.GZIP).body(snapshot.getGzip());
+        }
+        return response.body(snapshot.body(format));
+    }
+
+    @GetMapping("/stats")
+    public ElectronicStatsDTO getStats() {
+        return electronicService.getStats();
+    }
+
+    @GetMapping("/search")
+    public List<ElectronicDTO> search(@RequestParam("q") String query,
+                                      @RequestParam(required = false) ElectronicType type,
+                                      @RequestParam(defaultValue = "10") int limit) {
+        return electronicSearchIndex.search(query, type, limit);
+    }
+
+    @GetMapping("/low-stock")
+    public List<ElectronicDTO> listLowStock(@RequestParam(required = false) Double threshold,
+                                            @RequestParam(defaultValue = "100") int limit) {
+        return lowStockIndex.lowStock(threshold == null ? lowStockIndex.getThreshold() : threshold, limit);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportElectronics() {
+        StreamingResponseBody body = outputStream -> {
+            OutputStream bufferedOutputStream = new BufferedOutputStream(outputStream);
+            try {
+                electronicService.exportAll(electronicDTO -> writeLine(bufferedOutputStream, electronicDTO));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            bufferedOutputStream.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<StreamingResponseBody> importElectronics(@RequestParam("file") MultipartFile file) throws IOException, InvalidCsvException {
+        ElectronicCsvReader csvReader = ElectronicCsvReader.open(file.getInputStream());
+        StreamingResponseBody body = outputStream -> {
+            try (ElectronicCsvReader reader = csvReader;
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartObject();
+                generator.writeArrayFieldStart("rejected");
+                ElectronicImportResultDTO result = electronicImportService.importElectronics(reader, rejected -> writeRejected(generator, rejected));
+                generator.writeEndArray();
+                generator.writeObjectField("summary", result);
+                generator.writeEndObject();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestHeader(value = LAST_EVENT_ID, required = false) String lastEventId) {
+        return changeFeed.subscribe(lastEventId);
     }
 
     @DeleteMapping("/{id}")
@@ -44,8 +206,83 @@ public class ElectronicController implements ElectronicControllerDocs{
     }
 
     @PatchMapping("/{id}/increment")
-    public ElectronicDTO increment(@PathVariable Long id, @RequestBody @Valid QuantityDTO quantityDTO) throws ElectronicNotFoundException, BuyMoreExceededException {
-        return electronicService.increment(id, quantityDTO.getQuantity());
+    public ElectronicDTO increment(@PathVariable Long id, @RequestBody @Valid QuantityDTO quantityDTO,
+                                   @RequestHeader(value = IdempotentRequests.IDEMPOTENCY_KEY, required = false) String idempotencyKey) throws BuyMoreException {
+        return idempotentRequests.execute(idempotencyKey, List.of(INCREMENT, id, quantityDTO.getQuantity()),
+                () -> electronicService.increment(id, quantityDTO.getQuantity()));
+    }
+
+    @PatchMapping("/{id}/decrement")
+    public ElectronicDTO decrement(@PathVariable Long id, @RequestBody @Valid DecrementRequestDTO decrementRequest) throws ElectronicNotFoundException, ElectronicOutOfStockException, ElectronicConcurrentUpdateException, InvalidQuantityException {
+        return electronicService.decrement(id, decrementRequest.getQuantity());
+    }
+
+    @PostMapping("/{id}/reservations")
+    @ResponseStatus(HttpStatus.CREATED)
+    public ReservationDTO reserve(@PathVariable Long id, @RequestBody @Valid ReservationRequestDTO reservationRequest) throws ElectronicNotFoundException, ElectronicOutOfStockException, InvalidQuantityException {
+        return electronicService.reserve(id, reservationRequest.getQuantity());
+    }
+
+    @PostMapping("/reservations/{reservationId}/confirm")
+    public ElectronicDTO confirmReservation(@PathVariable String reservationId) throws ReservationNotFoundException, ElectronicNotFoundException, ElectronicOutOfStockException, ElectronicConcurrentUpdateException, InvalidQuantityException {
+        return electronicService.confirmReservation(reservationId);
+    }
+
+    @DeleteMapping("/reservations/{reservationId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void releaseReservation(@PathVariable String reservationId) throws ReservationNotFoundException {
+        electronicService.releaseReservation(reservationId);
+    }
+
+    @PatchMapping("/increment")
+    public StockAdjustmentResultDTO adjustStock(@RequestBody @Valid StockAdjustmentRequestDTO adjustmentRequest) throws StockAdjustmentRejectedException {
+        return electronicService.adjustStock(adjustmentRequest);
+    }
+
+    @ExceptionHandler(StockAdjustmentRejectedException.class)
+    public ResponseEntity<StockAdjustmentResultDTO> handleRejectedAdjustment(StockAdjustmentRejectedException exception) {
+        return ResponseEntity.badRequest().body(exception.getResult());
+    }
+
+    private String etag(WireFormat format, boolean gzip) {
+        if (format != WireFormat.JSON) {
+            return catalogVersion.etag(format.getVariant());
+        }
+        return gzip ? catalogVersion.etag(CatalogSnapshot.GZIP) : catalogVersion.etag();
+    }
+
+    private String etag(WireFormat format, boolean gzip, long version) {
+        if (format != WireFormat.JSON) {
+            return catalogVersion.etag(version, format.getVariant());
+        }
+        return gzip ? catalogVersion.etag(version, CatalogSnapshot.GZIP) : catalogVersion.etag(version);
+    }
+
+    /**
+     * The representation the message converters will pick; an unacceptable Accept is left for them to reject.
+     */
+    private static WireFormat negotiateOrJson(String accept) {
+        return WireFormat.negotiate(accept).orElse(WireFormat.JSON);
+    }
+
+    private void writeRejected(JsonGenerator generator, List<RejectedElectronicDTO> rejected) {
+        try {
+            for (RejectedElectronicDTO rejectedElectronic : rejected) {
+                generator.writeObject(rejectedElectronic);
+            }
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeLine(OutputStream outputStream, ElectronicDTO electronicDTO) {
+        try {
+            outputStream.write(objectMapper.writeValueAsBytes(electronicDTO));
+            outputStream.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
 }
@@ -1,38 +1,126 @@
 package com.dititalinnovation.buymore.controller;
 
+import com.dititalinnovation.buymore.dto.BatchCreationResultDTO;
+import com.dititalinnovation.buymore.dto.DecrementRequestDTO;
 import com.dititalinnovation.buymore.dto.ElectronicDTO;
+import com.dititalinnovation.buymore.dto.ElectronicFilterDTO;
+import com.dititalinnovation.buymore.dto.ElectronicPageDTO;
+import com.dititalinnovation.buymore.dto.ElectronicStatsDTO;
+import com.dititalinnovation.buymore.dto.QuantityDTO;
+import com.dititalinnovation.buymore.dto.ReservationDTO;
+import com.dititalinnovation.buymore.dto.ReservationRequestDTO;
+import com.dititalinnovation.buymore.dto.StockAdjustmentRequestDTO;
+import com.dititalinnovation.buymore.dto.StockAdjustmentResultDTO;
+import com.dititalinnovation.buymore.enums.ElectronicType;
+import com.dititalinnovation.buymore.exception.BuyMoreException;
+import com.dititalinnovation.buymore.exception.BatchTooLargeException;
 import com.dititalinnovation.buymore.exception.ElectronicAlreadyRegisteredException;
+import com.dititalinnovation.buymore.exception.ElectronicConcurrentUpdateException;
 import com.dititalinnovation.buymore.exception.ElectronicNotFoundException;
+import com.dititalinnovation.buymore.exception.ElectronicOutOfStockException;
+import com.dititalinnovation.buymore.exception.IdempotencyKeyReusedException;
+import com.dititalinnovation.buymore.exception.InvalidCsvException;
+import com.dititalinnovation.buymore.exception.InvalidQuantityException;
+import com.dititalinnovation.buymore.exception.ReservationNotFoundException;
+import com.dititalinnovation.buymore.exception.StockAdjustmentRejectedException;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.util.List;
 
-@Api("Manages buy more")
+@Api(value = "Manages buy more", produces = "application/json, application/cbor, application/x-jackson-smile",
+        consumes = "application/json, application/cbor, application/x-jackson-smile")
 public interface ElectronicControllerDocs {
 
-    @ApiOperation(value = "Electronic creation operation")
+    @ApiOperation(value = "Electronic creation operation; a retry with the same Idempotency-Key gets the first response without creating again")
     @ApiResponses(value = {
             @ApiResponse(code = 201, message = "Sucess electronic creation"),
-            @ApiResponse(code = 400, message = "Missing required fields or wrong field range value.")
+            @ApiResponse(code = 400, message = "Missing required fields or wrong field range value."),
+            @ApiResponse(code = 422, message = "Idempotency-Key already used for a different request.")
     })
-    ElectronicDTO createElectronic(ElectronicDTO electronicDTO) throws ElectronicAlreadyRegisteredException;
+    ElectronicDTO createElectronic(ElectronicDTO electronicDTO, String idempotencyKey) throws ElectronicAlreadyRegisteredException, IdempotencyKeyReusedException;
+
+    @ApiOperation(value = "Electronic batch creation operation")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Electronics created and electronics rejected with their reason"),
+            @ApiResponse(code = 400, message = "More than 1000 electronics in the batch, or one of them registered concurrently; nothing was created.")
+    })
+    BatchCreationResultDTO createElectronics(List<ElectronicDTO> electronicDTOs) throws BatchTooLargeException, ElectronicAlreadyRegisteredException;
 
     @ApiOperation(value = "Returns electronic found by a given name")
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "Success electronic found in the system"),
+            @ApiResponse(code = 304, message = "Catalog unchanged since the ETag sent in If-None-Match"),
             @ApiResponse(code = 400, message = "Electronic with given name not found.")
     })
-    ElectronicDTO findByName(@PathVariable String name) throws ElectronicNotFoundException;
+    ElectronicDTO findByName(@PathVariable String name, String accept, WebRequest request) throws ElectronicNotFoundException;
+
+    @ApiOperation(value = "Returns a page of electronics ordered by id, starting after the given cursor, " +
+            "optionally filtered by type, brand and quantity range")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Page of electronics and the cursor of the next page, if any"),
+            @ApiResponse(code = 304, message = "Catalog unchanged since the ETag sent in If-None-Match")
+    })
+    ElectronicPageDTO listElectronicsPage(ElectronicFilterDTO filter, int limit, Long after, String accept, WebRequest request);
+
+    @ApiOperation(value = "Returns a list of all electronics registered in the system (unpaged=true), " +
+            "in the format negotiated from Accept, JSON gzipped when Accept-Encoding allows it; the listing may " +
+            "briefly trail the latest changes unless Cache-Control: no-cache is sent")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "List of all electronics registered in the system"),
+            @ApiResponse(code = 304, message = "Catalog unchanged since the ETag sent in If-None-Match"),
+            @ApiResponse(code = 406, message = "Accept names none of JSON, CBOR and Smile")
+    })
+    ResponseEntity<byte[]> listElectronics(String accept, String acceptEncoding, String cacheControl, WebRequest request) throws HttpMediaTypeNotAcceptableException;
+
+    @ApiOperation(value = "Returns stock totals, capacity and fill ratio per electronic type and per brand")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Stock aggregated by the database")
+    })
+    ElectronicStatsDTO getStats();
+
+    @ApiOperation(value = "Searches names and brands: names starting with the query first, then words starting with the query words, then words a few typos away")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Up to limit electronics, at most 100, optionally of one type")
+    })
+    List<ElectronicDTO> search(String query, ElectronicType type, int limit);
 
-    @ApiOperation(value = "Returns a list of all electronics registered in the system")
+    @ApiOperation(value = "Lists the electronics whose quantity is below a fraction of their max, emptiest first")
     @ApiResponses(value = {
-            @ApiResponse(code = 200, message = "List of all electronics registered in the system")
+            @ApiResponse(code = 200, message = "Electronics below the threshold, buymore.stock.low-threshold when none is given")
     })
-    List<ElectronicDTO> listElectronics();
+    List<ElectronicDTO> listLowStock(Double threshold, int limit);
+
+    @ApiOperation(value = "Streams the whole catalog as newline delimited JSON")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "One electronic per line, written as it is read from the database")
+    })
+    ResponseEntity<StreamingResponseBody> exportElectronics();
+
+    @ApiOperation(value = "Imports electronics from a CSV file with the columns name, brand, max, quantity and type, " +
+            "streaming back the rejected rows, by line, and a summary")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Rows rejected by each batch as it is imported, then the row counts"),
+            @ApiResponse(code = 400, message = "Empty file or header without the required columns")
+    })
+    ResponseEntity<StreamingResponseBody> importElectronics(MultipartFile file) throws IOException, InvalidCsvException;
+
+    @ApiOperation(value = "Streams committed creations, stock changes and deletions as Server-Sent Events; " +
+            "reconnecting with Last-Event-ID replays what was missed, a reset event asks to reload the catalog")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Event stream named after the change type, with the electronic as data")
+    })
+    SseEmitter streamChanges(String lastEventId);
 
     @ApiOperation(value = "Delete a electronic found by a given valid Id")
     @ApiResponses(value = {
@@ -41,4 +129,52 @@ public interface ElectronicControllerDocs {
     })
     void deleteById(@PathVariable Long id) throws ElectronicNotFoundException;
 
+    @ApiOperation(value = "Increments the stock of an electronic; a retry with the same Idempotency-Key gets the first response without incrementing again")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Stock incremented"),
+            @ApiResponse(code = 400, message = "Increment exceeds the max stock capacity, or quantity not positive."),
+            @ApiResponse(code = 404, message = "Electronic with given id not found."),
+            @ApiResponse(code = 422, message = "Idempotency-Key already used for a different request.")
+    })
+    ElectronicDTO increment(@PathVariable Long id, QuantityDTO quantityDTO, String idempotencyKey) throws BuyMoreException;
+
+    @ApiOperation(value = "Takes stock out of a electronic found by a given valid Id, never below zero")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Success electronic stock decremented"),
+            @ApiResponse(code = 400, message = "Not enough stock to decrement, or quantity not positive."),
+            @ApiResponse(code = 404, message = "Electronic with given id not found."),
+            @ApiResponse(code = 409, message = "Electronic kept changing concurrently.")
+    })
+    ElectronicDTO decrement(@PathVariable Long id, DecrementRequestDTO decrementRequest) throws ElectronicNotFoundException, ElectronicOutOfStockException, ElectronicConcurrentUpdateException, InvalidQuantityException;
+
+    @ApiOperation(value = "Holds stock of a electronic for a cart until the reservation is confirmed, released or expires")
+    @ApiResponses(value = {
+            @ApiResponse(code = 201, message = "Reservation with its id and expiry"),
+            @ApiResponse(code = 400, message = "Not enough stock left that is not already held."),
+            @ApiResponse(code = 404, message = "Electronic with given id not found.")
+    })
+    ReservationDTO reserve(@PathVariable Long id, ReservationRequestDTO reservationRequest) throws ElectronicNotFoundException, ElectronicOutOfStockException, InvalidQuantityException;
+
+    @ApiOperation(value = "Turns a reservation into a sale, taking its quantity out of the stock")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Electronic with its stock decremented"),
+            @ApiResponse(code = 404, message = "Reservation expired or already ended, or electronic not found."),
+            @ApiResponse(code = 409, message = "Electronic kept changing concurrently; the reservation still holds its stock and can be confirmed again.")
+    })
+    ElectronicDTO confirmReservation(@PathVariable String reservationId) throws ReservationNotFoundException, ElectronicNotFoundException, ElectronicOutOfStockException, ElectronicConcurrentUpdateException, InvalidQuantityException;
+
+    @ApiOperation(value = "Releases a reservation, making its stock available again")
+    @ApiResponses(value = {
+            @ApiResponse(code = 204, message = "Reservation released"),
+            @ApiResponse(code = 404, message = "Reservation expired or already ended.")
+    })
+    void releaseReservation(@PathVariable String reservationId) throws ReservationNotFoundException;
+
+    @ApiOperation(value = "Applies a list of signed stock adjustments in a single transaction; stock stays within max and never goes below what reservations hold")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Result of each adjustment"),
+            @ApiResponse(code = 400, message = "Invalid adjustment, such as one of zero, or all or nothing adjustment rolled back, with the result of each adjustment")
+    })
+    StockAdjustmentResultDTO adjustStock(StockAdjustmentRequestDTO adjustmentRequest) throws StockAdjustmentRejectedException;
+
 }
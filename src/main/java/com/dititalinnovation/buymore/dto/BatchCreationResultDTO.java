@@ -0,0 +1,20 @@
+package com.dititalinnovation.buymore.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchCreationResultDTO {
+
+    private List<ElectronicDTO> created;
+
+    private List<RejectedElectronicDTO> rejected;
+
+}
@@ -1,9 +1,11 @@
 package com.dititalinnovation.buymore.dto;
 
 import com.dititalinnovation.buymore.enums.ElectronicType;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
 import javax.persistence.EnumType;
@@ -40,5 +42,16 @@ public class ElectronicDTO {
     @NotNull
     private ElectronicType type;
 
+    /**
+     * Entity version the electronic was read at, for listeners to tell an older change from a newer one.
+     * Not part of the API.
+     */
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private Long version;
+
+    public ElectronicDTO(Long id, String name, String brand, Integer max, Integer quantity, ElectronicType type) {
+        this(id, name, brand, max, quantity, type, null);
+    }
 
 }
@@ -0,0 +1,23 @@
+package com.dititalinnovation.buymore.dto;
+
+import com.dititalinnovation.buymore.enums.ElectronicType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ElectronicFilterDTO {
+
+    private ElectronicType type;
+
+    private String brand;
+
+    private Integer minQuantity;
+
+    private Integer maxQuantity;
+
+}
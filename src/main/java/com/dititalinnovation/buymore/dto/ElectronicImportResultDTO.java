@@ -0,0 +1,20 @@
+package com.dititalinnovation.buymore.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ElectronicImportResultDTO {
+
+    private int rows;
+
+    private int imported;
+
+    private int rejected;
+
+}
@@ -0,0 +1,20 @@
+package com.dititalinnovation.buymore.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ElectronicPageDTO {
+
+    private List<ElectronicDTO> content;
+
+    private Long nextCursor;
+
+}
@@ -0,0 +1,20 @@
+package com.dititalinnovation.buymore.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RejectedElectronicDTO {
+
+    private int index;
+
+    private String name;
+
+    private String reason;
+
+}
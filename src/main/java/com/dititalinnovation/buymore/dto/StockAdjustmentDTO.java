@@ -0,0 +1,35 @@
+package com.dititalinnovation.buymore.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.NotNull;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentDTO {
+
+    @NotNull
+    private Long id;
+
+    @NotNull
+    @Max(100)
+    private Integer quantity;
+
+    /**
+     * A zero adjustment changes nothing, so it is rejected rather than reported as applied.
+     */
+    @JsonIgnore
+    @AssertTrue(message = "quantity must not be zero")
+    public boolean isNonZero() {
+        return quantity == null || quantity != 0;
+    }
+
+}
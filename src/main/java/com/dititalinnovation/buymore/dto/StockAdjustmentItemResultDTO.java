@@ -0,0 +1,21 @@
+package com.dititalinnovation.buymore.dto;
+
+import com.dititalinnovation.buymore.enums.AdjustmentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentItemResultDTO {
+
+    private Long id;
+
+    private int quantity;
+
+    private AdjustmentStatus status;
+
+}
@@ -0,0 +1,29 @@
+package com.dititalinnovation.buymore.dto;
+
+import com.dititalinnovation.buymore.enums.AdjustmentMode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentRequestDTO {
+
+    @NotNull
+    private AdjustmentMode mode;
+
+    @Valid
+    @NotEmpty
+    @Size(max = 5000)
+    private List<StockAdjustmentDTO> adjustments;
+
+}
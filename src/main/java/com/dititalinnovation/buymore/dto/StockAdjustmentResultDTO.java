@@ -0,0 +1,25 @@
+package com.dititalinnovation.buymore.dto;
+
+import com.dititalinnovation.buymore.enums.AdjustmentMode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentResultDTO {
+
+    private AdjustmentMode mode;
+
+    private int applied;
+
+    private int failed;
+
+    private List<StockAdjustmentItemResultDTO> results;
+
+}
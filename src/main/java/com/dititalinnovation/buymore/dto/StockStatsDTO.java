@@ -0,0 +1,32 @@
+package com.dititalinnovation.buymore.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockStatsDTO {
+
+    private String group;
+
+    private long skuCount;
+
+    private long totalQuantity;
+
+    private long totalCapacity;
+
+    private double fillRatio;
+
+    public StockStatsDTO(Object group, Long skuCount, Long totalQuantity, Long totalCapacity) {
+        this.group = String.valueOf(group);
+        this.skuCount = skuCount;
+        this.totalQuantity = totalQuantity == null ? 0 : totalQuantity;
+        this.totalCapacity = totalCapacity == null ? 0 : totalCapacity;
+        this.fillRatio = this.totalCapacity == 0 ? 0 : (double) this.totalQuantity / this.totalCapacity;
+    }
+
+}
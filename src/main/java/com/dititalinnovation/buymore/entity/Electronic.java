@@ -4,17 +4,33 @@ import com.dititalinnovation.buymore.enums.ElectronicType;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 
 @Data
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Electronic.CACHE_REGION)
+@Table(uniqueConstraints = @UniqueConstraint(name = Electronic.NAME_CONSTRAINT, columnNames = "name"),
+        indexes = {
+                @Index(name = "idx_electronic_type_id", columnList = "type, id"),
+                @Index(name = "idx_electronic_brand_id", columnList = "brand, id"),
+                @Index(name = "idx_electronic_type_quantity", columnList = "type, quantity")
+        })
 @NoArgsConstructor
 @AllArgsConstructor
 public class Electronic {
 
+    public static final String CACHE_REGION = "electronic";
+    public static final String NAME_CONSTRAINT = "uk_electronic_name";
+    public static final String ID_SEQUENCE = "electronic_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = Electronic.ID_SEQUENCE)
+    @SequenceGenerator(name = Electronic.ID_SEQUENCE, sequenceName = Electronic.ID_SEQUENCE, allocationSize = Electronic.ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false)
@@ -33,4 +49,12 @@ public class Electronic {
     @Column(nullable = false)
     private ElectronicType type;
 
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
+    public Electronic(Long id, String name, String brand, int max, int quantity, ElectronicType type) {
+        this(id, name, brand, max, quantity, type, null);
+    }
+
 }
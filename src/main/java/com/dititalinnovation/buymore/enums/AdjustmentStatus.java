@@ -0,0 +1,18 @@
+package com.dititalinnovation.buymore.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum AdjustmentStatus {
+
+    APPLIED("Applied"),
+    NOT_FOUND("Not found"),
+    EXCEEDED("Exceeds max stock"),
+    INSUFFICIENT_STOCK("Takes more than the stock not held by reservations"),
+    ROLLED_BACK("Rolled back");
+
+    private final String description;
+
+}
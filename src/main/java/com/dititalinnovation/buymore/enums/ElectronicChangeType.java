@@ -0,0 +1,16 @@
+package com.dititalinnovation.buymore.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum ElectronicChangeType {
+
+    CREATED("Created"),
+    UPDATED("Stock updated"),
+    DELETED("Deleted");
+
+    private final String description;
+
+}
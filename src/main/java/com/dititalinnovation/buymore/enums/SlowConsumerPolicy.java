@@ -0,0 +1,15 @@
+package com.dititalinnovation.buymore.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum SlowConsumerPolicy {
+
+    SKIP("Tell the subscriber it missed events and continue from the oldest one still held"),
+    DISCONNECT("Close the stream, the subscriber reconnects and is told it missed events");
+
+    private final String description;
+
+}
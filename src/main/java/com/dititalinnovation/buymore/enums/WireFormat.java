@@ -0,0 +1,89 @@
+package com.dititalinnovation.buymore.enums;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Representations the API can be served in. JSON is declared first, so it wins whenever the client
+ * accepts it as readily as a binary format, e.g. with no Accept header or with *&#47;*.
+ */
+@Getter
+@AllArgsConstructor
+public enum WireFormat {
+
+    JSON("json", MediaType.APPLICATION_JSON, new JsonFactory()),
+    CBOR("cbor", MediaType.APPLICATION_CBOR, new CBORFactory()),
+    SMILE("smile", new MediaType("application", "x-jackson-smile"), new SmileFactory());
+
+    private final String variant;
+    private final MediaType mediaType;
+    private final JsonFactory factory;
+
+    public static List<MediaType> mediaTypes() {
+        return Arrays.stream(values())
+                .map(WireFormat::getMediaType)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * A format refused by its most specific media range, e.g. application/json;q=0, is refused even when a
+     * wildcard accepts it.
+     *
+     * @return the format the Accept header prefers, or empty when it accepts none of them
+     */
+    public static Optional<WireFormat> negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return Optional.of(JSON);
+        }
+        List<MediaType> acceptedMediaTypes;
+        try {
+            acceptedMediaTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return Optional.empty();
+        }
+        MediaType.sortBySpecificityAndQuality(acceptedMediaTypes);
+        for (MediaType acceptedMediaType : acceptedMediaTypes) {
+            if (acceptedMediaType.getQualityValue() <= 0) {
+                continue;
+            }
+            for (WireFormat format : values()) {
+                if (acceptedMediaType.includes(format.mediaType) && qualityOf(format, acceptedMediaTypes) > 0) {
+                    return Optional.of(format);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @return the quality of the most specific media range including the format, 0 when none does
+     */
+    private static double qualityOf(WireFormat format, List<MediaType> acceptedMediaTypes) {
+        MediaType mostSpecific = null;
+        for (MediaType acceptedMediaType : acceptedMediaTypes) {
+            if (acceptedMediaType.includes(format.mediaType)
+                    && (mostSpecific == null || specificityOf(acceptedMediaType) > specificityOf(mostSpecific))) {
+                mostSpecific = acceptedMediaType;
+            }
+        }
+        return mostSpecific == null ? 0 : mostSpecific.getQualityValue();
+    }
+
+    private static int specificityOf(MediaType mediaType) {
+        if (mediaType.isWildcardType()) {
+            return 0;
+        }
+        return mediaType.isWildcardSubtype() ? 1 : 2;
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.dititalinnovation.buymore.event;
+
+import com.dititalinnovation.buymore.dto.ElectronicDTO;
+import com.dititalinnovation.buymore.enums.ElectronicChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published by the service for every electronic created, deleted or whose stock changed. The electronic
+ * is its state right after the change, or the last known state when deleted. Listeners that must not
+ * see uncommitted changes use @TransactionalEventListener(fallbackExecution = true).
+ * <p>
+ * Events of different transactions may reach a listener in another order than their commits. Listeners
+ * keeping state per electronic compare the entity version to drop a change older than what they hold.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ElectronicChangedEvent {
+
+    private final ElectronicChangeType type;
+    private final ElectronicDTO electronic;
+
+    /**
+     * @return the entity version after the change, or null when unknown
+     */
+    public Long getVersion() {
+        return electronic.getVersion();
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.dititalinnovation.buymore.event;
+
+import com.dititalinnovation.buymore.dto.ElectronicDTO;
+import com.dititalinnovation.buymore.enums.ElectronicChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Published instead of one {@link ElectronicChangedEvent} per electronic when a whole batch changes in
+ * one transaction, as an import batch does. Listeners apply it as the same change to every electronic,
+ * but pay their per-event work, such as a catalog version bump or a snapshot rebuild, once per batch.
+ */
+@Getter
+@AllArgsConstructor
+public class ElectronicsChangedEvent {
+
+    private final ElectronicChangeType type;
+    private final List<ElectronicDTO> electronics;
+
+}
@@ -0,0 +1,13 @@
+package com.dititalinnovation.buymore.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class BatchTooLargeException extends BuyMoreException{
+
+    public BatchTooLargeException(int size, int maxSize){
+        super("Batch of %s electronics is larger than the %s allowed.", size, maxSize);
+    }
+
+}
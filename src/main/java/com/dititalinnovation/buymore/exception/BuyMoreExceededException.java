@@ -4,10 +4,10 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
 @ResponseStatus(HttpStatus.BAD_REQUEST)
-public class BuyMoreExceededException extends Exception{
+public class BuyMoreExceededException extends BuyMoreException{
 
     public BuyMoreExceededException(Long id, int quantityToIncrement){
-        super(String.format("Electronic with %s ID to increment informed exceeds the max stock capacity: %s", id, quantityToIncrement));
+        super("Electronic with %s ID to increment informed exceeds the max stock capacity: %s", id, quantityToIncrement);
     }
 
 }
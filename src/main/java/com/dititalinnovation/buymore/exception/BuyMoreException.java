@@ -0,0 +1,37 @@
+package com.dititalinnovation.buymore.exception;
+
+/**
+ * Base of the domain exceptions. The message is formatted the first time it is read, not when the
+ * exception is created, since most are turned into a status code without it.
+ * <p>
+ * Hot paths, such as lookups of names that do not exist, can create an exception without a stack trace:
+ * capturing one costs far more than the rest of the exception. Such an instance also refuses suppressed
+ * exceptions, so one instance can be kept and thrown again.
+ */
+public abstract class BuyMoreException extends Exception {
+
+    private final String format;
+    private final Object[] arguments;
+    private volatile String message;
+
+    protected BuyMoreException(String format, Object... arguments) {
+        this(true, format, arguments);
+    }
+
+    protected BuyMoreException(boolean captureStackTrace, String format, Object... arguments) {
+        super(null, null, captureStackTrace, captureStackTrace);
+        this.format = format;
+        this.arguments = arguments;
+    }
+
+    @Override
+    public String getMessage() {
+        String formatted = message;
+        if (formatted == null) {
+            formatted = String.format(format, arguments);
+            message = formatted;
+        }
+        return formatted;
+    }
+
+}
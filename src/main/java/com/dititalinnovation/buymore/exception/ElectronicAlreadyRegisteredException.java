@@ -1,13 +1,37 @@
 package com.dititalinnovation.buymore.exception;
 
+import com.dititalinnovation.buymore.entity.Electronic;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
+import java.util.Collection;
+import java.util.Locale;
+
 @ResponseStatus(HttpStatus.BAD_REQUEST)
-public class ElectronicAlreadyRegisteredException extends Exception{
+public class ElectronicAlreadyRegisteredException extends BuyMoreException{
 
     public ElectronicAlreadyRegisteredException(String electronicName){
-        super(String.format("Electronic with name %s already registered in the system.", electronicName));
+        super("Electronic with name %s already registered in the system.", electronicName);
+    }
+
+    public ElectronicAlreadyRegisteredException(Collection<String> electronicNames){
+        super("One of the electronics named %s was registered concurrently, retry the request.", String.join(", ", electronicNames));
+    }
+
+    /**
+     * Whether the violation is a name registered twice; any other violated constraint is not a duplicate name.
+     */
+    public static boolean isCausedBy(DataIntegrityViolationException exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException) {
+                String constraintName = ((ConstraintViolationException) cause).getConstraintName();
+                return constraintName != null
+                        && constraintName.toLowerCase(Locale.ROOT).contains(Electronic.NAME_CONSTRAINT);
+            }
+        }
+        return false;
     }
 
 }
@@ -0,0 +1,13 @@
+package com.dititalinnovation.buymore.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ElectronicConcurrentUpdateException extends BuyMoreException{
+
+    public ElectronicConcurrentUpdateException(Long id, int attempts){
+        super("Electronic with %s ID kept changing concurrently, gave up after %s attempts.", id, attempts);
+    }
+
+}
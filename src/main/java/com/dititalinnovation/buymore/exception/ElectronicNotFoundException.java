@@ -4,14 +4,27 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
 @ResponseStatus(HttpStatus.NOT_FOUND)
-public class ElectronicNotFoundException extends Exception{
+public class ElectronicNotFoundException extends BuyMoreException{
+
+    private static final String NAME_NOT_FOUND = "Electronic with name %s not found in the system.";
 
     public ElectronicNotFoundException(String electronicName){
-        super(String.format("Electronic with name %s not found in the system.", electronicName));
+        super(NAME_NOT_FOUND, electronicName);
     }
 
     public ElectronicNotFoundException(Long id){
-        super(String.format("Electronic with id %s not found in the system.", id));
+        super("Electronic with id %s not found in the system.", id);
+    }
+
+    private ElectronicNotFoundException(boolean captureStackTrace, String electronicName){
+        super(captureStackTrace, NAME_NOT_FOUND, electronicName);
+    }
+
+    /**
+     * For lookups of missing names, which crawlers and stale links make often.
+     */
+    public static ElectronicNotFoundException withoutStackTrace(String electronicName){
+        return new ElectronicNotFoundException(false, electronicName);
     }
 
 }
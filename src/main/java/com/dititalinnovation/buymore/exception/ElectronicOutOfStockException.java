@@ -0,0 +1,26 @@
+package com.dititalinnovation.buymore.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class ElectronicOutOfStockException extends BuyMoreException{
+
+    private static final String NOT_ENOUGH_STOCK = "Electronic with %s ID has not enough stock to decrement: %s";
+
+    public ElectronicOutOfStockException(Long id, int quantityToDecrement){
+        super(NOT_ENOUGH_STOCK, id, quantityToDecrement);
+    }
+
+    private ElectronicOutOfStockException(boolean captureStackTrace, Long id, int quantityToDecrement){
+        super(captureStackTrace, NOT_ENOUGH_STOCK, id, quantityToDecrement);
+    }
+
+    /**
+     * For decrements refused during a sale, when most requests find the stock gone.
+     */
+    public static ElectronicOutOfStockException withoutStackTrace(Long id, int quantityToDecrement){
+        return new ElectronicOutOfStockException(false, id, quantityToDecrement);
+    }
+
+}
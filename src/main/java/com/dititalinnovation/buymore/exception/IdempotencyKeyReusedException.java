@@ -0,0 +1,13 @@
+package com.dititalinnovation.buymore.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+public class IdempotencyKeyReusedException extends BuyMoreException{
+
+    public IdempotencyKeyReusedException(String idempotencyKey){
+        super("Idempotency key %s was already used for a different request.", idempotencyKey);
+    }
+
+}
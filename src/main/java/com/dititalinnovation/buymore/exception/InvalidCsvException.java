@@ -0,0 +1,13 @@
+package com.dititalinnovation.buymore.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidCsvException extends BuyMoreException{
+
+    public InvalidCsvException(String reason){
+        super("CSV file cannot be imported: %s.", reason);
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.dititalinnovation.buymore.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidQuantityException extends BuyMoreException{
+
+    public InvalidQuantityException(int quantity){
+        super("Quantity must be positive: %s", quantity);
+    }
+
+}
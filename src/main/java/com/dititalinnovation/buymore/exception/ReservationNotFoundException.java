@@ -0,0 +1,13 @@
+package com.dititalinnovation.buymore.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class ReservationNotFoundException extends BuyMoreException{
+
+    public ReservationNotFoundException(String reservationId){
+        super("Reservation %s not found: it expired or was already confirmed or released.", reservationId);
+    }
+
+}
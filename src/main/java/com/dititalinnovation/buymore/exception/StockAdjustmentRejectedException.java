@@ -0,0 +1,21 @@
+package com.dititalinnovation.buymore.exception;
+
+import com.dititalinnovation.buymore.dto.StockAdjustmentResultDTO;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class StockAdjustmentRejectedException extends BuyMoreException{
+
+    private final StockAdjustmentResultDTO result;
+
+    public StockAdjustmentRejectedException(StockAdjustmentResultDTO result){
+        super("Stock adjustment rolled back: %s of %s adjustments could not be applied.", result.getFailed(), result.getResults().size());
+        this.result = result;
+    }
+
+    public StockAdjustmentResultDTO getResult() {
+        return result;
+    }
+
+}
@@ -3,6 +3,7 @@ package com.dititalinnovation.buymore.mapper;
 import com.dititalinnovation.buymore.dto.ElectronicDTO;
 import com.dititalinnovation.buymore.entity.Electronic;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 
 @Mapper
@@ -10,6 +11,7 @@ public interface ElectronicMapper {
 
     ElectronicMapper INSTANCE = Mappers.getMapper(ElectronicMapper.class);
 
+    @Mapping(target = "version", ignore = true)
     Electronic toModel(ElectronicDTO electronicDTO);
 
     ElectronicDTO toDTO(Electronic electronic);
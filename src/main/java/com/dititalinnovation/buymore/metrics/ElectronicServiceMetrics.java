@@ -0,0 +1,56 @@
+package com.dititalinnovation.buymore.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AllArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every public ElectronicService method and counts the domain exceptions they throw.
+ * Runs outermost so cache hits are timed as well.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class ElectronicServiceMetrics {
+
+    public static final String SERVICE_TIMER = "buymore.electronic.service";
+    public static final String ERROR_COUNTER = "buymore.electronic.errors";
+
+    private static final String EXCEPTION_PACKAGE = "com.dititalinnovation.buymore.exception";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(public * com.dititalinnovation.buymore.service.ElectronicService.*(..))")
+    public Object timeServiceCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            if (e.getClass().getPackageName().equals(EXCEPTION_PACKAGE)) {
+                Counter.builder(ERROR_COUNTER)
+                        .tag("exception", exception)
+                        .register(meterRegistry)
+                        .increment();
+            }
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(SERVICE_TIMER)
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("exception", exception)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.dititalinnovation.buymore.metrics;
+
+import com.dititalinnovation.buymore.dto.StockStatsDTO;
+import com.dititalinnovation.buymore.enums.ElectronicType;
+import com.dititalinnovation.buymore.repository.ElectronicRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Publishes total stock and SKU count per ElectronicType. Values come from one GROUP BY query
+ * refreshed on a schedule, so scrapes never touch the database.
+ */
+@Component
+public class StockGauges {
+
+    private final ElectronicRepository electronicRepository;
+    private final MultiGauge stockQuantity;
+    private final MultiGauge skuCount;
+
+    @Autowired
+    public StockGauges(ElectronicRepository electronicRepository, MeterRegistry meterRegistry) {
+        this.electronicRepository = electronicRepository;
+        this.stockQuantity = MultiGauge.builder("buymore.electronic.stock.quantity")
+                .description("Units in stock per electronic type")
+                .register(meterRegistry);
+        this.skuCount = MultiGauge.builder("buymore.electronic.stock.skus")
+                .description("Registered electronics per electronic type")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${buymore.metrics.stock-refresh-ms:15000}")
+    public void refresh() {
+        Map<ElectronicType, StockStatsDTO> statsByType = new EnumMap<>(ElectronicType.class);
+        for (StockStatsDTO stats : electronicRepository.summarizeStockByType()) {
+            statsByType.put(ElectronicType.valueOf(stats.getGroup()), stats);
+        }
+        List<MultiGauge.Row<?>> quantityRows = new ArrayList<>();
+        List<MultiGauge.Row<?>> skuRows = new ArrayList<>();
+        for (ElectronicType type : ElectronicType.values()) {
+            StockStatsDTO stats = statsByType.get(type);
+            Tags tags = Tags.of("type", type.name());
+            quantityRows.add(MultiGauge.Row.of(tags, stats == null ? 0 : stats.getTotalQuantity()));
+            skuRows.add(MultiGauge.Row.of(tags, stats == null ? 0 : stats.getSkuCount()));
+        }
+        stockQuantity.register(quantityRows, true);
+        skuCount.register(skuRows, true);
+    }
+
+}
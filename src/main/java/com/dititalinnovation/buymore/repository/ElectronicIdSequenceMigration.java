@@ -0,0 +1,51 @@
+package com.dititalinnovation.buymore.repository;
+
+import com.dititalinnovation.buymore.entity.Electronic;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Ids used to come from an identity column. A database created back then gets the id sequence from the
+ * schema update starting at 1, below the ids already taken, so it is restarted past the highest one
+ * before anything is inserted. The pooled optimizer hands out the {@link Electronic#ID_ALLOCATION_SIZE}
+ * ids up to each value it reads, hence the restart one allocation past the highest id.
+ * <p>
+ * The sequence only ever moves forward: once it is past the highest id, nothing is done.
+ */
+@Slf4j
+@Component
+public class ElectronicIdSequenceMigration {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Takes the entity manager factory so the schema update has created the sequence by the time this runs.
+     */
+    @Autowired
+    public ElectronicIdSequenceMigration(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void restartPastHighestId() {
+        Long highestId = jdbcTemplate.queryForObject("select max(id) from electronic", Long.class);
+        if (highestId == null) {
+            return;
+        }
+        Long currentValue = jdbcTemplate.queryForObject(
+                "select current_value from information_schema.sequences where sequence_name = ?",
+                Long.class, Electronic.ID_SEQUENCE.toUpperCase());
+        if (currentValue != null && currentValue >= highestId) {
+            return;
+        }
+        long restartValue = highestId + Electronic.ID_ALLOCATION_SIZE;
+        jdbcTemplate.execute("alter sequence " + Electronic.ID_SEQUENCE + " restart with " + restartValue);
+        log.info("Restarted {} at {}, past the highest electronic id {}", Electronic.ID_SEQUENCE, restartValue, highestId);
+    }
+
+}
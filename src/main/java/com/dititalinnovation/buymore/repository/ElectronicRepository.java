@@ -1,11 +1,76 @@
 package com.dititalinnovation.buymore.repository;
 
+import com.dititalinnovation.buymore.dto.ElectronicDTO;
+import com.dititalinnovation.buymore.dto.StockStatsDTO;
 import com.dititalinnovation.buymore.entity.Electronic;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface ElectronicRepository extends JpaRepository<Electronic, Long> {
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_MODE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
+public interface ElectronicRepository extends JpaRepository<Electronic, Long>, ElectronicRepositoryCustom {
+
+    String EXPORT_FETCH_SIZE = "500";
+    String SELECT_DTO = "select new com.dititalinnovation.buymore.dto.ElectronicDTO(e.id, e.name, e.brand, e.max, e.quantity, e.type, e.version) " +
+            "from Electronic e";
+
+    /**
+     * Cached in the query cache: repeated lookups resolve the id there and the row from the second-level cache.
+     */
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Optional<Electronic> findByName(String name);
+
+    /**
+     * Reads the row from the database and puts it in the second-level cache unless a newer version is
+     * there. For reads after a guarded UPDATE: its eviction does not stop a load that started before the
+     * commit from caching the old row afterwards, and this read is what replaces it.
+     */
+    @QueryHints(@QueryHint(name = HINT_CACHE_MODE, value = "REFRESH"))
+    @Query("select e from Electronic e where e.id = :id")
+    Optional<Electronic> findFreshById(@Param("id") Long id);
+
+    /**
+     * Read paths below project rows straight into ElectronicDTO, so no managed entity, dirty-checking
+     * snapshot or second-level cache entry is created per row.
+     */
+    @Query(SELECT_DTO + " where e.name = :name")
+    Optional<ElectronicDTO> findProjectedByName(@Param("name") String name);
+
+    @Query(SELECT_DTO + " order by e.id")
+    List<ElectronicDTO> findAllProjected();
+
+    /**
+     * Streams the whole catalog with a JDBC fetch size, so rows are read as they are consumed.
+     * The stream must be consumed and closed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(SELECT_DTO + " order by e.id")
+    Stream<ElectronicDTO> streamAllProjected();
+
+    @Query("select new com.dititalinnovation.buymore.dto.StockStatsDTO(e.type, count(e), sum(e.quantity), sum(e.max)) " +
+            "from Electronic e group by e.type")
+    List<StockStatsDTO> summarizeStockByType();
+
+    @Query("select new com.dititalinnovation.buymore.dto.StockStatsDTO(e.brand, count(e), sum(e.quantity), sum(e.max)) " +
+            "from Electronic e group by e.brand order by e.brand")
+    List<StockStatsDTO> summarizeStockByBrand();
+
+    @Query("select e.id from Electronic e where e.id in :ids")
+    List<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(SELECT_DTO + " where e.id in :ids")
+    List<ElectronicDTO> findProjectedByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select e.name from Electronic e where e.name in :names")
+    List<String> findNamesByNameIn(@Param("names") Collection<String> names);
 }
@@ -0,0 +1,48 @@
+package com.dititalinnovation.buymore.repository;
+
+import com.dititalinnovation.buymore.dto.ElectronicDTO;
+import com.dititalinnovation.buymore.dto.StockAdjustmentDTO;
+import com.dititalinnovation.buymore.entity.Electronic;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+public interface ElectronicRepositoryCustom {
+
+    /**
+     * Returns at most limit electronics matching the specification ordered by id, projected into
+     * ElectronicDTO and without the count query a Page would need.
+     */
+    List<ElectronicDTO> findPage(Specification<Electronic> specification, int limit);
+
+    /**
+     * Adds the given quantity in a single guarded UPDATE, so concurrent increments
+     * can neither lose updates nor push the stock over its max or below zero.
+     *
+     * @return the number of updated rows, 0 when the id does not exist or the stock would leave [0, max]
+     */
+    int incrementQuantity(Long id, int quantity);
+
+    /**
+     * Applies every adjustment as the same guarded UPDATE used by increment, sent as one JDBC batch
+     * on the current transaction's connection.
+     *
+     * @return the updated row count of each adjustment, in the given order
+     */
+    int[] incrementQuantities(List<StockAdjustmentDTO> adjustments);
+
+    /**
+     * Same as {@link #incrementQuantities(List)}, with each electronic's stock kept at or above the
+     * given minimum instead of zero.
+     */
+    int[] incrementQuantities(List<StockAdjustmentDTO> adjustments, ToLongFunction<Long> minimumQuantity);
+
+    /**
+     * Drops the given electronics from the second-level cache now and again once the current
+     * transaction completes, for writes that bypass Hibernate.
+     */
+    void evictCached(Collection<Long> ids);
+
+}
@@ -0,0 +1,115 @@
+package com.dititalinnovation.buymore.repository;
+
+import com.dititalinnovation.buymore.dto.ElectronicDTO;
+import com.dititalinnovation.buymore.dto.StockAdjustmentDTO;
+import com.dititalinnovation.buymore.entity.Electronic;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+public class ElectronicRepositoryCustomImpl implements ElectronicRepositoryCustom {
+
+    private static final String INCREMENT_QUANTITY_SQL =
+            "update electronic set quantity = quantity + ?, version = version + 1 where id = ? and quantity + ? <= max and quantity + ? >= ?";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ElectronicRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<ElectronicDTO> findPage(Specification<Electronic> specification, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ElectronicDTO> query = builder.createQuery(ElectronicDTO.class);
+        Root<Electronic> root = query.from(Electronic.class);
+        query.select(builder.construct(ElectronicDTO.class,
+                root.get("id"), root.get("name"), root.get("brand"), root.get("max"), root.get("quantity"), root.get("type"), root.get("version")));
+        if (specification != null) {
+            Predicate predicate = specification.toPredicate(root, query, builder);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        query.orderBy(builder.asc(root.get("id")));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    @Transactional
+    public int incrementQuantity(Long id, int quantity) {
+        int updatedRows = jdbcTemplate.update(INCREMENT_QUANTITY_SQL, quantity, id, quantity, quantity, 0);
+        evictCached(Collections.singleton(id));
+        return updatedRows;
+    }
+
+    @Override
+    public int[] incrementQuantities(List<StockAdjustmentDTO> adjustments) {
+        return incrementQuantities(adjustments, id -> 0);
+    }
+
+    @Override
+    public int[] incrementQuantities(List<StockAdjustmentDTO> adjustments, ToLongFunction<Long> minimumQuantity) {
+        int[] updatedRows = jdbcTemplate.batchUpdate(INCREMENT_QUANTITY_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement preparedStatement, int index) throws SQLException {
+                StockAdjustmentDTO adjustment = adjustments.get(index);
+                preparedStatement.setInt(1, adjustment.getQuantity());
+                preparedStatement.setLong(2, adjustment.getId());
+                preparedStatement.setInt(3, adjustment.getQuantity());
+                preparedStatement.setInt(4, adjustment.getQuantity());
+                preparedStatement.setLong(5, minimumQuantity.applyAsLong(adjustment.getId()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return adjustments.size();
+            }
+        });
+        evictCached(adjustments.stream()
+                .map(StockAdjustmentDTO::getId)
+                .collect(Collectors.toSet()));
+        return updatedRows;
+    }
+
+    @Override
+    public void evictCached(Collection<Long> ids) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        ids.forEach(id -> cache.evict(Electronic.class, id));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // a reader may have cached the old row before this transaction committed
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    ids.forEach(id -> cache.evict(Electronic.class, id));
+                }
+            });
+        }
+    }
+
+}
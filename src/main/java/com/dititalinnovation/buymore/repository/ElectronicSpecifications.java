@@ -0,0 +1,40 @@
+package com.dititalinnovation.buymore.repository;
+
+import com.dititalinnovation.buymore.dto.ElectronicFilterDTO;
+import com.dititalinnovation.buymore.entity.Electronic;
+import com.dititalinnovation.buymore.enums.ElectronicType;
+import org.springframework.data.jpa.domain.Specification;
+
+public final class ElectronicSpecifications {
+
+    private ElectronicSpecifications() {
+    }
+
+    public static Specification<Electronic> matching(ElectronicFilterDTO filter) {
+        return Specification.where(hasType(filter.getType()))
+                .and(hasBrand(filter.getBrand()))
+                .and(quantityAtLeast(filter.getMinQuantity()))
+                .and(quantityAtMost(filter.getMaxQuantity()));
+    }
+
+    public static Specification<Electronic> idAfter(Long id) {
+        return id == null ? null : (root, query, builder) -> builder.greaterThan(root.get("id"), id);
+    }
+
+    public static Specification<Electronic> hasType(ElectronicType type) {
+        return type == null ? null : (root, query, builder) -> builder.equal(root.get("type"), type);
+    }
+
+    public static Specification<Electronic> hasBrand(String brand) {
+        return brand == null ? null : (root, query, builder) -> builder.equal(root.get("brand"), brand);
+    }
+
+    public static Specification<Electronic> quantityAtLeast(Integer quantity) {
+        return quantity == null ? null : (root, query, builder) -> builder.greaterThanOrEqualTo(root.get("quantity"), quantity);
+    }
+
+    public static Specification<Electronic> quantityAtMost(Integer quantity) {
+        return quantity == null ? null : (root, query, builder) -> builder.lessThanOrEqualTo(root.get("quantity"), quantity);
+    }
+
+}
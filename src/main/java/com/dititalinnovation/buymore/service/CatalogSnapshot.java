@@ -0,0 +1,256 @@
+package com.dititalinnovation.buymore.service;
+
+import com.dititalinnovation.buymore.enums.WireFormat;
+import com.dititalinnovation.buymore.event.ElectronicChangedEvent;
+import com.dititalinnovation.buymore.event.ElectronicsChangedEvent;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PreDestroy;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The unpaged catalog listing serialised once and shared by every request, as JSON bytes and as the
+ * same bytes gzipped. A committed change queues a rebuild on a background thread, collapsing bursts
+ * of changes into one rebuild; meanwhile requests keep being served the last snapshot, tagged with its
+ * own version, so no request rebuilds inline and none waits on another's rebuild. A client that must read
+ * its own committed write asks for {@link #awaitCurrent()}, which waits for the rebuild at most
+ * buymore.catalog.fresh-wait.
+ * <p>
+ * Binary representations are transcoded from the JSON bytes token by token the first time a snapshot
+ * is asked for them. Nothing is built until the listing is first requested, and the arrays are never
+ * copied: callers must treat them as read-only.
+ */
+@Slf4j
+@Component
+public class CatalogSnapshot {
+
+    public static final String GZIP = "gzip";
+
+    private final ElectronicService electronicService;
+    private final CatalogVersion catalogVersion;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+    private final Object buildLock = new Object();
+    private final Object published = new Object();
+    private final Duration freshWait;
+
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public CatalogSnapshot(ElectronicService electronicService, CatalogVersion catalogVersion, ObjectMapper objectMapper,
+                           @Value("${buymore.catalog.fresh-wait:2s}") Duration freshWait) {
+        this.electronicService = electronicService;
+        this.catalogVersion = catalogVersion;
+        this.objectMapper = objectMapper;
+        this.freshWait = freshWait;
+    }
+
+    /**
+     * @return the last snapshot built, possibly behind the catalog version, in which case a rebuild is queued;
+     * only the first call builds one itself
+     */
+    public Snapshot current() {
+        Snapshot current = peek();
+        return current != null ? current : rebuild();
+    }
+
+    /**
+     * Like {@link #current()}, but never builds the first snapshot.
+     *
+     * @return the last snapshot built, or null when none was built yet
+     */
+    public Snapshot peek() {
+        Snapshot current = snapshot;
+        if (current != null && current.getVersion() < catalogVersion.current()) {
+            queueRebuild();
+        }
+        return current;
+    }
+
+    /**
+     * @return a snapshot at least as new as the catalog version at the time of the call, or the last one
+     * built when the rebuild takes longer than buymore.catalog.fresh-wait
+     */
+    public Snapshot awaitCurrent() {
+        long version = catalogVersion.current();
+        Snapshot current = current();
+        if (current.getVersion() >= version) {
+            return current;
+        }
+        long deadline = System.nanoTime() + freshWait.toNanos();
+        synchronized (published) {
+            while ((current = snapshot).getVersion() < version) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return current;
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(published, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return current;
+                }
+            }
+        }
+        return current;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onElectronicChanged(ElectronicChangedEvent event) {
+        if (snapshot != null) {
+            queueRebuild();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onElectronicsChanged(ElectronicsChangedEvent event) {
+        if (snapshot != null) {
+            queueRebuild();
+        }
+    }
+
+    /**
+     * True when the Accept-Encoding header admits gzip, i.e. it names gzip or * without q=0.
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parameters = coding.split(";");
+            String name = parameters[0].trim();
+            if ((GZIP.equalsIgnoreCase(name) || "*".equals(name)) && !rejected(parameters)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    private void queueRebuild() {
+        if (rebuildQueued.compareAndSet(false, true)) {
+            rebuilder.execute(this::rebuildQueued);
+        }
+    }
+
+    private void rebuildQueued() {
+        rebuildQueued.set(false);
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Could not rebuild the catalog snapshot, the next request will retry", e);
+        }
+    }
+
+    private Snapshot rebuild() {
+        synchronized (buildLock) {
+            // the version is read before the query, so the listing is at least as new as the version it is tagged with
+            long version = catalogVersion.current();
+            Snapshot current = snapshot;
+            if (current != null && current.getVersion() >= version) {
+                return current;
+            }
+            byte[] json = serialize();
+            Snapshot built = new Snapshot(version, json, gzip(json));
+            snapshot = built;
+            synchronized (published) {
+                published.notifyAll();
+            }
+            return built;
+        }
+    }
+
+    private byte[] serialize() {
+        try {
+            return objectMapper.writeValueAsBytes(electronicService.listAll());
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, json.length / 4));
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(compressed)) {
+            gzipOutputStream.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static boolean rejected(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2)) <= 0;
+                } catch (NumberFormatException e) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Snapshot {
+
+        private final long version;
+        private final byte[] json;
+        private final byte[] gzip;
+        @Getter(AccessLevel.NONE)
+        private final Map<WireFormat, byte[]> transcoded = new ConcurrentHashMap<>();
+
+        public byte[] body(WireFormat format) {
+            if (format == WireFormat.JSON) {
+                return json;
+            }
+            return transcoded.computeIfAbsent(format, this::transcode);
+        }
+
+        private byte[] transcode(WireFormat format) {
+            ByteArrayOutputStream encoded = new ByteArrayOutputStream(Math.max(64, json.length / 2));
+            try (JsonParser parser = WireFormat.JSON.getFactory().createParser(json);
+                 JsonGenerator generator = format.getFactory().createGenerator(encoded)) {
+                parser.nextToken();
+                generator.copyCurrentStructure(parser);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return encoded.toByteArray();
+        }
+
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.dititalinnovation.buymore.service;
+
+import com.dititalinnovation.buymore.event.ElectronicChangedEvent;
+import com.dititalinnovation.buymore.event.ElectronicsChangedEvent;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic version of the whole catalog, bumped once a change is committed. Read endpoints use it as
+ * their ETag, so a matching If-None-Match is answered without a query. The startup time is part of the
+ * tag, so tags handed out before a restart never match again.
+ */
+@Component
+public class CatalogVersion {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final AtomicLong version = new AtomicLong();
+
+    public long current() {
+        return version.get();
+    }
+
+    /**
+     * @return the strong ETag of the current version, quoted
+     */
+    public String etag() {
+        return etag(version.get());
+    }
+
+    /**
+     * @return the strong ETag of the current version for one representation of it, e.g. its gzip encoding
+     */
+    public String etag(String variant) {
+        return etag(version.get(), variant);
+    }
+
+    /**
+     * @return the strong ETag of the given version, e.g. the one a snapshot was built at, quoted
+     */
+    public String etag(long version) {
+        return "\"" + epoch + "-" + version + "\"";
+    }
+
+    public String etag(long version, String variant) {
+        return "\"" + epoch + "-" + version + "-" + variant + "\"";
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onElectronicChanged(ElectronicChangedEvent event) {
+        version.incrementAndGet();
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onElectronicsChanged(ElectronicsChangedEvent event) {
+        version.incrementAndGet();
+    }
+
+}
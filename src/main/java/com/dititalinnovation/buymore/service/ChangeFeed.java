@@ -0,0 +1,299 @@
+package com.dititalinnovation.buymore.service;
+
+import com.dititalinnovation.buymore.dto.ElectronicDTO;
+import com.dititalinnovation.buymore.enums.SlowConsumerPolicy;
+import com.dititalinnovation.buymore.event.ElectronicChangedEvent;
+import com.dititalinnovation.buymore.event.ElectronicsChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-Sent Events feed of committed catalog changes. The write path only appends the event to an
+ * {@link EventRingBuffer} and, at most once per burst, hands the fan-out to the feed's own threads, so
+ * subscribers never hold it back. Each subscriber is drained by at most one thread at a time from its
+ * own cursor; a blocked client ties up only its own drain.
+ * <p>
+ * Event ids are {@code <startup epoch>-<sequence>}, so a client reconnecting with Last-Event-ID gets
+ * every event it missed while they are still in the ring. A subscriber that fell further behind than
+ * the ring holds, or that resumes an id from before a restart, gets a {@value #RESET_EVENT} event and
+ * should reload the catalog; whether a subscriber lapped while connected is skipped ahead or
+ * disconnected is set by buymore.feed.slow-consumer.
+ */
+@Slf4j
+@Component
+public class ChangeFeed {
+
+    public static final String RESET_EVENT = "reset";
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final EventRingBuffer<ElectronicChangedEvent> ring;
+    private final SlowConsumerPolicy slowConsumerPolicy;
+    private final Duration timeout;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean fanOutQueued = new AtomicBoolean();
+    private final AtomicInteger senderThreads = new AtomicInteger();
+    private final ExecutorService senders = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "change-feed-" + senderThreads.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Counter publishedEvents;
+    private final Counter resets;
+
+    @Autowired
+    public ChangeFeed(@Value("${buymore.feed.capacity:4096}") int capacity,
+                      @Value("${buymore.feed.slow-consumer:SKIP}") SlowConsumerPolicy slowConsumerPolicy,
+                      @Value("${buymore.feed.timeout:30m}") Duration timeout,
+                      MeterRegistry meterRegistry) {
+        this.ring = new EventRingBuffer<>(capacity);
+        this.slowConsumerPolicy = slowConsumerPolicy;
+        this.timeout = timeout;
+        this.publishedEvents = Counter.builder("buymore.feed.published")
+                .description("Catalog changes appended to the change feed")
+                .register(meterRegistry);
+        this.resets = Counter.builder("buymore.feed.resets")
+                .description("Subscribers told to reload because they missed events")
+                .tag("policy", slowConsumerPolicy.name())
+                .register(meterRegistry);
+        Gauge.builder("buymore.feed.subscribers", subscribers, Set::size)
+                .description("Open change feed streams")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream of the changes committed from now on, or from after lastEventId when it is given.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter);
+        resume(subscriber, lastEventId);
+        emitter.onCompletion(subscriber::detach);
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> subscriber.detach());
+        subscribers.add(subscriber);
+        senders.execute(() -> drain(subscriber));
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onElectronicChanged(ElectronicChangedEvent event) {
+        ring.publish(event);
+        publishedEvents.increment();
+        queueFanOut();
+    }
+
+    /**
+     * Streams one event per electronic, fanned out to subscribers once for the whole batch.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onElectronicsChanged(ElectronicsChangedEvent event) {
+        for (ElectronicDTO electronicDTO : event.getElectronics()) {
+            ring.publish(new ElectronicChangedEvent(event.getType(), electronicDTO));
+        }
+        publishedEvents.increment(event.getElectronics().size());
+        queueFanOut();
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Keeps idle streams alive through proxies and finds clients that went away without closing. The
+     * heartbeat is sent by the subscriber's drain, so a stalled client still ties up at most one thread,
+     * and a heartbeat due while one is pending is sent once.
+     */
+    @Scheduled(fixedDelayString = "${buymore.feed.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeatDue = true;
+            if (!subscriber.draining.get()) {
+                senders.execute(() -> drain(subscriber));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    private void resume(Subscriber subscriber, String lastEventId) {
+        long head = ring.head();
+        subscriber.next = head + 1;
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return;
+        }
+        int separator = lastEventId.lastIndexOf('-');
+        long lastSequence = -1;
+        if (separator > 0 && epoch.equals(lastEventId.substring(0, separator))) {
+            try {
+                lastSequence = Long.parseLong(lastEventId.substring(separator + 1));
+            } catch (NumberFormatException e) {
+                lastSequence = -1;
+            }
+        }
+        if (lastSequence < 0 || lastSequence > head) {
+            subscriber.pendingReset = "Last-Event-ID is not from this feed, reload the catalog";
+        } else {
+            subscriber.next = lastSequence + 1;
+        }
+    }
+
+    private void queueFanOut() {
+        if (fanOutQueued.compareAndSet(false, true)) {
+            senders.execute(this::fanOut);
+        }
+    }
+
+    private void fanOut() {
+        fanOutQueued.set(false);
+        long head = ring.head();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.next <= head && !subscriber.draining.get()) {
+                senders.execute(() -> drain(subscriber));
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        do {
+            if (!subscriber.draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                deliver(subscriber);
+            } finally {
+                subscriber.draining.set(false);
+            }
+            // an event written or a heartbeat due while the flag was held is picked up here rather than lost
+        } while (subscriber.open && (subscriber.heartbeatDue || isWritten(subscriber.next)));
+    }
+
+    private void deliver(Subscriber subscriber) {
+        if (subscriber.heartbeatDue) {
+            subscriber.heartbeatDue = false;
+            if (!send(subscriber, SseEmitter.event().comment("heartbeat"))) {
+                return;
+            }
+        }
+        if (subscriber.pendingReset != null) {
+            if (!sendReset(subscriber, subscriber.pendingReset)) {
+                return;
+            }
+            subscriber.pendingReset = null;
+        }
+        long head = ring.head();
+        while (subscriber.open && subscriber.next <= head) {
+            long sequence = subscriber.next;
+            EventRingBuffer.Entry<ElectronicChangedEvent> entry = ring.read(sequence);
+            if (entry == null || entry.getSequence() < sequence) {
+                // claimed but not written yet; its publisher fans out again once it is
+                return;
+            }
+            if (entry.getSequence() > sequence) {
+                if (!lapped(subscriber, sequence)) {
+                    return;
+                }
+                continue;
+            }
+            ElectronicChangedEvent event = entry.getValue();
+            SseEmitter.SseEventBuilder sseEvent = SseEmitter.event()
+                    .id(epoch + "-" + sequence)
+                    .name(event.getType().name())
+                    .data(event.getElectronic(), MediaType.APPLICATION_JSON);
+            if (!send(subscriber, sseEvent)) {
+                return;
+            }
+            subscriber.next = sequence + 1;
+        }
+    }
+
+    /**
+     * @return true when the subscriber goes on from the oldest event still held
+     */
+    private boolean lapped(Subscriber subscriber, long sequence) {
+        long oldest = ring.oldest();
+        String reason = String.format("%d changes were missed, reload the catalog", oldest - sequence);
+        if (slowConsumerPolicy == SlowConsumerPolicy.DISCONNECT) {
+            resets.increment();
+            log.debug("Disconnecting change feed subscriber that fell behind: {}", reason);
+            subscriber.close();
+            return false;
+        }
+        if (!sendReset(subscriber, reason)) {
+            return false;
+        }
+        subscriber.next = oldest;
+        return true;
+    }
+
+    private boolean sendReset(Subscriber subscriber, String reason) {
+        resets.increment();
+        return send(subscriber, SseEmitter.event().name(RESET_EVENT).data(reason, MediaType.TEXT_PLAIN));
+    }
+
+    private boolean send(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        try {
+            subscriber.emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // the client went away; the container completes the emitter
+            log.debug("Dropping change feed subscriber", e);
+            subscriber.detach();
+            return false;
+        }
+    }
+
+    private boolean isWritten(long sequence) {
+        EventRingBuffer.Entry<ElectronicChangedEvent> entry = ring.read(sequence);
+        return sequence <= ring.head() && entry != null && entry.getSequence() >= sequence;
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile long next;
+        private volatile String pendingReset;
+        private volatile boolean heartbeatDue;
+        private volatile boolean open = true;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void detach() {
+            open = false;
+            subscribers.remove(this);
+        }
+
+        private void close() {
+            detach();
+            emitter.complete();
+        }
+
+    }
+
+}
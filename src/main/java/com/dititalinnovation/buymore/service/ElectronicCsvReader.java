@@ -0,0 +1,235 @@
+package com.dititalinnovation.buymore.service;
+
+import com.dititalinnovation.buymore.dto.ElectronicDTO;
+import com.dititalinnovation.buymore.enums.ElectronicType;
+import com.dititalinnovation.buymore.exception.InvalidCsvException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Reads electronics from a UTF-8 CSV file one record at a time, so memory does not depend on the file
+ * size. The header row names the columns in any order; unknown columns, such as id, are ignored.
+ * Fields follow RFC 4180: quoted fields may hold commas, line breaks and doubled quotes.
+ * <p>
+ * A record that cannot be converted is returned with an error instead of an electronic, so the caller
+ * can report it and carry on. Fields and records are capped in length and number of fields, so one
+ * malformed record cannot exhaust the heap.
+ */
+public class ElectronicCsvReader implements Closeable {
+
+    public static final List<String> COLUMNS = List.of("name", "brand", "max", "quantity", "type");
+    private static final int MAX_FIELD_LENGTH = 4096;
+    private static final int MAX_FIELDS = 64;
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private final Reader reader;
+    private final int[] columnIndexes;
+    private int line = 1;
+    private boolean oversizedField;
+    private boolean tooManyFields;
+
+    private ElectronicCsvReader(Reader reader) throws IOException, InvalidCsvException {
+        this.reader = reader;
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new InvalidCsvException("the file is empty");
+        }
+        if (tooManyFields) {
+            throw new InvalidCsvException(String.format("the header has more than %d columns", MAX_FIELDS));
+        }
+        Map<String, Integer> headerIndexes = new HashMap<>();
+        for (int index = 0; index < header.size(); index++) {
+            String column = header.get(index);
+            if (index == 0 && !column.isEmpty() && column.charAt(0) == BYTE_ORDER_MARK) {
+                column = column.substring(1);
+            }
+            headerIndexes.putIfAbsent(column.trim().toLowerCase(Locale.ROOT), index);
+        }
+        List<String> missingColumns = COLUMNS.stream()
+                .filter(column -> !headerIndexes.containsKey(column))
+                .collect(Collectors.toList());
+        if (!missingColumns.isEmpty()) {
+            throw new InvalidCsvException(String.format("the header misses the columns %s", missingColumns));
+        }
+        this.columnIndexes = COLUMNS.stream().mapToInt(headerIndexes::get).toArray();
+    }
+
+    /**
+     * Opens the stream and reads the header row.
+     *
+     * @throws InvalidCsvException when the file is empty or the header lacks a required column
+     */
+    public static ElectronicCsvReader open(InputStream inputStream) throws IOException, InvalidCsvException {
+        Reader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        try {
+            return new ElectronicCsvReader(reader);
+        } catch (IOException | InvalidCsvException e) {
+            reader.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the next non-blank record, or null at the end of the file
+     */
+    public Row next() throws IOException {
+        List<String> fields;
+        int recordLine;
+        do {
+            recordLine = line;
+            fields = readRecord();
+            if (fields == null) {
+                return null;
+            }
+        } while (fields.size() == 1 && fields.get(0).isBlank());
+        return toRow(recordLine, fields);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private Row toRow(int recordLine, List<String> fields) {
+        if (oversizedField) {
+            return new Row(recordLine, null, String.format("a field is longer than %d characters", MAX_FIELD_LENGTH));
+        }
+        if (tooManyFields) {
+            return new Row(recordLine, null, String.format("the record has more than %d fields", MAX_FIELDS));
+        }
+        List<String> errors = new ArrayList<>();
+        ElectronicDTO electronicDTO = ElectronicDTO.builder()
+                .name(field(fields, 0))
+                .brand(field(fields, 1))
+                .max(number(fields, 2, errors))
+                .quantity(number(fields, 3, errors))
+                .type(type(fields, errors))
+                .build();
+        if (!errors.isEmpty()) {
+            return new Row(recordLine, electronicDTO, String.join(", ", errors));
+        }
+        return new Row(recordLine, electronicDTO, null);
+    }
+
+    private String field(List<String> fields, int column) {
+        int index = columnIndexes[column];
+        if (index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private Integer number(List<String> fields, int column, List<String> errors) {
+        String value = field(fields, column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            errors.add(String.format("%s is not a whole number", COLUMNS.get(column)));
+            return null;
+        }
+    }
+
+    private ElectronicType type(List<String> fields, List<String> errors) {
+        String value = field(fields, 4);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return ElectronicType.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            errors.add(String.format("type must be one of %s", Arrays.toString(ElectronicType.values())));
+            return null;
+        }
+    }
+
+    private List<String> readRecord() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        oversizedField = false;
+        tooManyFields = false;
+        List<String> fields = new ArrayList<>(COLUMNS.size());
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    addField(fields, field);
+                    return fields;
+                }
+                if (c == '"') {
+                    c = reader.read();
+                    if (c != '"') {
+                        quoted = false;
+                        continue;
+                    }
+                } else if (c == '\n') {
+                    line++;
+                }
+                append(field, c);
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                addField(fields, field);
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                line++;
+                addField(fields, field);
+                return fields;
+            } else if (c != '\r') {
+                append(field, c);
+            }
+            c = reader.read();
+        }
+    }
+
+    private void addField(List<String> fields, StringBuilder field) {
+        if (fields.size() < MAX_FIELDS) {
+            fields.add(field.toString());
+        } else {
+            tooManyFields = true;
+        }
+    }
+
+    private void append(StringBuilder field, int c) {
+        if (field.length() < MAX_FIELD_LENGTH) {
+            field.append((char) c);
+        } else {
+            oversizedField = true;
+        }
+    }
+
+    /**
+     * One record: the electronic it describes and, when it cannot be imported as read, why.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Row {
+
+        private final int line;
+        private final ElectronicDTO electronic;
+        private final String error;
+
+    }
+
+}
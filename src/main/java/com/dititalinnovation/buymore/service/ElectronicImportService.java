@@ -0,0 +1,198 @@
+package com.dititalinnovation.buymore.service;
+
+import com.dititalinnovation.buymore.dto.ElectronicDTO;
+import com.dititalinnovation.buymore.dto.ElectronicImportResultDTO;
+import com.dititalinnovation.buymore.dto.RejectedElectronicDTO;
+import com.dititalinnovation.buymore.entity.Electronic;
+import com.dititalinnovation.buymore.enums.ElectronicChangeType;
+import com.dititalinnovation.buymore.event.ElectronicsChangedEvent;
+import com.dititalinnovation.buymore.exception.ElectronicAlreadyRegisteredException;
+import com.dititalinnovation.buymore.mapper.ElectronicMapper;
+import com.dititalinnovation.buymore.repository.ElectronicRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Imports a CSV catalog in fixed-size batches, each in its own transaction. A batch is validated,
+ * checked for registered names with one query, inserted through JDBC batching, flushed and cleared, so
+ * neither the heap nor the persistence context grows with the file. Batches already committed stay
+ * imported when a later one fails.
+ * <p>
+ * Names are unique within a batch by a map of the batch; a name repeated in a later batch is found by
+ * that batch's registered name query, since the earlier batch is committed by then. Each committed batch
+ * is published as one {@link ElectronicsChangedEvent}.
+ */
+@Slf4j
+@Service
+public class ElectronicImportService {
+
+    public static final int MAX_BATCH_SIZE = 1000;
+    private static final int INSERT_ATTEMPTS = 2;
+
+    private final ElectronicRepository electronicRepository;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final ElectronicMapper electronicMapper = ElectronicMapper.INSTANCE;
+
+    @Autowired
+    public ElectronicImportService(ElectronicRepository electronicRepository,
+                                   Validator validator,
+                                   EntityManager entityManager,
+                                   ApplicationEventPublisher eventPublisher,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${buymore.import.batch-size:500}") int batchSize) {
+        this.electronicRepository = electronicRepository;
+        this.validator = validator;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, Math.min(batchSize, MAX_BATCH_SIZE));
+    }
+
+    /**
+     * Reads the whole file, handing the rows rejected by each batch to the consumer as soon as the
+     * batch is resolved, in file order.
+     */
+    public ElectronicImportResultDTO importElectronics(ElectronicCsvReader csvReader, Consumer<List<RejectedElectronicDTO>> rejectionConsumer) throws IOException {
+        int rows = 0;
+        int rejected = 0;
+        List<ElectronicCsvReader.Row> batch = new ArrayList<>(batchSize);
+        ElectronicCsvReader.Row row;
+        do {
+            row = csvReader.next();
+            if (row != null) {
+                batch.add(row);
+                rows++;
+            }
+            if (batch.size() == batchSize || (row == null && !batch.isEmpty())) {
+                List<RejectedElectronicDTO> rejectedRows = importBatch(batch);
+                if (!rejectedRows.isEmpty()) {
+                    rejected += rejectedRows.size();
+                    rejectionConsumer.accept(rejectedRows);
+                }
+                batch.clear();
+            }
+        } while (row != null);
+        return ElectronicImportResultDTO.builder()
+                .rows(rows)
+                .imported(rows - rejected)
+                .rejected(rejected)
+                .build();
+    }
+
+    private List<RejectedElectronicDTO> importBatch(List<ElectronicCsvReader.Row> batch) {
+        List<RejectedElectronicDTO> rejected = new ArrayList<>();
+        Map<String, ElectronicCsvReader.Row> candidates = new LinkedHashMap<>();
+        for (ElectronicCsvReader.Row row : batch) {
+            if (row.getError() != null) {
+                rejected.add(reject(row, row.getError()));
+                continue;
+            }
+            ElectronicDTO electronicDTO = row.getElectronic();
+            Set<ConstraintViolation<ElectronicDTO>> violations = validator.validate(electronicDTO);
+            if (!violations.isEmpty()) {
+                rejected.add(reject(row, describe(violations)));
+            } else if (candidates.putIfAbsent(electronicDTO.getName(), row) != null) {
+                rejected.add(reject(row, String.format("Electronic with name %s is duplicated in the file.", electronicDTO.getName())));
+            }
+        }
+
+        if (!candidates.isEmpty()) {
+            rejected.addAll(insert(candidates));
+        }
+        rejected.sort(Comparator.comparingInt(RejectedElectronicDTO::getIndex));
+        return rejected;
+    }
+
+    /**
+     * Inserts the candidates whose names are not registered yet. A name registered concurrently between
+     * the check and the insert fails the batch; it is then checked and inserted once more.
+     */
+    private List<RejectedElectronicDTO> insert(Map<String, ElectronicCsvReader.Row> candidates) {
+        DataIntegrityViolationException lastFailure = null;
+        for (int attempt = 1; attempt <= INSERT_ATTEMPTS; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> insertUnregistered(candidates));
+            } catch (DataIntegrityViolationException e) {
+                if (!ElectronicAlreadyRegisteredException.isCausedBy(e)) {
+                    throw e;
+                }
+                log.debug("Import batch conflicted with a concurrent insert, attempt {}", attempt, e);
+                lastFailure = e;
+            }
+        }
+        log.warn("Import batch of {} electronics kept conflicting with concurrent inserts, rejecting it", candidates.size(), lastFailure);
+        String reason = "Electronic could not be imported: its batch kept conflicting with electronics registered concurrently, retry the import.";
+        return candidates.values().stream()
+                .map(row -> reject(row, reason))
+                .collect(Collectors.toList());
+    }
+
+    private List<RejectedElectronicDTO> insertUnregistered(Map<String, ElectronicCsvReader.Row> candidates) {
+        // bulk rows are not worth second-level cache entries
+        entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+        Set<String> registeredNames = new HashSet<>(electronicRepository.findNamesByNameIn(candidates.keySet()));
+        List<RejectedElectronicDTO> rejected = new ArrayList<>();
+        List<Electronic> electronicsToSave = new ArrayList<>(candidates.size());
+        for (ElectronicCsvReader.Row row : candidates.values()) {
+            String name = row.getElectronic().getName();
+            if (registeredNames.contains(name)) {
+                rejected.add(reject(row, new ElectronicAlreadyRegisteredException(name).getMessage()));
+            } else {
+                Electronic electronic = electronicMapper.toModel(row.getElectronic());
+                electronic.setId(null);
+                electronicsToSave.add(electronic);
+            }
+        }
+        List<Electronic> savedElectronics = electronicRepository.saveAll(electronicsToSave);
+        electronicRepository.flush();
+        if (!savedElectronics.isEmpty()) {
+            eventPublisher.publishEvent(new ElectronicsChangedEvent(ElectronicChangeType.CREATED, savedElectronics.stream()
+                    .map(electronicMapper::toDTO)
+                    .collect(Collectors.toList())));
+        }
+        entityManager.clear();
+        return rejected;
+    }
+
+    private RejectedElectronicDTO reject(ElectronicCsvReader.Row row, String reason) {
+        return RejectedElectronicDTO.builder()
+                .index(row.getLine())
+                .name(row.getElectronic() == null ? null : row.getElectronic().getName())
+                .reason(reason)
+                .build();
+    }
+
+    private String describe(Set<ConstraintViolation<ElectronicDTO>> violations) {
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+}
@@ -0,0 +1,530 @@
+package com.dititalinnovation.buymore.service;
+
+import com.dititalinnovation.buymore.dto.ElectronicDTO;
+import com.dititalinnovation.buymore.enums.ElectronicChangeType;
+import com.dititalinnovation.buymore.enums.ElectronicType;
+import com.dititalinnovation.buymore.event.ElectronicChangedEvent;
+import com.dititalinnovation.buymore.event.ElectronicsChangedEvent;
+import com.dititalinnovation.buymore.repository.ElectronicRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * In-memory search over the names and brands of the catalog. Results come in three tiers, each read in
+ * an order that lets the search stop as soon as it has enough matches:
+ * <ol>
+ * <li>names starting with the query, in name order, from a skip list of names;</li>
+ * <li>electronics where every query word starts a word of the name or brand, from a sorted dictionary
+ * of words, walked from the query word matching the fewest electronics;</li>
+ * <li>the same, letting a query word of three or more letters also match dictionary words with a
+ * trigram similarity of {@value #FUZZY_SIMILARITY}, found through a trigram index of the dictionary.</li>
+ * </ol>
+ * Text is compared lowercased, without accents and with punctuation as word breaks. Words with digits,
+ * such as model numbers, only match by prefix: their trigrams are shared by too many other numbers to
+ * narrow anything down. Postings carry each electronic's type next to it, so a type filter skips
+ * entries without following them.
+ * <p>
+ * The index is loaded when the application is ready and follows ElectronicChangedEvent from then on.
+ * A stock change replaces the electronic in place; a rename unlinks the old entry, which stays in the
+ * word postings as a dead entry until dead entries outnumber live ones and the index is rebuilt.
+ * Writers are serialised; searches take no lock.
+ * <p>
+ * Changes are ordered by entity version, not by arrival: a change older than the indexed electronic is
+ * dropped, and a deletion leaves a tombstone that drops the changes committed before it.
+ */
+@Slf4j
+@Component
+public class ElectronicSearchIndex {
+
+    public static final int MAX_RESULTS = 100;
+    public static final double FUZZY_SIMILARITY = 0.3;
+    private static final int MIN_FUZZY_LENGTH = 3;
+    private static final int MAX_FUZZY_EXPANSIONS = 32;
+    private static final int MIN_DEAD_ENTRIES_TO_COMPACT = 4096;
+    private static final Duration TOMBSTONE_TIME_TO_LIVE = Duration.ofMinutes(5);
+
+    private final ElectronicRepository electronicRepository;
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+    private final Tombstones tombstones = new Tombstones(TOMBSTONE_TIME_TO_LIVE);
+    private volatile Segment segment = new Segment();
+    private long liveEntries;
+    private long deadEntries;
+
+    @Autowired
+    public ElectronicSearchIndex(ElectronicRepository electronicRepository, MeterRegistry meterRegistry) {
+        this.electronicRepository = electronicRepository;
+        Gauge.builder("buymore.search.documents", documents, Map::size)
+                .description("Electronics in the search index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reads the catalog once. Entries already written by an event are kept unless the row read here is
+     * newer, and electronics deleted meanwhile stay deleted.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        try (Stream<ElectronicDTO> electronics = electronicRepository.streamAllProjected()) {
+            load(electronics);
+        }
+    }
+
+    public void load(Stream<ElectronicDTO> electronics) {
+        electronics.forEach(this::putLoaded);
+        log.info("Search index loaded {} electronics, {} words", documents.size(), segment.words.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onElectronicChanged(ElectronicChangedEvent event) {
+        ElectronicDTO electronicDTO = event.getElectronic();
+        if (event.getType() == ElectronicChangeType.DELETED) {
+            remove(electronicDTO.getId(), event.getVersion());
+        } else {
+            put(electronicDTO);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onElectronicsChanged(ElectronicsChangedEvent event) {
+        event.getElectronics().forEach(electronicDTO -> onElectronicChanged(new ElectronicChangedEvent(event.getType(), electronicDTO)));
+    }
+
+    /**
+     * @return up to limit electronics matching the query, of the given type when one is given
+     */
+    public List<ElectronicDTO> search(String query, ElectronicType type, int limit) {
+        int resultLimit = Math.max(1, Math.min(limit, MAX_RESULTS));
+        String normalizedQuery = normalize(query);
+        if (normalizedQuery.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Segment current = segment;
+        Results results = new Results(type, resultLimit);
+
+        for (Document document : current.names.tailSet(Document.probe(normalizedQuery), true)) {
+            if (!document.name.startsWith(normalizedQuery) || results.offer(document)) {
+                break;
+            }
+        }
+
+        String[] queryWords = normalizedQuery.split(" ");
+        if (!results.isFull()) {
+            matchWords(current, queryWords, null, results);
+        }
+        if (!results.isFull()) {
+            List<Set<String>> fuzzyWords = new ArrayList<>(queryWords.length);
+            boolean anyFuzzyWord = false;
+            for (String queryWord : queryWords) {
+                Set<String> similarWords = similarWords(current, queryWord);
+                anyFuzzyWord |= !similarWords.isEmpty();
+                fuzzyWords.add(similarWords);
+            }
+            if (anyFuzzyWord) {
+                matchWords(current, queryWords, fuzzyWords, results);
+            }
+        }
+        return results.toList();
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * Lowercases, strips accents and turns every run of characters other than letters and digits into
+     * one space.
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder normalized = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(Character.toLowerCase(c));
+            } else if (Character.getType(c) != Character.NON_SPACING_MARK
+                    && normalized.length() > 0 && normalized.charAt(normalized.length() - 1) != ' ') {
+                normalized.append(' ');
+            }
+        }
+        int length = normalized.length();
+        return length > 0 && normalized.charAt(length - 1) == ' ' ? normalized.substring(0, length - 1) : normalized.toString();
+    }
+
+    private synchronized void putLoaded(ElectronicDTO electronicDTO) {
+        Document previous = documents.get(electronicDTO.getId());
+        if (previous == null || Tombstones.isOlder(previous.electronic.getVersion(), electronicDTO.getVersion())) {
+            put(electronicDTO);
+        }
+    }
+
+    private synchronized void put(ElectronicDTO electronicDTO) {
+        if (tombstones.buries(electronicDTO.getId(), electronicDTO.getVersion())) {
+            return;
+        }
+        Document previous = documents.get(electronicDTO.getId());
+        if (previous != null && Tombstones.isOlder(electronicDTO.getVersion(), previous.electronic.getVersion())) {
+            return;
+        }
+        if (previous != null && previous.indexes(electronicDTO)) {
+            previous.electronic = electronicDTO;
+            return;
+        }
+        if (previous != null) {
+            unlink(previous);
+        }
+        Document document = new Document(electronicDTO);
+        documents.put(document.id, document);
+        link(segment, document);
+        liveEntries += document.words.length;
+        compactIfMostlyDead();
+    }
+
+    private synchronized void remove(long id, Long version) {
+        tombstones.add(id, version);
+        Document previous = documents.remove(id);
+        if (previous != null) {
+            unlink(previous);
+            compactIfMostlyDead();
+        }
+    }
+
+    private void unlink(Document document) {
+        document.live = false;
+        segment.names.remove(document);
+        liveEntries -= document.words.length;
+        deadEntries += document.words.length;
+    }
+
+    private void compactIfMostlyDead() {
+        if (deadEntries < MIN_DEAD_ENTRIES_TO_COMPACT || deadEntries < liveEntries) {
+            return;
+        }
+        Segment compacted = new Segment();
+        documents.values().forEach(document -> link(compacted, document));
+        segment = compacted;
+        log.debug("Search index compacted, {} dead entries dropped", deadEntries);
+        deadEntries = 0;
+    }
+
+    private static void link(Segment segment, Document document) {
+        segment.names.add(document);
+        for (String word : document.words) {
+            Postings<Document> postings = segment.words.get(word);
+            if (postings == null) {
+                postings = new Postings<>();
+                segment.words.put(word, postings);
+                if (isFuzzy(word)) {
+                    for (String gram : trigrams(word)) {
+                        segment.trigrams.computeIfAbsent(gram, key -> new Postings<>()).add(word, Postings.UNTAGGED);
+                    }
+                }
+            }
+            postings.add(document, document.tag);
+        }
+    }
+
+    /**
+     * Walks the postings of the query word with the fewest candidates and keeps the electronics whose
+     * words match every other query word, by prefix or, when given, by one of its similar words.
+     */
+    private static void matchWords(Segment segment, String[] queryWords, List<Set<String>> similarWords, Results results) {
+        int driver = -1;
+        long driverCost = Long.MAX_VALUE;
+        List<Collection<Postings<Document>>> candidates = new ArrayList<>(queryWords.length);
+        for (int i = 0; i < queryWords.length; i++) {
+            Collection<Postings<Document>> postings = prefixPostings(segment, queryWords[i]);
+            if (similarWords != null && !similarWords.get(i).isEmpty()) {
+                List<Postings<Document>> expanded = new ArrayList<>(postings);
+                similarWords.get(i).forEach(word -> expanded.add(segment.words.get(word)));
+                postings = expanded;
+            }
+            candidates.add(postings);
+            long cost = postingsSize(postings, driverCost);
+            if (cost < driverCost) {
+                driver = i;
+                driverCost = cost;
+            }
+        }
+        if (driverCost == 0) {
+            return;
+        }
+        Predicate<Document> matchesAll = document -> {
+            for (int i = 0; i < queryWords.length; i++) {
+                if (!document.hasWordMatching(queryWords[i], similarWords == null ? null : similarWords.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        };
+        byte tag = results.tag();
+        for (Postings<Document> postings : candidates.get(driver)) {
+            if (postings.forEachUntil(tag, document -> matchesAll.test(document) && results.offer(document))) {
+                return;
+            }
+        }
+    }
+
+    private static Collection<Postings<Document>> prefixPostings(Segment segment, String prefix) {
+        return segment.words.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values();
+    }
+
+    /**
+     * @return the total size of the postings, or bound as soon as it is reached
+     */
+    private static long postingsSize(Collection<Postings<Document>> candidates, long bound) {
+        long size = 0;
+        for (Postings<Document> postings : candidates) {
+            size += postings.size();
+            if (size >= bound) {
+                return bound;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Dictionary words whose trigrams overlap the query word's by at least {@value #FUZZY_SIMILARITY}
+     * (Jaccard). Such a word shares at least t of the query word's q trigrams, so it is found in one of
+     * the q - t + 1 shortest trigram postings; only those are read.
+     */
+    private static Set<String> similarWords(Segment segment, String queryWord) {
+        if (!isFuzzy(queryWord)) {
+            return Set.of();
+        }
+        Set<String> queryGrams = trigrams(queryWord);
+        int required = (int) Math.ceil(FUZZY_SIMILARITY * queryGrams.size());
+        List<Postings<String>> shortest = queryGrams.stream()
+                .map(gram -> segment.trigrams.getOrDefault(gram, Postings.empty()))
+                .sorted(Comparator.comparingInt(Postings::size))
+                .limit(queryGrams.size() - required + 1L)
+                .collect(Collectors.toList());
+        Set<String> candidates = new HashSet<>();
+        for (Postings<String> postings : shortest) {
+            postings.forEachUntil(Postings.UNTAGGED, word -> {
+                candidates.add(word);
+                return false;
+            });
+        }
+        Map<String, Double> similarities = new HashMap<>();
+        for (String candidate : candidates) {
+            Set<String> candidateGrams = trigrams(candidate);
+            long shared = candidateGrams.stream().filter(queryGrams::contains).count();
+            double similarity = (double) shared / (queryGrams.size() + candidateGrams.size() - shared);
+            if (similarity >= FUZZY_SIMILARITY && !candidate.startsWith(queryWord)) {
+                similarities.put(candidate, similarity);
+            }
+        }
+        return similarities.entrySet().stream()
+                .sorted(Map.Entry.<String, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(MAX_FUZZY_EXPANSIONS)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    private static boolean isFuzzy(String word) {
+        return word.length() >= MIN_FUZZY_LENGTH && word.chars().noneMatch(Character::isDigit);
+    }
+
+    /**
+     * Trigrams of the word padded with two spaces in front and one behind, so word starts weigh more.
+     */
+    private static Set<String> trigrams(String word) {
+        String padded = "  " + word + " ";
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    private static final class Segment {
+
+        private final NavigableSet<Document> names = new ConcurrentSkipListSet<>(Document.BY_NAME);
+        private final NavigableMap<String, Postings<Document>> words = new ConcurrentSkipListMap<>();
+        private final Map<String, Postings<String>> trigrams = new ConcurrentHashMap<>();
+
+    }
+
+    private static final class Document {
+
+        private static final Comparator<Document> BY_NAME = Comparator.<Document, String>comparing(document -> document.name)
+                .thenComparingLong(document -> document.id);
+
+        private final long id;
+        private final String name;
+        private final String[] words;
+        private final byte tag;
+        private volatile ElectronicDTO electronic;
+        private volatile boolean live = true;
+
+        private Document(ElectronicDTO electronicDTO) {
+            this.id = electronicDTO.getId();
+            this.name = normalize(electronicDTO.getName());
+            String text = name + " " + normalize(electronicDTO.getBrand());
+            this.words = Arrays.stream(text.split(" "))
+                    .filter(word -> !word.isEmpty())
+                    .distinct()
+                    .toArray(String[]::new);
+            this.tag = Postings.tagOf(electronicDTO.getType());
+            this.electronic = electronicDTO;
+        }
+
+        private Document(long id, String name) {
+            this.id = id;
+            this.name = name;
+            this.words = new String[0];
+            this.tag = Postings.UNTAGGED;
+        }
+
+        private static Document probe(String name) {
+            return new Document(Long.MIN_VALUE, name);
+        }
+
+        private boolean indexes(ElectronicDTO electronicDTO) {
+            return Objects.equals(electronic.getName(), electronicDTO.getName())
+                    && Objects.equals(electronic.getBrand(), electronicDTO.getBrand())
+                    && tag == Postings.tagOf(electronicDTO.getType());
+        }
+
+        private boolean hasWordMatching(String queryWord, Set<String> similarWords) {
+            for (String word : words) {
+                if (word.startsWith(queryWord) || (similarWords != null && similarWords.contains(word))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+    }
+
+    /**
+     * Append-only list read without locks: the element is written before the size is published, and
+     * readers read the size before the arrays. Only the index's writer appends. Each element carries a
+     * one-byte tag, the electronic's type, so filtering by it reads a byte array instead of the elements.
+     */
+    private static final class Postings<T> {
+
+        private static final byte UNTAGGED = -1;
+        private static final Postings<?> EMPTY = new Postings<>();
+
+        private volatile Object[] values = new Object[2];
+        private volatile byte[] tags = new byte[2];
+        private volatile int size;
+
+        private static byte tagOf(ElectronicType type) {
+            return type == null ? UNTAGGED : (byte) type.ordinal();
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> Postings<T> empty() {
+            return (Postings<T>) EMPTY;
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private void add(T value, byte tag) {
+            Object[] currentValues = values;
+            byte[] currentTags = tags;
+            if (size == currentValues.length) {
+                currentValues = Arrays.copyOf(currentValues, size * 2);
+                currentTags = Arrays.copyOf(currentTags, size * 2);
+                values = currentValues;
+                tags = currentTags;
+            }
+            currentValues[size] = value;
+            currentTags[size] = tag;
+            size = size + 1;
+        }
+
+        /**
+         * Runs the action on the elements with the tag, or on all of them when the tag is UNTAGGED.
+         *
+         * @return true when the action asked to stop
+         */
+        @SuppressWarnings("unchecked")
+        private boolean forEachUntil(byte tag, Predicate<T> action) {
+            int count = size;
+            Object[] currentValues = values;
+            byte[] currentTags = tags;
+            for (int i = 0; i < count; i++) {
+                if ((tag == UNTAGGED || currentTags[i] == tag) && action.test((T) currentValues[i])) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+    }
+
+    private static final class Results {
+
+        private final ElectronicType type;
+        private final int limit;
+        private final Map<Long, ElectronicDTO> electronics = new LinkedHashMap<>();
+
+        private Results(ElectronicType type, int limit) {
+            this.type = type;
+            this.limit = limit;
+        }
+
+        /**
+         * @return true once the results are full
+         */
+        private boolean offer(Document document) {
+            if (document.live && (type == null || document.tag == tag())) {
+                electronics.putIfAbsent(document.id, document.electronic);
+            }
+            return isFull();
+        }
+
+        private byte tag() {
+            return Postings.tagOf(type);
+        }
+
+        private boolean isFull() {
+            return electronics.size() >= limit;
+        }
+
+        private List<ElectronicDTO> toList() {
+            return new ArrayList<>(electronics.values());
+        }
+
+    }
+
+}
@@ -1,50 +1,246 @@
 package com.dititalinnovation.buymore.service;
 
+import com.dititalinnovation.buymore.config.CacheConfig;
+import com.dititalinnovation.buymore.dto.BatchCreationResultDTO;
 import com.dititalinnovation.buymore.dto.ElectronicDTO;
+import com.dititalinnovation.buymore.dto.ElectronicFilterDTO;
+import com.dititalinnovation.buymore.dto.ElectronicPageDTO;
+import com.dititalinnovation.buymore.dto.ElectronicStatsDTO;
+import com.dititalinnovation.buymore.dto.RejectedElectronicDTO;
+import com.dititalinnovation.buymore.dto.ReservationDTO;
+import com.dititalinnovation.buymore.dto.StockAdjustmentDTO;
+import com.dititalinnovation.buymore.dto.StockAdjustmentItemResultDTO;
+import com.dititalinnovation.buymore.dto.StockAdjustmentRequestDTO;
+import com.dititalinnovation.buymore.dto.StockAdjustmentResultDTO;
 import com.dititalinnovation.buymore.entity.Electronic;
+import com.dititalinnovation.buymore.enums.AdjustmentMode;
+import com.dititalinnovation.buymore.enums.AdjustmentStatus;
+import com.dititalinnovation.buymore.enums.ElectronicChangeType;
+import com.dititalinnovation.buymore.event.ElectronicChangedEvent;
+import com.dititalinnovation.buymore.exception.BatchTooLargeException;
 import com.dititalinnovation.buymore.exception.BuyMoreExceededException;
 import com.dititalinnovation.buymore.exception.ElectronicAlreadyRegisteredException;
+import com.dititalinnovation.buymore.exception.ElectronicConcurrentUpdateException;
 import com.dititalinnovation.buymore.exception.ElectronicNotFoundException;
+import com.dititalinnovation.buymore.exception.ElectronicOutOfStockException;
+import com.dititalinnovation.buymore.exception.InvalidQuantityException;
+import com.dititalinnovation.buymore.exception.ReservationNotFoundException;
+import com.dititalinnovation.buymore.exception.StockAdjustmentRejectedException;
 import com.dititalinnovation.buymore.mapper.ElectronicMapper;
 import com.dititalinnovation.buymore.repository.ElectronicRepository;
+import com.dititalinnovation.buymore.repository.ElectronicSpecifications;
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @AllArgsConstructor(onConstructor = @__(@Autowired))
 public class ElectronicService {
 
+    private static final int NAME_LOOKUP_CHUNK_SIZE = 1000;
+    private static final String NAME_LOOKUP = "name";
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int MAX_BATCH_SIZE = 1000;
+    public static final int DECREMENT_MAX_ATTEMPTS = 5;
+
     private final ElectronicRepository electronicRepository;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final StockLockStripes stockLockStripes;
+    private final StockIncrementCoalescer stockIncrementCoalescer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SingleFlight singleFlight;
+    private final MissingElectronicNames missingElectronicNames;
+    private final ElectronicsByName electronicsByName;
+    private final StockReservations stockReservations;
     private final ElectronicMapper electronicMapper = ElectronicMapper.INSTANCE;
 
     public ElectronicDTO createElectronic(ElectronicDTO electronicDTO) throws ElectronicAlreadyRegisteredException{
         verifyIfIsAlreadyRegistered(electronicDTO.getName());
         Electronic electronic = electronicMapper.toModel(electronicDTO);
-        Electronic savedElectronic = electronicRepository.save(electronic);
-        return electronicMapper.toDTO(savedElectronic);
+        try {
+            Electronic savedElectronic = electronicRepository.save(electronic);
+            return publishChange(ElectronicChangeType.CREATED, electronicMapper.toDTO(savedElectronic));
+        } catch (DataIntegrityViolationException e) {
+            if (ElectronicAlreadyRegisteredException.isCausedBy(e)) {
+                throw new ElectronicAlreadyRegisteredException(electronicDTO.getName());
+            }
+            throw e;
+        }
     }
 
+    /**
+     * Names registered by then are rejected item by item. A name registered concurrently after that
+     * check fails the whole batch on flush, and nothing of it is created.
+     */
+    @Transactional(rollbackFor = ElectronicAlreadyRegisteredException.class)
+    public BatchCreationResultDTO createElectronics(List<ElectronicDTO> electronicDTOs) throws BatchTooLargeException, ElectronicAlreadyRegisteredException {
+        if (electronicDTOs.size() > MAX_BATCH_SIZE) {
+            throw new BatchTooLargeException(electronicDTOs.size(), MAX_BATCH_SIZE);
+        }
+        List<RejectedElectronicDTO> rejected = new ArrayList<>();
+        Map<String, Integer> candidates = new LinkedHashMap<>();
+        for (int index = 0; index < electronicDTOs.size(); index++) {
+            ElectronicDTO electronicDTO = electronicDTOs.get(index);
+            Set<ConstraintViolation<ElectronicDTO>> violations = validator.validate(electronicDTO);
+            if (!violations.isEmpty()) {
+                rejected.add(reject(index, electronicDTO, describe(violations)));
+            } else if (candidates.putIfAbsent(electronicDTO.getName(), index) != null) {
+                rejected.add(reject(index, electronicDTO, String.format("Electronic with name %s is duplicated in the request.", electronicDTO.getName())));
+            }
+        }
+
+        Set<String> registeredNames = findRegisteredNames(candidates.keySet());
+        List<Electronic> electronicsToSave = new ArrayList<>();
+        for (Integer index : candidates.values()) {
+            ElectronicDTO electronicDTO = electronicDTOs.get(index);
+            if (registeredNames.contains(electronicDTO.getName())) {
+                rejected.add(reject(index, electronicDTO, new ElectronicAlreadyRegisteredException(electronicDTO.getName()).getMessage()));
+            } else {
+                Electronic electronic = electronicMapper.toModel(electronicDTO);
+                electronic.setId(null);
+                electronicsToSave.add(electronic);
+            }
+        }
+
+        List<Electronic> savedElectronics;
+        try {
+            savedElectronics = electronicRepository.saveAll(electronicsToSave);
+            electronicRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            if (ElectronicAlreadyRegisteredException.isCausedBy(e)) {
+                throw new ElectronicAlreadyRegisteredException(electronicsToSave.stream().map(Electronic::getName).collect(Collectors.toList()));
+            }
+            throw e;
+        }
+        List<ElectronicDTO> created = savedElectronics.stream()
+                .map(electronicMapper::toDTO)
+                .collect(Collectors.toList());
+        created.forEach(electronicDTO -> publishChange(ElectronicChangeType.CREATED, electronicDTO));
+        rejected.sort(Comparator.comparingInt(RejectedElectronicDTO::getIndex));
+        return BatchCreationResultDTO.builder()
+                .created(created)
+                .rejected(rejected)
+                .build();
+    }
+
+    /**
+     * Concurrent misses for one name share a single query and its outcome. The query runs in the
+     * repository's own transaction, so callers waiting for it do not hold a connection. Names found
+     * missing are remembered, and answered without a query until created; names found are cached until
+     * written.
+     */
     public ElectronicDTO findByName(String name) throws ElectronicNotFoundException {
-        Electronic foundElectronic = electronicRepository.findByName(name)
-                .orElseThrow(() -> new ElectronicNotFoundException(name));
-        return electronicMapper.toDTO(foundElectronic);
+        ElectronicDTO cached = electronicsByName.get(name);
+        if (cached != null) {
+            return cached;
+        }
+        ElectronicNotFoundException knownMissing = missingElectronicNames.get(name);
+        if (knownMissing != null) {
+            throw knownMissing;
+        }
+        return singleFlight.execute(NAME_LOOKUP, name, () -> {
+            long creations = missingElectronicNames.creations();
+            long evictions = electronicsByName.evictions();
+            Optional<ElectronicDTO> electronicDTO = electronicRepository.findProjectedByName(name);
+            if (electronicDTO.isPresent()) {
+                electronicsByName.put(name, evictions, electronicDTO.get());
+                return electronicDTO.get();
+            }
+            ElectronicNotFoundException notFound = ElectronicNotFoundException.withoutStackTrace(name);
+            missingElectronicNames.remember(name, creations, notFound);
+            throw notFound;
+        });
     }
 
+    @Transactional(readOnly = true)
     public List<ElectronicDTO> listAll() {
-        return electronicRepository.findAll()
-                .stream()
-                .map(electronicMapper::toDTO)
-                .collect(Collectors.toList());
+        return electronicRepository.findAllProjected();
+    }
+
+    @Transactional(readOnly = true)
+    public ElectronicPageDTO listPage(ElectronicFilterDTO filter, Long after, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Specification<Electronic> specification = ElectronicSpecifications.matching(filter)
+                .and(ElectronicSpecifications.idAfter(after));
+        List<ElectronicDTO> content = electronicRepository.findPage(specification, pageSize + 1);
+        Long nextCursor = null;
+        if (content.size() > pageSize) {
+            content = content.subList(0, pageSize);
+            nextCursor = content.get(pageSize - 1).getId();
+        }
+        return ElectronicPageDTO.builder()
+                .content(content)
+                .nextCursor(nextCursor)
+                .build();
     }
 
+    /**
+     * Aggregates stock per type and per brand in the database. Dashboards polling faster than
+     * buymore.cache.electronic-stats.ttl share one cached result; a zero TTL disables caching.
+     */
+    @Cacheable(cacheNames = CacheConfig.ELECTRONIC_STATS)
+    public ElectronicStatsDTO getStats() {
+        return ElectronicStatsDTO.builder()
+                .byType(electronicRepository.summarizeStockByType())
+                .byBrand(electronicRepository.summarizeStockByBrand())
+                .build();
+    }
+
+    /**
+     * Hands every electronic to the consumer while reading. Rows are projected, so the
+     * persistence context does not grow with the catalog.
+     */
+    @Transactional(readOnly = true)
+    public void exportAll(Consumer<ElectronicDTO> consumer) {
+        try (Stream<ElectronicDTO> electronics = electronicRepository.streamAllProjected()) {
+            electronics.forEach(consumer);
+        }
+    }
+
+    /**
+     * Deletes the electronic and releases the reservations holding its stock, under its lock stripe so no
+     * reservation is made for it meanwhile.
+     */
     public void deleteById(Long id) throws ElectronicNotFoundException {
-        verifyIfExists(id);
-        electronicRepository.deleteById(id);
+        Lock lock = stockLockStripes.forId(id);
+        lock.lock();
+        try {
+            Electronic electronicToDelete = verifyIfExists(id);
+            stockIncrementCoalescer.drain(id);
+            electronicRepository.deleteById(id);
+            stockReservations.releaseAll(id);
+            evictCachedName(electronicToDelete.getName());
+            publishChange(ElectronicChangeType.DELETED, electronicMapper.toDTO(electronicToDelete));
+        } finally {
+            lock.unlock();
+        }
     }
 
     private void verifyIfIsAlreadyRegistered(String name) throws ElectronicAlreadyRegisteredException {
@@ -54,20 +250,243 @@ public class ElectronicService {
         }
     }
 
+    /**
+     * Takes stock out with an optimistic, version checked update, never below the quantity held by
+     * reservations. Writes to the same id are serialized by a lock stripe inside this node; conflicts with
+     * other nodes are retried a bounded number of times.
+     */
+    public ElectronicDTO decrement(Long id, int quantityToDecrement) throws ElectronicNotFoundException, ElectronicOutOfStockException, ElectronicConcurrentUpdateException, InvalidQuantityException {
+        return decrement(id, quantityToDecrement, 0);
+    }
+
+    /**
+     * @param ownHold quantity held by the reservation being sold, which the decrement may take
+     */
+    private ElectronicDTO decrement(Long id, int quantityToDecrement, int ownHold) throws ElectronicNotFoundException, ElectronicOutOfStockException, ElectronicConcurrentUpdateException, InvalidQuantityException {
+        if (quantityToDecrement <= 0) {
+            throw new InvalidQuantityException(quantityToDecrement);
+        }
+        Lock lock = stockLockStripes.forId(id);
+        lock.lock();
+        try {
+            stockIncrementCoalescer.drain(id);
+            for (int attempt = 1; attempt <= DECREMENT_MAX_ATTEMPTS; attempt++) {
+                Electronic electronicToDecrementStock = verifyIfExists(id);
+                int quantityAfterDecrement = electronicToDecrementStock.getQuantity() - quantityToDecrement;
+                if (quantityAfterDecrement < stockReservations.held(id) - ownHold) {
+                    throw ElectronicOutOfStockException.withoutStackTrace(id, quantityToDecrement);
+                }
+                electronicToDecrementStock.setQuantity(quantityAfterDecrement);
+                try {
+                    Electronic decrementedElectronicStock = electronicRepository.save(electronicToDecrementStock);
+                    evictCachedName(decrementedElectronicStock.getName());
+                    return publishChange(ElectronicChangeType.UPDATED, electronicMapper.toDTO(decrementedElectronicStock));
+                } catch (OptimisticLockingFailureException e) {
+                    entityManager.detach(electronicToDecrementStock);
+                    electronicRepository.evictCached(Collections.singleton(id));
+                }
+            }
+            throw new ElectronicConcurrentUpdateException(id, DECREMENT_MAX_ATTEMPTS);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Holds stock for a cart until the reservation is confirmed, released or expires. The hold is checked
+     * under the lock stripe of the electronic, so stock it counts on cannot be sold meanwhile.
+     */
+    public ReservationDTO reserve(Long id, int quantity) throws ElectronicNotFoundException, ElectronicOutOfStockException, InvalidQuantityException {
+        if (quantity <= 0) {
+            throw new InvalidQuantityException(quantity);
+        }
+        Lock lock = stockLockStripes.forId(id);
+        lock.lock();
+        try {
+            stockIncrementCoalescer.drain(id);
+            return stockReservations.hold(id, quantity, verifyIfExistsFresh(id).getQuantity());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Turns the reservation into a sale: takes its quantity out of the stock, then ends it. The
+     * reservation is claimed meanwhile so it can neither expire nor be released; when the decrement fails
+     * it keeps holding its stock until its original expiry, and the confirmation can be retried.
+     */
+    public ElectronicDTO confirmReservation(String reservationId) throws ReservationNotFoundException, ElectronicNotFoundException, ElectronicOutOfStockException, ElectronicConcurrentUpdateException, InvalidQuantityException {
+        Long id = stockReservations.find(reservationId).getElectronicId();
+        Lock lock = stockLockStripes.forId(id);
+        lock.lock();
+        try {
+            ReservationDTO reservationDTO = stockReservations.claim(reservationId);
+            boolean sold = false;
+            try {
+                ElectronicDTO soldElectronicDTO = decrement(id, reservationDTO.getQuantity(), reservationDTO.getQuantity());
+                sold = true;
+                return soldElectronicDTO;
+            } finally {
+                if (sold) {
+                    stockReservations.confirm(reservationId);
+                } else {
+                    stockReservations.unclaim(reservationId);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void releaseReservation(String reservationId) throws ReservationNotFoundException {
+        stockReservations.release(reservationId);
+    }
+
+    /**
+     * Applies all adjustments in one transaction as a single batch of guarded UPDATEs, in id order
+     * so concurrent batches lock rows in the same order; results are reported in that order.
+     * In ALL_OR_NOTHING mode any failed item rolls the whole batch back.
+     * <p>
+     * Negative adjustments are corrections that take stock out: they may not go below the quantity held
+     * by reservations. The lock stripes of the adjusted electronics are held until the transaction
+     * completes, so no reservation is made on stock the batch is about to take, and no coalesced
+     * increment reloads a quantity the batch has not committed yet.
+     */
+    @Transactional(rollbackFor = StockAdjustmentRejectedException.class)
+    public StockAdjustmentResultDTO adjustStock(StockAdjustmentRequestDTO adjustmentRequest) throws StockAdjustmentRejectedException {
+        List<StockAdjustmentDTO> adjustments = new ArrayList<>(adjustmentRequest.getAdjustments());
+        adjustments.sort(Comparator.comparing(StockAdjustmentDTO::getId));
+        List<Long> ids = adjustments.stream().map(StockAdjustmentDTO::getId).collect(Collectors.toList());
+        lockUntilCompletion(ids);
+        stockIncrementCoalescer.drain(ids);
+        int[] updatedRows = electronicRepository.incrementQuantities(adjustments, stockReservations::held);
+
+        Set<Long> appliedIds = new HashSet<>();
+        Set<Long> failedIds = new HashSet<>();
+        for (int index = 0; index < adjustments.size(); index++) {
+            (updatedRows[index] > 0 ? appliedIds : failedIds).add(adjustments.get(index).getId());
+        }
+        Set<Long> existingFailedIds = failedIds.isEmpty()
+                ? Collections.emptySet()
+                : new HashSet<>(electronicRepository.findIdsByIdIn(failedIds));
+        boolean rolledBack = adjustmentRequest.getMode() == AdjustmentMode.ALL_OR_NOTHING && !failedIds.isEmpty();
+
+        List<StockAdjustmentItemResultDTO> results = new ArrayList<>(adjustments.size());
+        int applied = 0;
+        for (int index = 0; index < adjustments.size(); index++) {
+            StockAdjustmentDTO adjustment = adjustments.get(index);
+            AdjustmentStatus status;
+            if (updatedRows[index] > 0) {
+                status = rolledBack ? AdjustmentStatus.ROLLED_BACK : AdjustmentStatus.APPLIED;
+                applied += rolledBack ? 0 : 1;
+            } else {
+                status = !existingFailedIds.contains(adjustment.getId()) ? AdjustmentStatus.NOT_FOUND
+                        : adjustment.getQuantity() < 0 ? AdjustmentStatus.INSUFFICIENT_STOCK : AdjustmentStatus.EXCEEDED;
+            }
+            results.add(StockAdjustmentItemResultDTO.builder()
+                    .id(adjustment.getId())
+                    .quantity(adjustment.getQuantity())
+                    .status(status)
+                    .build());
+        }
+        StockAdjustmentResultDTO result = StockAdjustmentResultDTO.builder()
+                .mode(adjustmentRequest.getMode())
+                .applied(applied)
+                .failed(results.size() - applied)
+                .results(results)
+                .build();
+        if (rolledBack) {
+            throw new StockAdjustmentRejectedException(result);
+        }
+        if (!appliedIds.isEmpty()) {
+            for (ElectronicDTO adjustedElectronic : electronicRepository.findProjectedByIdIn(appliedIds)) {
+                evictCachedName(adjustedElectronic.getName());
+                publishChange(ElectronicChangeType.UPDATED, adjustedElectronic);
+            }
+        }
+        return result;
+    }
+
+    private void lockUntilCompletion(Collection<Long> ids) {
+        List<Lock> locks = stockLockStripes.forIds(ids);
+        if (locks.isEmpty()) {
+            return;
+        }
+        locks.forEach(Lock::lock);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                locks.forEach(Lock::unlock);
+            }
+        });
+    }
+
+    private void evictCachedName(String name) {
+        electronicsByName.evict(name);
+    }
+
+    private ElectronicDTO publishChange(ElectronicChangeType type, ElectronicDTO electronicDTO) {
+        eventPublisher.publishEvent(new ElectronicChangedEvent(type, electronicDTO));
+        return electronicDTO;
+    }
+
+    private Set<String> findRegisteredNames(Collection<String> names) {
+        List<String> nameList = new ArrayList<>(names);
+        Set<String> registeredNames = new HashSet<>();
+        for (int from = 0; from < nameList.size(); from += NAME_LOOKUP_CHUNK_SIZE) {
+            List<String> chunk = nameList.subList(from, Math.min(from + NAME_LOOKUP_CHUNK_SIZE, nameList.size()));
+            registeredNames.addAll(electronicRepository.findNamesByNameIn(chunk));
+        }
+        return registeredNames;
+    }
+
+    private RejectedElectronicDTO reject(int index, ElectronicDTO electronicDTO, String reason) {
+        return RejectedElectronicDTO.builder()
+                .index(index)
+                .name(electronicDTO.getName())
+                .reason(reason)
+                .build();
+    }
+
+    private String describe(Set<ConstraintViolation<ElectronicDTO>> violations) {
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
     private Electronic verifyIfExists(Long id) throws ElectronicNotFoundException {
         return electronicRepository.findById(id)
                 .orElseThrow(() -> new ElectronicNotFoundException(id));
     }
 
-    public ElectronicDTO increment(Long id, int quantityToIncrement) throws ElectronicNotFoundException, BuyMoreExceededException {
-        Electronic electronicToIncrementStock = verifyIfExists(id);
-        int quantityAfterIncrement = quantityToIncrement + electronicToIncrementStock.getQuantity();
-        if (quantityAfterIncrement <= electronicToIncrementStock.getMax()) {
-            electronicToIncrementStock.setQuantity(electronicToIncrementStock.getQuantity() + quantityToIncrement);
-            Electronic incrementedElectronicStock = electronicRepository.save(electronicToIncrementStock);
-            return electronicMapper.toDTO(incrementedElectronicStock);
+    private Electronic verifyIfExistsFresh(Long id) throws ElectronicNotFoundException {
+        return electronicRepository.findFreshById(id)
+                .orElseThrow(() -> new ElectronicNotFoundException(id));
+    }
+
+    /**
+     * Adds stock with a guarded UPDATE, or through the write-behind coalescer when
+     * buymore.stock.write-behind.enabled is set. No transaction is held here, so durable
+     * write-behind callers wait for their flush without pinning a connection. Only positive
+     * quantities are added; stock is taken out by decrement and adjustStock, which keep what
+     * reservations hold.
+     */
+    public ElectronicDTO increment(Long id, int quantityToIncrement) throws ElectronicNotFoundException, BuyMoreExceededException, InvalidQuantityException {
+        if (quantityToIncrement <= 0) {
+            throw new InvalidQuantityException(quantityToIncrement);
+        }
+        if (stockIncrementCoalescer.isEnabled()) {
+            return stockIncrementCoalescer.increment(id, quantityToIncrement);
+        }
+        int updatedRows = electronicRepository.incrementQuantity(id, quantityToIncrement);
+        if (updatedRows == 0) {
+            verifyIfExists(id);
+            throw new BuyMoreExceededException(id, quantityToIncrement);
         }
-        throw new BuyMoreExceededException(id, quantityToIncrement);
+        Electronic incrementedElectronicStock = verifyIfExistsFresh(id);
+        evictCachedName(incrementedElectronicStock.getName());
+        return publishChange(ElectronicChangeType.UPDATED, electronicMapper.toDTO(incrementedElectronicStock));
     }
 
 }
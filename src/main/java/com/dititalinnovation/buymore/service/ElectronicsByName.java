@@ -0,0 +1,80 @@
+package com.dititalinnovation.buymore.service;
+
+import com.dititalinnovation.buymore.config.CacheConfig;
+import com.dititalinnovation.buymore.dto.ElectronicDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Electronics found by name, kept in the bounded electronicsByName cache. A write evicts the name once
+ * it commits.
+ * <p>
+ * A lookup that read before a write committed could otherwise store what it read after the write's
+ * eviction. Every eviction is counted, and a lookup's result is dropped again if an eviction happened
+ * since the lookup began.
+ */
+@Component
+public class ElectronicsByName {
+
+    private final Cache electronicsByName;
+    private final AtomicLong evictions = new AtomicLong();
+
+    @Autowired
+    public ElectronicsByName(CacheManager cacheManager) {
+        this.electronicsByName = cacheManager.getCache(CacheConfig.ELECTRONICS_BY_NAME);
+    }
+
+    /**
+     * @return the electronic the last lookup of the name found, or null when it is not cached
+     */
+    public ElectronicDTO get(String name) {
+        return electronicsByName == null ? null : electronicsByName.get(name, ElectronicDTO.class);
+    }
+
+    /**
+     * @return the number of evictions so far, to read before looking a name up
+     */
+    public long evictions() {
+        return evictions.get();
+    }
+
+    public void put(String name, long evictionsBeforeLookup, ElectronicDTO electronicDTO) {
+        if (electronicsByName == null) {
+            return;
+        }
+        electronicsByName.put(name, electronicDTO);
+        if (evictions.get() != evictionsBeforeLookup) {
+            electronicsByName.evict(name);
+        }
+    }
+
+    /**
+     * Evicts the name once the current transaction commits, or right away outside of one.
+     */
+    public void evict(String name) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictNow(name);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evictNow(name);
+            }
+        });
+    }
+
+    private void evictNow(String name) {
+        evictions.incrementAndGet();
+        if (electronicsByName != null) {
+            electronicsByName.evict(name);
+        }
+    }
+
+}
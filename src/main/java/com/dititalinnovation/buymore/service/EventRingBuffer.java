@@ -0,0 +1,77 @@
+package com.dititalinnovation.buymore.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded ring of sequenced entries for many publishers and many readers, without locks. Publishing
+ * claims the next sequence with one atomic increment and writes its slot, overwriting the entry one
+ * capacity older; it never waits for readers. Readers keep their own cursor and learn from the slot
+ * whether their entry is there, not written yet, or already overwritten.
+ */
+public class EventRingBuffer<T> {
+
+    private final AtomicReferenceArray<Entry<T>> slots;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong();
+
+    /**
+     * @param capacity rounded up to a power of two
+     */
+    public EventRingBuffer(int capacity) {
+        int size = 2;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * @return the sequence of the entry, starting at 1
+     */
+    public long publish(T value) {
+        long sequence = claimed.incrementAndGet();
+        slots.set((int) (sequence & mask), new Entry<>(sequence, value));
+        return sequence;
+    }
+
+    /**
+     * @return the last sequence claimed by a publisher; its entry may still be being written
+     */
+    public long head() {
+        return claimed.get();
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * @return the oldest sequence that has not been overwritten, as of the current head
+     */
+    public long oldest() {
+        return Math.max(1, head() - mask);
+    }
+
+    /**
+     * @return the entry in the slot of the sequence: that sequence, an older one when it is not written
+     * yet, a newer one when it was overwritten, or null when the slot was never written
+     */
+    public Entry<T> read(long sequence) {
+        return slots.get((int) (sequence & mask));
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Entry<T> {
+
+        private final long sequence;
+        private final T value;
+
+    }
+
+}
@@ -0,0 +1,109 @@
+package com.dititalinnovation.buymore.service;
+
+import com.dititalinnovation.buymore.exception.BuyMoreException;
+import com.dititalinnovation.buymore.exception.ElectronicConcurrentUpdateException;
+import com.dititalinnovation.buymore.exception.IdempotencyKeyReusedException;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Outcomes of requests sent with an Idempotency-Key header, so a retried request gets the first one's
+ * outcome without running again. A retry arriving while the first request still runs waits for it, so
+ * clients can retry in parallel. A key sent with a different request is refused.
+ * <p>
+ * Results and domain errors are kept until buymore.idempotency.ttl or until the
+ * buymore.idempotency.maximum-size bound evicts them. Errors that say nothing about the request, such
+ * as a failed connection or a concurrent update, are not kept, and the next retry runs again. Outcomes
+ * live in this node's memory: retries must reach the same node.
+ */
+@Component
+public class IdempotentRequests {
+
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    private final ConcurrentMap<String, Request> requests;
+    private final Counter executed;
+    private final Counter replayed;
+    private final Counter rejected;
+
+    @Autowired
+    public IdempotentRequests(@Value("${buymore.idempotency.maximum-size:100000}") long maximumSize,
+                              @Value("${buymore.idempotency.ttl:24h}") Duration ttl,
+                              MeterRegistry meterRegistry) {
+        this.requests = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .<String, Request>build()
+                .asMap();
+        this.executed = counter(meterRegistry, "executed");
+        this.replayed = counter(meterRegistry, "replayed");
+        this.rejected = counter(meterRegistry, "rejected");
+    }
+
+    /**
+     * Runs the request, or returns the outcome of the request already sent with the key. Without a key
+     * the request simply runs.
+     *
+     * @param fingerprint equal for retries of one request and different for any other request
+     * @throws IdempotencyKeyReusedException when the key was sent with a request of another fingerprint
+     */
+    @SuppressWarnings("unchecked")
+    public <V, E extends Exception> V execute(String idempotencyKey, Object fingerprint, SingleFlight.Loader<V, E> loader) throws E, IdempotencyKeyReusedException {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return loader.load();
+        }
+        Request request = new Request(fingerprint);
+        Request first = requests.putIfAbsent(idempotencyKey, request);
+        if (first != null) {
+            if (!first.fingerprint.equals(fingerprint)) {
+                rejected.increment();
+                throw new IdempotencyKeyReusedException(idempotencyKey);
+            }
+            replayed.increment();
+            return (V) SingleFlight.await(first.outcome);
+        }
+        executed.increment();
+        try {
+            V value = loader.load();
+            request.outcome.complete(value);
+            return value;
+        } catch (Exception | Error e) {
+            if (!isOutcomeOfRequest(e)) {
+                requests.remove(idempotencyKey, request);
+            }
+            request.outcome.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static boolean isOutcomeOfRequest(Throwable e) {
+        return e instanceof BuyMoreException && !(e instanceof ElectronicConcurrentUpdateException);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("buymore.idempotency.requests")
+                .description("Requests sent with an Idempotency-Key")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static final class Request {
+
+        private final Object fingerprint;
+        private final CompletableFuture<Object> outcome = new CompletableFuture<>();
+
+        private Request(Object fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+    }
+
+}
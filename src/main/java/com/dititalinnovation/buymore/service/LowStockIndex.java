@@ -0,0 +1,213 @@
+package com.dititalinnovation.buymore.service;
+
+import com.dititalinnovation.buymore.dto.ElectronicDTO;
+import com.dititalinnovation.buymore.enums.ElectronicChangeType;
+import com.dititalinnovation.buymore.event.ElectronicChangedEvent;
+import com.dititalinnovation.buymore.event.ElectronicsChangedEvent;
+import com.dititalinnovation.buymore.repository.ElectronicRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Every electronic's fill ratio, quantity over max, in a skip list ordered by that ratio. Committed
+ * changes move one entry each, and crossing buymore.stock.low-threshold is detected on the way, so
+ * alerting costs O(log n) per change and never scans the catalog. The low-stock set is the head of the
+ * list up to the threshold, for any threshold.
+ * <p>
+ * The index is loaded once when the application is ready and follows ElectronicChangedEvent from then
+ * on. Changes are ordered by entity version, not by arrival: a change older than the entry is dropped,
+ * and a deletion leaves a tombstone that drops the changes committed before it. Each entry is only
+ * written inside its map slot, which orders a deletion's tombstone against a concurrent change.
+ */
+@Slf4j
+@Component
+public class LowStockIndex {
+
+    private static final Duration TOMBSTONE_TIME_TO_LIVE = Duration.ofMinutes(5);
+    private static final Comparator<Entry> BY_FILL_RATIO = Comparator.comparingDouble(Entry::getFillRatio)
+            .thenComparingLong(Entry::getId);
+
+    private final ElectronicRepository electronicRepository;
+    private final double threshold;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final NavigableSet<Entry> byFillRatio = new ConcurrentSkipListSet<>(BY_FILL_RATIO);
+    private final Tombstones tombstones = new Tombstones(TOMBSTONE_TIME_TO_LIVE);
+    private final AtomicInteger lowStockCount = new AtomicInteger();
+    private final Counter alerts;
+    private volatile boolean loading = true;
+
+    @Autowired
+    public LowStockIndex(ElectronicRepository electronicRepository,
+                         @Value("${buymore.stock.low-threshold:0.2}") double threshold,
+                         MeterRegistry meterRegistry) {
+        this.electronicRepository = electronicRepository;
+        this.threshold = threshold;
+        this.alerts = Counter.builder("buymore.stock.low.alerts")
+                .description("Electronics whose quantity dropped below the low-stock threshold")
+                .register(meterRegistry);
+        Gauge.builder("buymore.stock.low", lowStockCount, AtomicInteger::get)
+                .description("Electronics currently below the low-stock threshold")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reads the catalog once. Entries already written by an event are kept unless the row read here is
+     * newer, and electronics deleted meanwhile stay deleted.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        try (Stream<ElectronicDTO> electronics = electronicRepository.streamAllProjected()) {
+            electronics.forEach(electronicDTO -> {
+                Entry entry = toEntry(electronicDTO);
+                entries.compute(entry.getId(), (id, previous) -> previous == null || Tombstones.isOlder(previous.getVersion(), entry.getVersion())
+                        ? apply(entry, previous)
+                        : previous);
+            });
+        }
+        loading = false;
+        log.info("Low-stock index loaded {} electronics, {} below {}", entries.size(), lowStockCount.get(), threshold);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onElectronicChanged(ElectronicChangedEvent event) {
+        ElectronicDTO electronicDTO = event.getElectronic();
+        if (event.getType() == ElectronicChangeType.DELETED) {
+            entries.compute(electronicDTO.getId(), (id, previous) -> {
+                tombstones.add(id, event.getVersion());
+                if (previous != null) {
+                    byFillRatio.remove(previous);
+                    if (isLow(previous, threshold)) {
+                        lowStockCount.decrementAndGet();
+                    }
+                }
+                return null;
+            });
+            return;
+        }
+        Entry entry = toEntry(electronicDTO);
+        entries.compute(entry.getId(), (id, previous) -> apply(entry, previous));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onElectronicsChanged(ElectronicsChangedEvent event) {
+        event.getElectronics().forEach(electronicDTO -> onElectronicChanged(new ElectronicChangedEvent(event.getType(), electronicDTO)));
+    }
+
+    public double getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * @return ids of the electronics filled below the threshold, emptiest first
+     */
+    public List<Long> lowStockIds(double threshold, int limit) {
+        Entry bound = new Entry(Long.MIN_VALUE, 0, 0, threshold, null);
+        return byFillRatio.headSet(bound, false).stream()
+                .limit(limit)
+                .map(Entry::getId)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return the electronics filled below the threshold, emptiest first, read in one query
+     */
+    @Transactional(readOnly = true)
+    public List<ElectronicDTO> lowStock(double threshold, int limit) {
+        List<Long> ids = lowStockIds(threshold, Math.max(1, Math.min(limit, ElectronicService.MAX_PAGE_SIZE)));
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, ElectronicDTO> electronicsById = electronicRepository.findProjectedByIdIn(ids).stream()
+                .collect(Collectors.toMap(ElectronicDTO::getId, Function.identity()));
+        return ids.stream()
+                .map(electronicsById::get)
+                .filter(electronicDTO -> electronicDTO != null)
+                .collect(Collectors.toList());
+    }
+
+    public int lowStockCount() {
+        return lowStockCount.get();
+    }
+
+    /**
+     * @return the entry to keep: the change, unless it is older than the previous entry or its deletion
+     */
+    private Entry apply(Entry entry, Entry previous) {
+        if (tombstones.buries(entry.getId(), entry.getVersion())) {
+            return previous;
+        }
+        if (previous != null && Tombstones.isOlder(entry.getVersion(), previous.getVersion())) {
+            return previous;
+        }
+        return insert(entry, previous);
+    }
+
+    private Entry insert(Entry entry, Entry previous) {
+        if (previous != null) {
+            byFillRatio.remove(previous);
+        }
+        byFillRatio.add(entry);
+        boolean wasLow = previous != null && isLow(previous, threshold);
+        boolean isLow = isLow(entry, threshold);
+        if (isLow && !wasLow) {
+            lowStockCount.incrementAndGet();
+            if (!loading || previous != null) {
+                alerts.increment();
+                log.warn("Electronic {} is low on stock: {} of {}", entry.getId(), entry.getQuantity(), entry.getMax());
+            }
+        } else if (wasLow && !isLow) {
+            lowStockCount.decrementAndGet();
+        }
+        return entry;
+    }
+
+    private static boolean isLow(Entry entry, double threshold) {
+        return entry.getFillRatio() < threshold;
+    }
+
+    private static Entry toEntry(ElectronicDTO electronicDTO) {
+        int max = electronicDTO.getMax();
+        int quantity = electronicDTO.getQuantity();
+        // an electronic that cannot hold stock is never low on it
+        double fillRatio = max > 0 ? (double) quantity / max : 1.0;
+        return new Entry(electronicDTO.getId(), quantity, max, fillRatio, electronicDTO.getVersion());
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Entry {
+
+        private final long id;
+        private final int quantity;
+        private final int max;
+        private final double fillRatio;
+        private final Long version;
+
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.dititalinnovation.buymore.service;
+
+import com.dititalinnovation.buymore.config.CacheConfig;
+import com.dititalinnovation.buymore.enums.ElectronicChangeType;
+import com.dititalinnovation.buymore.event.ElectronicChangedEvent;
+import com.dititalinnovation.buymore.event.ElectronicsChangedEvent;
+import com.dititalinnovation.buymore.exception.ElectronicNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Names looked up recently and not found, kept in the bounded missingElectronicNames cache with the
+ * stackless exception that answered them, so repeated misses from crawlers and stale links cost neither
+ * a query nor a new exception. A committed creation evicts its name.
+ * <p>
+ * A lookup that raced a creation could otherwise store a miss after the creation's eviction. Every
+ * creation is counted, and a miss is dropped again if a creation happened since its lookup began.
+ */
+@Component
+public class MissingElectronicNames {
+
+    private final Cache missingNames;
+    private final AtomicLong creations = new AtomicLong();
+
+    @Autowired
+    public MissingElectronicNames(CacheManager cacheManager) {
+        this.missingNames = cacheManager.getCache(CacheConfig.MISSING_ELECTRONIC_NAMES);
+    }
+
+    /**
+     * @return the exception that answered the last lookup of the name, or null when it is not known missing
+     */
+    public ElectronicNotFoundException get(String name) {
+        return missingNames == null ? null : missingNames.get(name, ElectronicNotFoundException.class);
+    }
+
+    /**
+     * @return the number of creations so far, to read before looking a name up
+     */
+    public long creations() {
+        return creations.get();
+    }
+
+    public void remember(String name, long creationsBeforeLookup, ElectronicNotFoundException notFound) {
+        if (missingNames == null) {
+            return;
+        }
+        missingNames.put(name, notFound);
+        if (creations.get() != creationsBeforeLookup) {
+            missingNames.evict(name);
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onElectronicChanged(ElectronicChangedEvent event) {
+        if (event.getType() != ElectronicChangeType.CREATED) {
+            return;
+        }
+        creations.incrementAndGet();
+        if (missingNames != null) {
+            missingNames.evict(event.getElectronic().getName());
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onElectronicsChanged(ElectronicsChangedEvent event) {
+        if (event.getType() != ElectronicChangeType.CREATED) {
+            return;
+        }
+        creations.addAndGet(event.getElectronics().size());
+        if (missingNames != null) {
+            event.getElectronics().forEach(electronicDTO -> missingNames.evict(electronicDTO.getName()));
+        }
+    }
+
+}
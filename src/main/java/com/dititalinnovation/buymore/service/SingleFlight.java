@@ -0,0 +1,96 @@
+package com.dititalinnovation.buymore.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lets concurrent callers loading the same key share one load: the first caller runs it, and callers
+ * arriving while it runs wait for its result or its exception instead of running their own. Nothing is
+ * kept once the load completes; caching stays with the caller.
+ * <p>
+ * Loads are counted per lookup in buymore.lookups.loads, and callers served by another caller's load in
+ * buymore.lookups.coalesced.
+ */
+@Component
+public class SingleFlight {
+
+    private final Map<List<Object>, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Counter> loads = new ConcurrentHashMap<>();
+    private final Map<String, Counter> coalesced = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public SingleFlight(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Runs the loader, or waits for the load of the same lookup and key already running.
+     *
+     * @throws E the exception of the shared load, the same instance for every caller
+     */
+    @SuppressWarnings("unchecked")
+    public <V, E extends Exception> V execute(String lookup, Object key, Loader<V, E> loader) throws E {
+        List<Object> flightKey = List.of(lookup, key);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(flightKey, flight);
+        if (running != null) {
+            counter(coalesced, "buymore.lookups.coalesced", "Lookups served by a concurrent load of the same key", lookup).increment();
+            return (V) await(running);
+        }
+        counter(loads, "buymore.lookups.loads", "Lookups that ran their own load", lookup).increment();
+        try {
+            V value = loader.load();
+            flight.complete(value);
+            return value;
+        } catch (Exception | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, flight);
+        }
+    }
+
+    /**
+     * Waits for the flight and rethrows its exception as it was thrown.
+     */
+    @SuppressWarnings("unchecked")
+    static <E extends Exception> Object await(CompletableFuture<Object> flight) throws E {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            // only the loader's declared exception type reaches here
+            throw (E) cause;
+        }
+    }
+
+    private Counter counter(Map<String, Counter> counters, String name, String description, String lookup) {
+        return counters.computeIfAbsent(lookup, key -> Counter.builder(name)
+                .description(description)
+                .tag("lookup", key)
+                .register(meterRegistry));
+    }
+
+    @FunctionalInterface
+    public interface Loader<V, E extends Exception> {
+
+        V load() throws E;
+
+    }
+
+}
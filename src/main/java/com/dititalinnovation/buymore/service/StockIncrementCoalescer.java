@@ -0,0 +1,399 @@
+package com.dititalinnovation.buymore.service;
+
+import com.dititalinnovation.buymore.dto.ElectronicDTO;
+import com.dititalinnovation.buymore.dto.StockAdjustmentDTO;
+import com.dititalinnovation.buymore.entity.Electronic;
+import com.dititalinnovation.buymore.enums.ElectronicChangeType;
+import com.dititalinnovation.buymore.event.ElectronicChangedEvent;
+import com.dititalinnovation.buymore.exception.BuyMoreExceededException;
+import com.dititalinnovation.buymore.exception.ElectronicNotFoundException;
+import com.dititalinnovation.buymore.mapper.ElectronicMapper;
+import com.dititalinnovation.buymore.repository.ElectronicRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind mode for stock increments. Each hot electronic keeps its projected quantity and the
+ * delta not yet written packed in one AtomicLong, so accepting an increment is a single CAS checked
+ * against the cached max. A scheduled flush writes the summed deltas as one batch of guarded UPDATEs
+ * in one transaction.
+ * <p>
+ * When durable, callers wait until the flush holding their delta commits (group commit). Otherwise
+ * they return immediately and a crash loses at most one flush interval; on shutdown everything pending
+ * is flushed. The database guard stays authoritative: a delta it rejects fails every caller coalesced
+ * into it and the projection is reloaded. Events carry the quantities read back after the flush, which
+ * include writes from other nodes.
+ * <p>
+ * Stock written through another path is drained first and written under the id's lock stripe until it
+ * commits; a projection is only loaded under that stripe, so it never starts from a quantity read
+ * before such a write committed.
+ */
+@Slf4j
+@Component
+public class StockIncrementCoalescer {
+
+    private static final long RETIRED = Long.MIN_VALUE;
+
+    private final boolean enabled;
+    private final boolean durable;
+    private final ElectronicRepository electronicRepository;
+    private final StockLockStripes stockLockStripes;
+    private final ElectronicsByName electronicsByName;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ElectronicMapper electronicMapper = ElectronicMapper.INSTANCE;
+    private final Map<Long, PendingStock> pendingStocks = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final Counter acceptedIncrements;
+    private final Counter rejectedIncrements;
+    private final DistributionSummary flushedRows;
+    private final Timer flushTimer;
+    private final Timer durableWaitTimer;
+
+    @Autowired
+    public StockIncrementCoalescer(@Value("${buymore.stock.write-behind.enabled:false}") boolean enabled,
+                                   @Value("${buymore.stock.write-behind.durable:true}") boolean durable,
+                                   ElectronicRepository electronicRepository,
+                                   StockLockStripes stockLockStripes,
+                                   ElectronicsByName electronicsByName,
+                                   ApplicationEventPublisher eventPublisher,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.durable = durable;
+        this.electronicRepository = electronicRepository;
+        this.stockLockStripes = stockLockStripes;
+        this.electronicsByName = electronicsByName;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.acceptedIncrements = Counter.builder("buymore.stock.coalescer.increments")
+                .description("Increments accepted into the write-behind buffer")
+                .register(meterRegistry);
+        this.rejectedIncrements = Counter.builder("buymore.stock.coalescer.rejected")
+                .description("Coalesced deltas rejected by the database when flushed")
+                .register(meterRegistry);
+        this.flushedRows = DistributionSummary.builder("buymore.stock.coalescer.flushed.rows")
+                .description("Rows written per flush")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("buymore.stock.coalescer.flush")
+                .description("Time to write and commit one flush")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.durableWaitTimer = Timer.builder("buymore.stock.coalescer.durable.wait")
+                .description("Time a durable increment waits for its flush to commit")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("buymore.stock.coalescer.pending", pendingStocks, Map::size)
+                .description("Electronics with a projection held by the coalescer")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Accepts the increment against the projected quantity and returns the electronic as it will be once
+     * flushed. In durable mode this returns only after that flush has committed.
+     */
+    public ElectronicDTO increment(Long id, int quantityToIncrement) throws ElectronicNotFoundException, BuyMoreExceededException {
+        while (true) {
+            PendingStock pendingStock = pendingStocks.get(id);
+            if (pendingStock == null) {
+                pendingStock = load(id);
+            }
+            long counts = pendingStock.counts.get();
+            if (counts == RETIRED) {
+                // being written out by a drain; it leaves the map once the database holds its delta
+                pendingStock.removed.join();
+                continue;
+            }
+            int projectedQuantity = quantityOf(counts) + quantityToIncrement;
+            if (projectedQuantity > pendingStock.max) {
+                throw new BuyMoreExceededException(id, quantityToIncrement);
+            }
+            if (!pendingStock.counts.compareAndSet(counts, pack(projectedQuantity, deltaOf(counts) + quantityToIncrement))) {
+                continue;
+            }
+            CompletableFuture<Void> flushed = pendingStock.flushed;
+            acceptedIncrements.increment();
+            if (durable) {
+                awaitFlush(flushed);
+            }
+            return pendingStock.withQuantity(projectedQuantity);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${buymore.stock.write-behind.flush-ms:5}")
+    public void flush() {
+        if (pendingStocks.isEmpty()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            List<Flush> flushes = new ArrayList<>();
+            for (PendingStock pendingStock : pendingStocks.values()) {
+                // swap the future before draining: a caller that saw the old one has its delta in this flush
+                CompletableFuture<Void> flushed = pendingStock.nextFlush();
+                long counts = pendingStock.counts.get();
+                while (deltaOf(counts) != 0 && !pendingStock.counts.compareAndSet(counts, pack(quantityOf(counts), 0))) {
+                    counts = pendingStock.counts.get();
+                }
+                if (deltaOf(counts) != 0) {
+                    flushes.add(new Flush(pendingStock, deltaOf(counts), flushed));
+                } else {
+                    flushed.complete(null);
+                    if (pendingStock.counts.compareAndSet(counts, RETIRED)) {
+                        remove(pendingStock);
+                    }
+                }
+            }
+            write(flushes);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Writes whatever is pending for the given ids and drops their projections, so the caller can change
+     * stock through another path and the next increment reloads it.
+     */
+    public void drain(Collection<Long> ids) {
+        if (pendingStocks.isEmpty()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            List<Flush> flushes = new ArrayList<>();
+            List<PendingStock> retired = new ArrayList<>();
+            for (Long id : ids) {
+                PendingStock pendingStock = pendingStocks.get(id);
+                if (pendingStock == null) {
+                    continue;
+                }
+                long counts = pendingStock.counts.getAndSet(RETIRED);
+                CompletableFuture<Void> flushed = pendingStock.nextFlush();
+                if (deltaOf(counts) != 0) {
+                    flushes.add(new Flush(pendingStock, deltaOf(counts), flushed));
+                } else {
+                    flushed.complete(null);
+                }
+                retired.add(pendingStock);
+            }
+            try {
+                write(flushes);
+            } finally {
+                retired.forEach(this::remove);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    public void drain(Long id) {
+        drain(Collections.singleton(id));
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        drain(new ArrayList<>(pendingStocks.keySet()));
+    }
+
+    /**
+     * Reads the quantity past the second-level cache, under the id's lock stripe so no write through
+     * another path is between its drain and its commit.
+     */
+    private PendingStock load(Long id) throws ElectronicNotFoundException {
+        Lock lock = stockLockStripes.forId(id);
+        lock.lock();
+        try {
+            PendingStock existing = pendingStocks.get(id);
+            if (existing != null) {
+                return existing;
+            }
+            Electronic electronic = electronicRepository.findFreshById(id)
+                    .orElseThrow(() -> new ElectronicNotFoundException(id));
+            PendingStock loaded = new PendingStock(electronicMapper.toDTO(electronic));
+            existing = pendingStocks.putIfAbsent(id, loaded);
+            return existing == null ? loaded : existing;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void remove(PendingStock pendingStock) {
+        pendingStocks.remove(pendingStock.id, pendingStock);
+        pendingStock.removed.complete(null);
+    }
+
+    private void write(List<Flush> flushes) {
+        if (flushes.isEmpty()) {
+            return;
+        }
+        List<StockAdjustmentDTO> adjustments = new ArrayList<>(flushes.size());
+        flushes.sort((left, right) -> Long.compare(left.pendingStock.id, right.pendingStock.id));
+        flushes.forEach(flush -> adjustments.add(new StockAdjustmentDTO(flush.pendingStock.id, flush.delta)));
+        int[] updatedRows;
+        Map<Long, ElectronicDTO> flushedElectronics = new HashMap<>();
+        Timer.Sample sample = Timer.start();
+        try {
+            updatedRows = transactionTemplate.execute(status -> {
+                int[] rows = electronicRepository.incrementQuantities(adjustments);
+                readBack(adjustments, rows).forEach(electronicDTO -> flushedElectronics.put(electronicDTO.getId(), electronicDTO));
+                return rows;
+            });
+        } catch (RuntimeException e) {
+            log.error("Failed to flush {} coalesced stock increments", flushes.size(), e);
+            flushes.forEach(flush -> reject(flush, e));
+            return;
+        } finally {
+            sample.stop(flushTimer);
+        }
+        flushedRows.record(flushes.size());
+        for (int index = 0; index < flushes.size(); index++) {
+            Flush flush = flushes.get(index);
+            ElectronicDTO flushedElectronic = flushedElectronics.get(flush.pendingStock.id);
+            if (updatedRows[index] > 0) {
+                flush.flushed.complete(null);
+                electronicsByName.evict(flush.pendingStock.name);
+                if (flushedElectronic != null) {
+                    eventPublisher.publishEvent(new ElectronicChangedEvent(ElectronicChangeType.UPDATED, flushedElectronic));
+                }
+            } else {
+                reject(flush, new BuyMoreExceededException(flush.pendingStock.id, flush.delta));
+            }
+        }
+    }
+
+    /**
+     * @return the updated electronics as the flush left them in the database
+     */
+    private List<ElectronicDTO> readBack(List<StockAdjustmentDTO> adjustments, int[] updatedRows) {
+        List<Long> updatedIds = new ArrayList<>(adjustments.size());
+        for (int index = 0; index < updatedRows.length; index++) {
+            if (updatedRows[index] > 0) {
+                updatedIds.add(adjustments.get(index).getId());
+            }
+        }
+        return updatedIds.isEmpty() ? Collections.emptyList() : electronicRepository.findProjectedByIdIn(updatedIds);
+    }
+
+    private void reject(Flush flush, Throwable cause) {
+        rejectedIncrements.increment();
+        flush.flushed.completeExceptionally(cause);
+        PendingStock pendingStock = flush.pendingStock;
+        if (pendingStock.counts.getAndSet(RETIRED) != RETIRED) {
+            pendingStock.nextFlush().completeExceptionally(cause);
+        }
+        remove(pendingStock);
+    }
+
+    private void awaitFlush(CompletableFuture<Void> flushed) throws BuyMoreExceededException {
+        Timer.Sample sample = Timer.start();
+        try {
+            flushed.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof BuyMoreExceededException) {
+                throw (BuyMoreExceededException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        } finally {
+            sample.stop(durableWaitTimer);
+        }
+    }
+
+    private static long pack(int quantity, int delta) {
+        return ((long) quantity << 32) | (delta & 0xFFFFFFFFL);
+    }
+
+    private static int quantityOf(long counts) {
+        return (int) (counts >> 32);
+    }
+
+    private static int deltaOf(long counts) {
+        return (int) counts;
+    }
+
+    private static final class PendingStock {
+
+        private final Long id;
+        private final String name;
+        private final int max;
+        private final ElectronicDTO electronic;
+        private final AtomicLong counts;
+        private volatile CompletableFuture<Void> flushed = new CompletableFuture<>();
+        private final CompletableFuture<Void> removed = new CompletableFuture<>();
+
+        private PendingStock(ElectronicDTO electronic) {
+            this.id = electronic.getId();
+            this.name = electronic.getName();
+            this.max = electronic.getMax();
+            this.electronic = electronic;
+            this.counts = new AtomicLong(pack(electronic.getQuantity(), 0));
+        }
+
+        private CompletableFuture<Void> nextFlush() {
+            CompletableFuture<Void> current = flushed;
+            flushed = new CompletableFuture<>();
+            return current;
+        }
+
+        private ElectronicDTO withQuantity(int quantity) {
+            return ElectronicDTO.builder()
+                    .id(id)
+                    .name(name)
+                    .brand(electronic.getBrand())
+                    .max(max)
+                    .quantity(quantity)
+                    .type(electronic.getType())
+                    .build();
+        }
+
+    }
+
+    private static final class Flush {
+
+        private final PendingStock pendingStock;
+        private final int delta;
+        private final CompletableFuture<Void> flushed;
+
+        private Flush(PendingStock pendingStock, int delta, CompletableFuture<Void> flushed) {
+            this.pendingStock = pendingStock;
+            this.delta = delta;
+            this.flushed = flushed;
+        }
+
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.dititalinnovation.buymore.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Fixed set of locks that serializes stock writes to the same electronic inside this node,
+ * so optimistic retries are only needed against other nodes.
+ */
+@Component
+public class StockLockStripes {
+
+    private final Lock[] stripes;
+
+    @Autowired
+    public StockLockStripes(@Value("${buymore.stock.lock-stripes:64}") int stripeCount) {
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("Stock writes need at least one lock stripe: " + stripeCount);
+        }
+        this.stripes = new Lock[stripeCount];
+        for (int index = 0; index < stripes.length; index++) {
+            stripes[index] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * @return the lock guarding the given id
+     */
+    public Lock forId(Long id) {
+        return stripes[indexOf(id)];
+    }
+
+    /**
+     * @return the distinct locks guarding the given ids, always in the same order, so callers taking
+     * several of them cannot deadlock each other
+     */
+    public List<Lock> forIds(Collection<Long> ids) {
+        return ids.stream()
+                .mapToInt(this::indexOf)
+                .distinct()
+                .sorted()
+                .mapToObj(index -> stripes[index])
+                .collect(Collectors.toList());
+    }
+
+    private int indexOf(Long id) {
+        int hash = id.hashCode();
+        hash ^= hash >>> 16;
+        return Math.floorMod(hash, stripes.length);
+    }
+
+}
@@ -0,0 +1,224 @@
+package com.dititalinnovation.buymore.service;
+
+import com.dititalinnovation.buymore.dto.ReservationDTO;
+import com.dititalinnovation.buymore.exception.ElectronicOutOfStockException;
+import com.dititalinnovation.buymore.exception.ReservationNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stock held for carts: a reservation takes quantity out of what can be sold without changing the
+ * stored quantity, until it is confirmed into a sale, released, or expires after buymore.reservation.ttl.
+ * The quantity held per electronic is kept next to the reservations, so available stock is quantity minus
+ * one map lookup.
+ * <p>
+ * Expiry runs on a {@link TimingWheel} advanced every buymore.reservation.tick-ms; creating, ending and
+ * expiring a reservation cost O(1) however many are held, and the database is never scanned. Whoever wins
+ * the reservation's timeout, its confirmation, its release or its expiry, is the only one to end it.
+ * Reservations live in this node's memory: they are lost on restart, which releases them.
+ */
+@Component
+public class StockReservations {
+
+    private final Duration ttl;
+    private final TimingWheel<Reservation> expiries;
+    private final Map<String, Reservation> reservations = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> heldQuantities = new ConcurrentHashMap<>();
+    private final Counter created;
+    private final Counter confirmed;
+    private final Counter released;
+    private final Counter expired;
+
+    @Autowired
+    public StockReservations(@Value("${buymore.reservation.ttl:5m}") Duration ttl,
+                             @Value("${buymore.reservation.tick-ms:100}") long tickMillis,
+                             @Value("${buymore.reservation.wheel-slots:512}") int wheelSlots,
+                             MeterRegistry meterRegistry) {
+        this.ttl = ttl;
+        this.expiries = new TimingWheel<>(Duration.ofMillis(tickMillis), wheelSlots, System.nanoTime());
+        this.created = counter(meterRegistry, "created");
+        this.confirmed = counter(meterRegistry, "confirmed");
+        this.released = counter(meterRegistry, "released");
+        this.expired = counter(meterRegistry, "expired");
+        Gauge.builder("buymore.reservations.active", reservations, Map::size)
+                .description("Reservations currently holding stock")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the quantity of the electronic held by active reservations
+     */
+    public int held(Long electronicId) {
+        return heldQuantities.getOrDefault(electronicId, 0);
+    }
+
+    /**
+     * Holds the quantity if the stock not yet held covers it. Callers serialize holds and stock writes of
+     * the same electronic, so the check stays true until the hold is counted.
+     *
+     * @param stock the stored quantity of the electronic
+     */
+    public ReservationDTO hold(Long electronicId, int quantity, int stock) throws ElectronicOutOfStockException {
+        if (stock - held(electronicId) < quantity) {
+            throw ElectronicOutOfStockException.withoutStackTrace(electronicId, quantity);
+        }
+        Reservation reservation = new Reservation(UUID.randomUUID().toString(), electronicId, quantity,
+                Instant.now().plus(ttl), System.nanoTime() + ttl.toNanos());
+        heldQuantities.merge(electronicId, quantity, Integer::sum);
+        reservations.put(reservation.id, reservation);
+        reservation.timeout = expiries.schedule(reservation, reservation.deadlineNanos);
+        created.increment();
+        return reservation.toDTO();
+    }
+
+    /**
+     * @throws ReservationNotFoundException when the reservation expired or already ended
+     */
+    public ReservationDTO find(String reservationId) throws ReservationNotFoundException {
+        Reservation reservation = reservations.get(reservationId);
+        if (reservation == null) {
+            throw new ReservationNotFoundException(reservationId);
+        }
+        return reservation.toDTO();
+    }
+
+    /**
+     * Stops the reservation from expiring or being released while the caller sells its quantity. The
+     * quantity stays held until {@link #confirm} ends the reservation, or {@link #unclaim} gives it back
+     * its expiry when the sale fails.
+     *
+     * @throws ReservationNotFoundException when the reservation expired or already ended
+     */
+    public ReservationDTO claim(String reservationId) throws ReservationNotFoundException {
+        Reservation reservation = reservations.get(reservationId);
+        if (reservation == null || !reservation.timeout.cancel()) {
+            throw new ReservationNotFoundException(reservationId);
+        }
+        return reservation.toDTO();
+    }
+
+    /**
+     * Ends a claimed reservation whose quantity was sold.
+     */
+    public void confirm(String reservationId) {
+        Reservation reservation = reservations.get(reservationId);
+        if (reservation != null) {
+            unhold(reservation);
+            confirmed.increment();
+        }
+    }
+
+    /**
+     * Puts a claimed reservation back as it was; it expires at its original time, or on the next tick
+     * when that has passed.
+     */
+    public void unclaim(String reservationId) {
+        Reservation reservation = reservations.get(reservationId);
+        if (reservation != null) {
+            reservation.timeout = expiries.schedule(reservation, reservation.deadlineNanos);
+        }
+    }
+
+    /**
+     * Ends the reservation and gives its quantity back to the available stock.
+     */
+    public ReservationDTO release(String reservationId) throws ReservationNotFoundException {
+        ReservationDTO reservationDTO = end(reservationId);
+        released.increment();
+        return reservationDTO;
+    }
+
+    /**
+     * Ends every reservation of the electronic, e.g. once it is deleted. A reservation being confirmed is
+     * left to its confirmation, which fails and lets it expire.
+     *
+     * @return the number of reservations released
+     */
+    public int releaseAll(Long electronicId) {
+        int releasedReservations = 0;
+        for (Reservation reservation : reservations.values()) {
+            if (reservation.electronicId.equals(electronicId) && reservation.timeout.cancel()) {
+                unhold(reservation);
+                released.increment();
+                releasedReservations++;
+            }
+        }
+        return releasedReservations;
+    }
+
+    /**
+     * @return the number of reservations expired
+     */
+    @Scheduled(fixedDelayString = "${buymore.reservation.tick-ms:100}")
+    public int expireDue() {
+        return expiries.advance(System.nanoTime(), reservation -> {
+            unhold(reservation);
+            expired.increment();
+        });
+    }
+
+    public int size() {
+        return reservations.size();
+    }
+
+    private ReservationDTO end(String reservationId) throws ReservationNotFoundException {
+        Reservation reservation = reservations.get(reservationId);
+        if (reservation == null || !reservation.timeout.cancel()) {
+            throw new ReservationNotFoundException(reservationId);
+        }
+        unhold(reservation);
+        return reservation.toDTO();
+    }
+
+    private void unhold(Reservation reservation) {
+        reservations.remove(reservation.id, reservation);
+        heldQuantities.computeIfPresent(reservation.electronicId, (id, held) -> held == reservation.quantity ? null : held - reservation.quantity);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("buymore.reservations")
+                .description("Reservations by how they started or ended")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static final class Reservation {
+
+        private final String id;
+        private final Long electronicId;
+        private final int quantity;
+        private final Instant expiresAt;
+        private final long deadlineNanos;
+        private volatile TimingWheel.Timeout<Reservation> timeout;
+
+        private Reservation(String id, Long electronicId, int quantity, Instant expiresAt, long deadlineNanos) {
+            this.id = id;
+            this.electronicId = electronicId;
+            this.quantity = quantity;
+            this.expiresAt = expiresAt;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        private ReservationDTO toDTO() {
+            return ReservationDTO.builder()
+                    .id(id)
+                    .electronicId(electronicId)
+                    .quantity(quantity)
+                    .expiresAt(expiresAt)
+                    .build();
+        }
+
+    }
+
+}
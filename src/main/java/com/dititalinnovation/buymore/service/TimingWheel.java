@@ -0,0 +1,183 @@
+package com.dititalinnovation.buymore.service;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel: deadlines are rounded up to ticks and hashed into a ring of slots by tick, so
+ * scheduling and cancelling are O(1) whatever the number of pending timeouts, and each tick only visits
+ * the timeouts of one slot. Deadlines more than a revolution away stay in their slot until their tick
+ * comes around.
+ * <p>
+ * Any thread may schedule or cancel; a single thread at a time advances the wheel. Scheduled and
+ * cancelled timeouts are queued, then linked into or unlinked from their slots by the next advance, so
+ * slots are only touched by that thread and a cancelled timeout is not kept until its tick. A timeout
+ * fires no earlier than its deadline and at most one tick, plus the advance interval, after it.
+ */
+public class TimingWheel<T> {
+
+    private final long tickNanos;
+    private final long startNanos;
+    private final Slot<T>[] slots;
+    private final int mask;
+    private final Queue<Timeout<T>> scheduled = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout<T>> cancelled = new ConcurrentLinkedQueue<>();
+    private long tick;
+
+    /**
+     * @param slotCount rounded up to a power of two
+     * @param startNanos the {@link System#nanoTime()} of tick 0
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(Duration tickDuration, int slotCount, long startNanos) {
+        if (tickDuration.isNegative() || tickDuration.isZero()) {
+            throw new IllegalArgumentException("Tick duration must be positive: " + tickDuration);
+        }
+        int size = 2;
+        while (size < slotCount) {
+            size <<= 1;
+        }
+        this.tickNanos = tickDuration.toNanos();
+        this.startNanos = startNanos;
+        this.slots = new Slot[size];
+        for (int index = 0; index < size; index++) {
+            slots[index] = new Slot<>();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * @param deadlineNanos in {@link System#nanoTime()} time; a deadline already past fires on the next tick
+     */
+    public Timeout<T> schedule(T value, long deadlineNanos) {
+        Timeout<T> timeout = new Timeout<>(this, value, deadlineNanos);
+        scheduled.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Fires, in tick order, every timeout whose tick has elapsed by {@code nowNanos}.
+     *
+     * @return the number of timeouts fired
+     */
+    public synchronized int advance(long nowNanos, Consumer<? super T> onExpiry) {
+        long lastElapsedTick = Math.floorDiv(nowNanos - startNanos, tickNanos);
+        int fired = 0;
+        while (tick <= lastElapsedTick) {
+            removeCancelled();
+            transferScheduled();
+            fired += fire(slots[(int) (tick & mask)], onExpiry);
+            tick++;
+        }
+        return fired;
+    }
+
+    private void removeCancelled() {
+        Timeout<T> timeout;
+        while ((timeout = cancelled.poll()) != null) {
+            if (timeout.slot != null) {
+                timeout.slot.remove(timeout);
+            }
+        }
+    }
+
+    private void transferScheduled() {
+        Timeout<T> timeout;
+        while ((timeout = scheduled.poll()) != null) {
+            if (timeout.state.get() != Timeout.PENDING) {
+                continue;
+            }
+            long elapsed = timeout.deadlineNanos - startNanos;
+            timeout.deadlineTick = Math.max(tick, Math.floorDiv(elapsed, tickNanos) + (Math.floorMod(elapsed, tickNanos) == 0 ? 0 : 1));
+            slots[(int) (timeout.deadlineTick & mask)].add(timeout);
+        }
+    }
+
+    private int fire(Slot<T> slot, Consumer<? super T> onExpiry) {
+        int fired = 0;
+        Timeout<T> timeout = slot.head;
+        while (timeout != null) {
+            Timeout<T> next = timeout.next;
+            if (timeout.deadlineTick <= tick) {
+                slot.remove(timeout);
+                if (timeout.state.compareAndSet(Timeout.PENDING, Timeout.EXPIRED)) {
+                    onExpiry.accept(timeout.value);
+                    fired++;
+                }
+            }
+            timeout = next;
+        }
+        return fired;
+    }
+
+    public static final class Timeout<T> {
+
+        private static final int PENDING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final TimingWheel<T> wheel;
+        private final T value;
+        private final long deadlineNanos;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+        private long deadlineTick;
+        private Slot<T> slot;
+        private Timeout<T> previous;
+        private Timeout<T> next;
+
+        private Timeout(TimingWheel<T> wheel, T value, long deadlineNanos) {
+            this.wheel = wheel;
+            this.value = value;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        /**
+         * @return true when the timeout will not fire; false when it already fired or was cancelled
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(PENDING, CANCELLED)) {
+                return false;
+            }
+            wheel.cancelled.add(this);
+            return true;
+        }
+
+        public long getDeadlineNanos() {
+            return deadlineNanos;
+        }
+
+    }
+
+    private static final class Slot<T> {
+
+        private Timeout<T> head;
+
+        private void add(Timeout<T> timeout) {
+            timeout.slot = this;
+            timeout.next = head;
+            if (head != null) {
+                head.previous = timeout;
+            }
+            head = timeout;
+        }
+
+        private void remove(Timeout<T> timeout) {
+            if (timeout.previous != null) {
+                timeout.previous.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.previous = timeout.previous;
+            }
+            timeout.slot = null;
+            timeout.previous = null;
+            timeout.next = null;
+        }
+
+    }
+
+}
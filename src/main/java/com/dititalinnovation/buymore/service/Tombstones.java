@@ -0,0 +1,65 @@
+package com.dititalinnovation.buymore.service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Versions at which electronics were deleted, so a change that reaches an index after the deletion, but
+ * was committed before it, does not bring the electronic back. Ids are never reused, so a tombstone only
+ * has to outlive the changes still on their way; it is dropped once older than its time to live.
+ * <p>
+ * A deletion or change without a version is ordered against nothing: an unversioned tombstone buries
+ * every change, and an unversioned change is buried by any tombstone.
+ */
+public class Tombstones {
+
+    private final long timeToLiveNanos;
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+    private final Queue<Tombstone> byAge = new ConcurrentLinkedQueue<>();
+
+    public Tombstones(Duration timeToLive) {
+        this.timeToLiveNanos = timeToLive.toNanos();
+    }
+
+    public void add(long id, Long version) {
+        long now = System.nanoTime();
+        versions.merge(id, version == null ? Long.MAX_VALUE : version, Math::max);
+        byAge.add(new Tombstone(id, now));
+        for (Tombstone oldest = byAge.peek(); oldest != null && now - oldest.addedNanos > timeToLiveNanos; oldest = byAge.peek()) {
+            if (byAge.remove(oldest)) {
+                versions.remove(oldest.id);
+            }
+        }
+    }
+
+    /**
+     * @return true when the electronic was deleted at or after the given version
+     */
+    public boolean buries(long id, Long version) {
+        Long deletedVersion = versions.get(id);
+        return deletedVersion != null && (version == null || version <= deletedVersion);
+    }
+
+    /**
+     * @return true when the change, at the given version, is older than the state held at the current one
+     */
+    public static boolean isOlder(Long version, Long currentVersion) {
+        return version != null && currentVersion != null && version < currentVersion;
+    }
+
+    private static final class Tombstone {
+
+        private final long id;
+        private final long addedNanos;
+
+        private Tombstone(long id, long addedNanos) {
+            this.id = id;
+            this.addedNanos = addedNanos;
+        }
+
+    }
+
+}
@@ -0,0 +1,91 @@
+package benchmark;
+
+import com.dititalinnovation.buymore.BuymoreApplication;
+import com.dititalinnovation.buymore.enums.ElectronicType;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Boots the application without a web server against a private in-memory H2
+ * database seeded with a synthetic catalog, so benchmarks exercise the real beans.
+ */
+public final class CatalogFixture implements AutoCloseable {
+
+    private static final int INSERT_BATCH_SIZE = 5000;
+    private static final String[] BRANDS = {"Samsung", "LG", "Dell", "Lenovo", "Apple", "HP", "Asus", "Acer", "Sony", "Philips"};
+
+    private final ConfigurableApplicationContext context;
+
+    private CatalogFixture(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    public static CatalogFixture start(int catalogSize, String... properties) {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        List<String> allProperties = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:h2:mem:benchmark-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.h2.console.enabled=false",
+                "logging.level.root=WARN"));
+        allProperties.addAll(List.of(properties));
+        // passed as command line arguments so they win over the application.properties files
+        String[] arguments = allProperties.stream()
+                .map(property -> "--" + property)
+                .toArray(String[]::new);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BuymoreApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(arguments);
+        CatalogFixture fixture = new CatalogFixture(context);
+        fixture.seed(catalogSize);
+        return fixture;
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public void resetQuantities() {
+        getBean(JdbcTemplate.class).update("update electronic set quantity = 0");
+        evictSecondLevelCache();
+    }
+
+    public void restock(int quantity) {
+        getBean(JdbcTemplate.class).update("update electronic set max = ?, quantity = ?", quantity, quantity);
+        evictSecondLevelCache();
+    }
+
+    public static String nameOf(long id) {
+        return String.format("Electronic %07d", id);
+    }
+
+    private void evictSecondLevelCache() {
+        getBean(EntityManagerFactory.class).getCache().evictAll();
+    }
+
+    private void seed(int catalogSize) {
+        JdbcTemplate jdbcTemplate = getBean(JdbcTemplate.class);
+        ElectronicType[] types = ElectronicType.values();
+        List<Object[]> rows = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (long id = 1; id <= catalogSize; id++) {
+            rows.add(new Object[]{id, nameOf(id), BRANDS[(int) (id % BRANDS.length)], 500, (int) (id % 250), types[(int) (id % types.length)].name()});
+            if (rows.size() == INSERT_BATCH_SIZE || id == catalogSize) {
+                jdbcTemplate.batchUpdate("insert into electronic (id, name, brand, max, quantity, type, version) values (?, ?, ?, ?, ?, ?, 0)", rows);
+                rows.clear();
+            }
+        }
+        jdbcTemplate.execute("alter sequence electronic_seq restart with " + (catalogSize + 1000));
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+
+}
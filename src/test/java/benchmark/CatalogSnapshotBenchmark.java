@@ -0,0 +1,83 @@
+package benchmark;
+
+import com.dititalinnovation.buymore.service.CatalogSnapshot;
+import com.dititalinnovation.buymore.service.ElectronicService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bytes of one unpaged listing response: queried, serialised and compressed per request, as before,
+ * against the shared snapshot. Sampled, so the output carries p99; single threaded and without I/O,
+ * so time per operation is CPU per request. Run with -prof gc to compare allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class CatalogSnapshotBenchmark {
+
+    @Param({"10000", "100000"})
+    private int catalogSize;
+
+    @Param({"identity", "gzip"})
+    private String encoding;
+
+    private CatalogFixture fixture;
+    private ElectronicService electronicService;
+    private ObjectMapper objectMapper;
+    private CatalogSnapshot catalogSnapshot;
+    private boolean gzip;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = CatalogFixture.start(catalogSize);
+        electronicService = fixture.getBean(ElectronicService.class);
+        objectMapper = fixture.getBean(ObjectMapper.class);
+        catalogSnapshot = fixture.getBean(CatalogSnapshot.class);
+        gzip = CatalogSnapshot.GZIP.equals(encoding);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public byte[] serializePerRequest() throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(electronicService.listAll());
+        if (!gzip) {
+            return json;
+        }
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(compressed)) {
+            gzipOutputStream.write(json);
+        }
+        return compressed.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] sharedSnapshot() {
+        CatalogSnapshot.Snapshot snapshot = catalogSnapshot.current();
+        return gzip ? snapshot.getGzip() : snapshot.getJson();
+    }
+
+}
@@ -0,0 +1,85 @@
+package benchmark;
+
+import com.dititalinnovation.buymore.exception.ElectronicConcurrentUpdateException;
+import com.dititalinnovation.buymore.exception.ElectronicNotFoundException;
+import com.dititalinnovation.buymore.exception.ElectronicOutOfStockException;
+import com.dititalinnovation.buymore.exception.InvalidQuantityException;
+import com.dititalinnovation.buymore.service.ElectronicService;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Eight threads decrementing a handful of hot SKUs, behind one lock shared by every SKU and behind 64
+ * lock stripes, in front of the optimistic version check. Conflicts that exhaust the retries are counted
+ * rather than failing the run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class DecrementContentionBenchmark {
+
+    private static final int CATALOG_SIZE = 1000;
+
+    @Param({"1", "64"})
+    private String lockStripes;
+
+    @Param({"4"})
+    private int hotSkus;
+
+    private CatalogFixture fixture;
+    private ElectronicService electronicService;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcomes {
+        public long conflicts;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = CatalogFixture.start(CATALOG_SIZE, "buymore.stock.lock-stripes=" + lockStripes);
+        electronicService = fixture.getBean(ElectronicService.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void restock() {
+        fixture.restock(1_000_000_000);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public Object decrementHotSku(Outcomes outcomes) throws ElectronicNotFoundException, ElectronicOutOfStockException, InvalidQuantityException {
+        long id = 1 + ThreadLocalRandom.current().nextInt(hotSkus);
+        try {
+            return electronicService.decrement(id, 1);
+        } catch (ElectronicConcurrentUpdateException e) {
+            outcomes.conflicts++;
+            return e;
+        }
+    }
+
+}
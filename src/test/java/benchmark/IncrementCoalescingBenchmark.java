@@ -0,0 +1,83 @@
+package benchmark;
+
+import com.dititalinnovation.buymore.dto.ElectronicDTO;
+import com.dititalinnovation.buymore.exception.BuyMoreExceededException;
+import com.dititalinnovation.buymore.exception.ElectronicNotFoundException;
+import com.dititalinnovation.buymore.exception.InvalidQuantityException;
+import com.dititalinnovation.buymore.service.ElectronicService;
+import com.dititalinnovation.buymore.service.StockIncrementCoalescer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A restock burst on a few hot SKUs: one guarded UPDATE per increment against write-behind
+ * coalescing, durable (callers wait for the group commit) and not.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class IncrementCoalescingBenchmark {
+
+    private static final int CATALOG_SIZE = 1000;
+
+    @Param({"direct", "durable", "volatile"})
+    private String mode;
+
+    @Param({"4"})
+    private int hotSkus;
+
+    private CatalogFixture fixture;
+    private ElectronicService electronicService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = CatalogFixture.start(CATALOG_SIZE,
+                "buymore.stock.write-behind.enabled=" + !"direct".equals(mode),
+                "buymore.stock.write-behind.durable=" + "durable".equals(mode));
+        electronicService = fixture.getBean(ElectronicService.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void emptyStock() {
+        List<Long> hotSkuIds = new ArrayList<>(hotSkus);
+        for (long id = 1; id <= hotSkus; id++) {
+            hotSkuIds.add(id);
+        }
+        fixture.getBean(StockIncrementCoalescer.class).drain(hotSkuIds);
+        fixture.restock(1_000_000_000);
+        fixture.resetQuantities();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public ElectronicDTO incrementHotSku() throws ElectronicNotFoundException, BuyMoreExceededException, InvalidQuantityException {
+        long id = 1 + ThreadLocalRandom.current().nextInt(hotSkus);
+        return electronicService.increment(id, 1);
+    }
+
+}
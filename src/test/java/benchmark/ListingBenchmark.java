@@ -0,0 +1,72 @@
+package benchmark;
+
+import com.dititalinnovation.buymore.dto.ElectronicDTO;
+import com.dititalinnovation.buymore.dto.ElectronicFilterDTO;
+import com.dititalinnovation.buymore.dto.ElectronicPageDTO;
+import com.dititalinnovation.buymore.service.ElectronicService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unpaged listAll against keyset pages. Run with -prof gc to compare allocated bytes per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class ListingBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int catalogSize;
+
+    @Param({"100"})
+    private int pageSize;
+
+    private CatalogFixture fixture;
+    private ElectronicService electronicService;
+    private long middleCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = CatalogFixture.start(catalogSize);
+        electronicService = fixture.getBean(ElectronicService.class);
+        middleCursor = catalogSize / 2;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public List<ElectronicDTO> unpagedListAll() {
+        return electronicService.listAll();
+    }
+
+    @Benchmark
+    public ElectronicPageDTO firstPage() {
+        return electronicService.listPage(new ElectronicFilterDTO(), null, pageSize);
+    }
+
+    @Benchmark
+    public ElectronicPageDTO middlePage() {
+        return electronicService.listPage(new ElectronicFilterDTO(), middleCursor, pageSize);
+    }
+
+}
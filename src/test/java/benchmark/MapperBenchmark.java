@@ -0,0 +1,43 @@
+package benchmark;
+
+import com.dititalinnovation.buymore.dto.ElectronicDTO;
+import com.dititalinnovation.buymore.entity.Electronic;
+import com.dititalinnovation.buymore.enums.ElectronicType;
+import com.dititalinnovation.buymore.mapper.ElectronicMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private final ElectronicMapper electronicMapper = ElectronicMapper.INSTANCE;
+
+    private final Electronic electronic = new Electronic(1L, CatalogFixture.nameOf(1), "Samsung", 500, 10, ElectronicType.TV);
+
+    private final ElectronicDTO electronicDTO = electronicMapper.toDTO(electronic);
+
+    @Benchmark
+    public ElectronicDTO toDTO() {
+        return electronicMapper.toDTO(electronic);
+    }
+
+    @Benchmark
+    public Electronic toModel() {
+        return electronicMapper.toModel(electronicDTO);
+    }
+
+}
@@ -0,0 +1,101 @@
+package benchmark;
+
+import com.dititalinnovation.buymore.exception.ElectronicNotFoundException;
+import com.dititalinnovation.buymore.service.ElectronicService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups of names that do not exist, cycling over a thousand of them like a crawler would, with the
+ * missing-name cache on and off (maximum size 0), next to the cost of the exception alone. The
+ * exception benchmarks run a few frames deep; a request thread is over a hundred deep, and a stack
+ * trace costs more there.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class MissingNameBenchmark {
+
+    private static final int MISSING_NAMES = 1000;
+
+    @State(Scope.Benchmark)
+    public static class Catalog {
+
+        @Param({"100000"})
+        private int catalogSize;
+
+        @Param({"true", "false"})
+        private boolean negativeCache;
+
+        private CatalogFixture fixture;
+        private ElectronicService electronicService;
+        private String[] missingNames;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            fixture = negativeCache
+                    ? CatalogFixture.start(catalogSize)
+                    : CatalogFixture.start(catalogSize, "buymore.cache.missing-electronic-names.maximum-size=0");
+            electronicService = fixture.getBean(ElectronicService.class);
+            missingNames = new String[MISSING_NAMES];
+            for (int index = 0; index < MISSING_NAMES; index++) {
+                missingNames[index] = CatalogFixture.nameOf(catalogSize + 1000L + index);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            fixture.close();
+        }
+
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int next;
+
+    }
+
+    @Benchmark
+    public Exception lookupMissingName(Catalog catalog, Cursor cursor) {
+        String name = catalog.missingNames[cursor.next++ % MISSING_NAMES];
+        try {
+            catalog.electronicService.findByName(name);
+            throw new IllegalStateException(name + " exists");
+        } catch (ElectronicNotFoundException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public String exceptionWithStackTrace() {
+        return new ElectronicNotFoundException("Electronic 0000001").getClass().getName();
+    }
+
+    @Benchmark
+    public String exceptionWithoutStackTrace() {
+        return ElectronicNotFoundException.withoutStackTrace("Electronic 0000001").getClass().getName();
+    }
+
+    @Benchmark
+    public String eagerlyFormattedMessage() {
+        return String.format("Electronic with name %s not found in the system.", "Electronic 0000001");
+    }
+
+}
@@ -0,0 +1,87 @@
+package benchmark;
+
+import com.dititalinnovation.buymore.dto.ElectronicDTO;
+import com.dititalinnovation.buymore.mapper.ElectronicMapper;
+import com.dititalinnovation.buymore.repository.ElectronicRepository;
+import com.dititalinnovation.buymore.service.ElectronicService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Listing the catalog as managed entities copied by the mapper, the way listAll used to, against the
+ * read-only DTO projection it uses now. Run with -prof gc to compare allocated bytes per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class ProjectionBenchmark {
+
+    @Param({"100000"})
+    private int catalogSize;
+
+    private CatalogFixture fixture;
+    private ElectronicService electronicService;
+    private ElectronicRepository electronicRepository;
+    private TransactionTemplate readWriteTransaction;
+    private TransactionTemplate readOnlyTransaction;
+    private final ElectronicMapper electronicMapper = ElectronicMapper.INSTANCE;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = CatalogFixture.start(catalogSize);
+        electronicService = fixture.getBean(ElectronicService.class);
+        electronicRepository = fixture.getBean(ElectronicRepository.class);
+        PlatformTransactionManager transactionManager = fixture.getBean(PlatformTransactionManager.class);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public List<ElectronicDTO> managedEntities() {
+        return readWriteTransaction.execute(status -> mappedEntities());
+    }
+
+    @Benchmark
+    public List<ElectronicDTO> readOnlyEntities() {
+        return readOnlyTransaction.execute(status -> mappedEntities());
+    }
+
+    @Benchmark
+    public List<ElectronicDTO> dtoProjection() {
+        return electronicService.listAll();
+    }
+
+    private List<ElectronicDTO> mappedEntities() {
+        return electronicRepository.findAll()
+                .stream()
+                .map(electronicMapper::toDTO)
+                .collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,185 @@
+package benchmark;
+
+import com.dititalinnovation.buymore.exception.BuyMoreException;
+import com.dititalinnovation.buymore.service.StockReservations;
+import com.dititalinnovation.buymore.service.TimingWheel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reservation throughput with tens of thousands of holds already active and the wheel ticking as the
+ * scheduler would tick it. Expiry throughput: a batch of due reservations expired end to end, then one
+ * tick of the timing wheel against scanning every hold for due deadlines, with most holds not due yet.
+ * Built without Spring; holds never touch the database, and confirming one is a plain decrement
+ * measured by {@link DecrementContentionBenchmark}.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class ReservationBenchmark {
+
+    private static final int STOCK = Integer.MAX_VALUE;
+
+    @State(Scope.Benchmark)
+    public static class ActiveHolds {
+
+        @Param({"50000"})
+        private int activeHolds;
+
+        private StockReservations stockReservations;
+        private ScheduledExecutorService ticker;
+
+        @Setup(Level.Trial)
+        public void setUp() throws BuyMoreException {
+            stockReservations = new StockReservations(Duration.ofMinutes(5), 100, 512, new SimpleMeterRegistry());
+            for (int hold = 0; hold < activeHolds; hold++) {
+                stockReservations.hold((long) (hold % 1000), 1, STOCK);
+            }
+            ticker = Executors.newSingleThreadScheduledExecutor();
+            ticker.scheduleWithFixedDelay(stockReservations::expireDue, 100, 100, TimeUnit.MILLISECONDS);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            ticker.shutdownNow();
+        }
+
+    }
+
+    @State(Scope.Thread)
+    public static class Cart {
+
+        private Long electronicId;
+
+        @Setup(Level.Trial)
+        public void setUp(ThreadParams threadParams) {
+            electronicId = 1_000_000L + threadParams.getThreadIndex();
+        }
+
+    }
+
+    @State(Scope.Benchmark)
+    public static class DueReservations {
+
+        @Param({"50000"})
+        private int dueHolds;
+
+        private StockReservations stockReservations;
+
+        @Setup(Level.Invocation)
+        public void setUp() throws Exception {
+            stockReservations = new StockReservations(Duration.ofMillis(1), 1, 512, new SimpleMeterRegistry());
+            for (int hold = 0; hold < dueHolds; hold++) {
+                stockReservations.hold((long) (hold % 1000), 1, STOCK);
+            }
+            Thread.sleep(5);
+        }
+
+    }
+
+    /**
+     * Holds spread over a five minute TTL on 100 ms ticks; one tick in 3000 of them is due.
+     */
+    @State(Scope.Benchmark)
+    public static class Deadlines {
+
+        private static final long TICK = Duration.ofMillis(100).toNanos();
+        private static final long TTL = Duration.ofMinutes(5).toNanos();
+
+        @Param({"50000"})
+        private int pendingHolds;
+
+        private TimingWheel<Integer> wheel;
+        private Map<Integer, Long> deadlines;
+        private long now;
+
+        @Setup(Level.Invocation)
+        public void setUp() {
+            wheel = new TimingWheel<>(Duration.ofNanos(TICK), 512, 0);
+            deadlines = new ConcurrentHashMap<>();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int hold = 0; hold < pendingHolds; hold++) {
+                long deadline = random.nextLong(TICK, TTL);
+                wheel.schedule(hold, deadline);
+                deadlines.put(hold, deadline);
+            }
+            wheel.advance(0, hold -> {
+            });
+            now = TICK;
+        }
+
+    }
+
+    @Benchmark
+    @Threads(8)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Object reserveAndRelease(ActiveHolds activeHolds, Cart cart) throws BuyMoreException {
+        String reservationId = activeHolds.stockReservations.hold(cart.electronicId, 1, STOCK).getId();
+        return activeHolds.stockReservations.release(reservationId);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Measurement(iterations = 20, batchSize = 1)
+    @Warmup(iterations = 10, batchSize = 1)
+    public int expireDueReservations(DueReservations dueReservations) {
+        return dueReservations.stockReservations.expireDue();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Measurement(iterations = 20, batchSize = 1)
+    @Warmup(iterations = 10, batchSize = 1)
+    public int advanceOneTick(Deadlines deadlines) {
+        List<Integer> expired = new ArrayList<>();
+        deadlines.wheel.advance(deadlines.now, expired::add);
+        return expired.size();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Measurement(iterations = 20, batchSize = 1)
+    @Warmup(iterations = 10, batchSize = 1)
+    public int scanForDueDeadlines(Deadlines deadlines) {
+        List<Integer> expired = new ArrayList<>();
+        Iterator<Map.Entry<Integer, Long>> entries = deadlines.deadlines.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<Integer, Long> entry = entries.next();
+            if (entry.getValue() <= deadlines.now) {
+                expired.add(entry.getKey());
+                entries.remove();
+            }
+        }
+        return expired.size();
+    }
+
+}
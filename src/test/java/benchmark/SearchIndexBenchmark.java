@@ -0,0 +1,84 @@
+package benchmark;
+
+import com.dititalinnovation.buymore.dto.ElectronicDTO;
+import com.dititalinnovation.buymore.enums.ElectronicType;
+import com.dititalinnovation.buymore.service.ElectronicSearchIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Top-10 search over a generated catalog named like {@link CatalogFixture}'s, against filtering the
+ * whole listing the way the storefront did. The index is built without Spring, from the same rows the
+ * startup load would stream.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xms3g", "-Xmx3g"})
+public class SearchIndexBenchmark {
+
+    private static final String[] BRANDS = {"Samsung", "LG", "Dell", "Lenovo", "Apple", "HP", "Asus", "Acer", "Sony", "Philips"};
+    private static final int LIMIT = 10;
+
+    @Param({"1000000"})
+    private int catalogSize;
+
+    /**
+     * A name prefix, a brand word, a word inside the name, two words, and a typo.
+     */
+    @Param({"electronic 00012", "lenovo", "0543210", "acer 05432", "elektronic 0543210"})
+    private String query;
+
+    private ElectronicSearchIndex searchIndex;
+    private List<ElectronicDTO> electronicDTOs;
+
+    @Setup
+    public void setUp() {
+        ElectronicType[] types = ElectronicType.values();
+        electronicDTOs = LongStream.rangeClosed(1, catalogSize)
+                .mapToObj(id -> new ElectronicDTO(id, CatalogFixture.nameOf(id), BRANDS[(int) (id % BRANDS.length)], 500, (int) (id % 250), types[(int) (id % types.length)]))
+                .collect(Collectors.toList());
+        searchIndex = new ElectronicSearchIndex(null, new SimpleMeterRegistry());
+        long start = System.nanoTime();
+        searchIndex.load(electronicDTOs.stream());
+        System.out.printf("%nIndexed %d electronics in %d ms%n", searchIndex.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @Benchmark
+    public List<ElectronicDTO> search() {
+        return searchIndex.search(query, null, LIMIT);
+    }
+
+    @Benchmark
+    public List<ElectronicDTO> searchByType() {
+        return searchIndex.search(query, ElectronicType.TABLET, LIMIT);
+    }
+
+    @Benchmark
+    public List<ElectronicDTO> filterListing() {
+        String lowerCaseQuery = query.toLowerCase(Locale.ROOT);
+        return electronicDTOs.stream()
+                .filter(electronicDTO -> (electronicDTO.getName() + " " + electronicDTO.getBrand()).toLowerCase(Locale.ROOT).contains(lowerCaseQuery))
+                .limit(LIMIT)
+                .collect(Collectors.toList());
+    }
+
+}
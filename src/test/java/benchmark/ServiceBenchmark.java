@@ -0,0 +1,82 @@
+package benchmark;
+
+import com.dititalinnovation.buymore.dto.ElectronicDTO;
+import com.dititalinnovation.buymore.exception.BuyMoreExceededException;
+import com.dititalinnovation.buymore.exception.ElectronicNotFoundException;
+import com.dititalinnovation.buymore.exception.InvalidQuantityException;
+import com.dititalinnovation.buymore.service.ElectronicService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service hot paths against an embedded H2 catalog. cacheType=none measures the database path
+ * behind findByName, caffeine the cached one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class ServiceBenchmark {
+
+    @Param({"1000", "100000"})
+    private int catalogSize;
+
+    @Param({"caffeine", "none"})
+    private String cacheType;
+
+    private CatalogFixture fixture;
+    private ElectronicService electronicService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = CatalogFixture.start(catalogSize, "spring.cache.type=" + cacheType);
+        electronicService = fixture.getBean(ElectronicService.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetStock() {
+        fixture.resetQuantities();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public ElectronicDTO findByName() throws ElectronicNotFoundException {
+        return electronicService.findByName(CatalogFixture.nameOf(randomId()));
+    }
+
+    @Benchmark
+    public List<ElectronicDTO> listAll() {
+        return electronicService.listAll();
+    }
+
+    @Benchmark
+    public ElectronicDTO increment() throws ElectronicNotFoundException, BuyMoreExceededException, InvalidQuantityException {
+        return electronicService.increment(randomId(), 1);
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, catalogSize + 1);
+    }
+
+}
@@ -0,0 +1,86 @@
+package benchmark;
+
+import com.dititalinnovation.buymore.dto.StockAdjustmentDTO;
+import com.dititalinnovation.buymore.dto.StockAdjustmentRequestDTO;
+import com.dititalinnovation.buymore.dto.StockAdjustmentResultDTO;
+import com.dititalinnovation.buymore.enums.AdjustmentMode;
+import com.dititalinnovation.buymore.exception.BuyMoreExceededException;
+import com.dititalinnovation.buymore.exception.ElectronicNotFoundException;
+import com.dititalinnovation.buymore.exception.InvalidQuantityException;
+import com.dititalinnovation.buymore.exception.StockAdjustmentRejectedException;
+import com.dititalinnovation.buymore.service.ElectronicService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A shipment of adjustments applied one increment call at a time against one bulk adjustStock call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StockAdjustmentBenchmark {
+
+    private static final int CATALOG_SIZE = 10000;
+
+    @Param({"1000"})
+    private int adjustmentCount;
+
+    private CatalogFixture fixture;
+    private ElectronicService electronicService;
+    private StockAdjustmentRequestDTO adjustmentRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = CatalogFixture.start(CATALOG_SIZE);
+        electronicService = fixture.getBean(ElectronicService.class);
+        List<StockAdjustmentDTO> adjustments = new ArrayList<>(adjustmentCount);
+        for (long id = 1; id <= adjustmentCount; id++) {
+            adjustments.add(new StockAdjustmentDTO(id * (CATALOG_SIZE / adjustmentCount), 1));
+        }
+        adjustmentRequest = new StockAdjustmentRequestDTO(AdjustmentMode.BEST_EFFORT, adjustments);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetStock() {
+        fixture.resetQuantities();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public int perItemIncrement() throws ElectronicNotFoundException, BuyMoreExceededException, InvalidQuantityException {
+        int applied = 0;
+        for (StockAdjustmentDTO adjustment : adjustmentRequest.getAdjustments()) {
+            electronicService.increment(adjustment.getId(), adjustment.getQuantity());
+            applied++;
+        }
+        return applied;
+    }
+
+    @Benchmark
+    public StockAdjustmentResultDTO bulkAdjustment() throws StockAdjustmentRejectedException {
+        return electronicService.adjustStock(adjustmentRequest);
+    }
+
+}
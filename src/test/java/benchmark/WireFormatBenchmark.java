@@ -0,0 +1,70 @@
+package benchmark;
+
+import com.dititalinnovation.buymore.dto.ElectronicDTO;
+import com.dititalinnovation.buymore.enums.ElectronicType;
+import com.dititalinnovation.buymore.enums.WireFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode time of one electronic and of a list of them per wire format, with mappers built
+ * the way the message converters build theirs. Payload sizes are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    @Param({"JSON", "CBOR", "SMILE"})
+    private WireFormat format;
+
+    @Param({"1", "1000"})
+    private int listSize;
+
+    private ObjectMapper objectMapper;
+    private List<ElectronicDTO> electronicDTOs;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        objectMapper = builder.factory(format.getFactory()).build();
+        ElectronicType[] types = ElectronicType.values();
+        electronicDTOs = new ArrayList<>(listSize);
+        for (long id = 1; id <= listSize; id++) {
+            electronicDTOs.add(new ElectronicDTO(id, CatalogFixture.nameOf(id), "Samsung", 500, (int) (id % 250), types[(int) (id % types.length)]));
+        }
+        encoded = objectMapper.writeValueAsBytes(electronicDTOs);
+        System.out.printf("%n%s payload for %d electronics: %d bytes%n", format, listSize, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return objectMapper.writeValueAsBytes(electronicDTOs);
+    }
+
+    @Benchmark
+    public ElectronicDTO[] decode() throws IOException {
+        return objectMapper.readValue(encoded, ElectronicDTO[].class);
+    }
+
+}
@@ -0,0 +1,79 @@
+package controller;
+
+import builder.ElectronicDTOBuilder;
+import com.dititalinnovation.buymore.BuymoreApplication;
+import com.dititalinnovation.buymore.dto.ElectronicDTO;
+import com.dititalinnovation.buymore.repository.ElectronicRepository;
+import com.dititalinnovation.buymore.service.ElectronicService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = BuymoreApplication.class)
+@AutoConfigureMockMvc
+public class ElectronicBatchCreationTest {
+
+    private static final String ELECTRONIC_API_URL_PATH = "/api/v1/electronics";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ElectronicRepository electronicRepository;
+
+    @AfterEach
+    void tearDown() {
+        electronicRepository.deleteAll();
+    }
+
+    @Test
+    void whenPOSTBatchIsLargerThanAllowedThenBadRequestIsReturnedAndNothingIsCreated() throws Exception {
+        // given
+        List<ElectronicDTO> electronicDTOs = batchOf(ElectronicService.MAX_BATCH_SIZE + 1);
+
+        // then
+        mockMvc.perform(post(ELECTRONIC_API_URL_PATH + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(electronicDTOs)))
+                .andExpect(status().isBadRequest());
+        assertThat(electronicRepository.count(), is(equalTo(0L)));
+    }
+
+    @Test
+    void whenPOSTBatchIsAsLargeAsAllowedThenItIsCreated() throws Exception {
+        // given
+        List<ElectronicDTO> electronicDTOs = batchOf(ElectronicService.MAX_BATCH_SIZE);
+
+        // then
+        mockMvc.perform(post(ELECTRONIC_API_URL_PATH + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(electronicDTOs)))
+                .andExpect(status().isOk());
+        assertThat(electronicRepository.count(), is(equalTo((long) ElectronicService.MAX_BATCH_SIZE)));
+    }
+
+    private static List<ElectronicDTO> batchOf(int size) {
+        return IntStream.range(0, size)
+                .mapToObj(index -> ElectronicDTOBuilder.builder().id(null).name("Tv Batch " + index).build().toElectronicDTO())
+                .collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,143 @@
+package controller;
+
+import builder.ElectronicDTOBuilder;
+import com.dititalinnovation.buymore.BuymoreApplication;
+import com.dititalinnovation.buymore.dto.ElectronicDTO;
+import com.dititalinnovation.buymore.repository.ElectronicRepository;
+import com.dititalinnovation.buymore.service.ChangeFeed;
+import com.dititalinnovation.buymore.service.ElectronicService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * A ring of four events, so resuming from an older id than that ends in a reset.
+ */
+@SpringBootTest(classes = BuymoreApplication.class, properties = "buymore.feed.capacity=4")
+@AutoConfigureMockMvc
+public class ElectronicChangeFeedTest {
+
+    private static final String ELECTRONIC_CHANGES_URL_PATH = "/api/v1/electronics/changes";
+    private static final Pattern EVENT_ID = Pattern.compile("id:(\\S+)");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ElectronicService electronicService;
+
+    @Autowired
+    private ElectronicRepository electronicRepository;
+
+    @AfterEach
+    void tearDown() {
+        electronicRepository.deleteAll();
+    }
+
+    @Test
+    void whenElectronicIsCreatedThenSubscribersReceiveIt() throws Exception {
+        // given
+        MvcResult stream = subscribe(get(ELECTRONIC_CHANGES_URL_PATH));
+
+        // when
+        electronicService.createElectronic(electronic("Tv Feed"));
+
+        // then
+        String content = awaitContent(stream, "Tv Feed");
+        assertThat(content, containsString("event:CREATED"));
+        assertThat(content, containsString("\"name\":\"Tv Feed\""));
+    }
+
+    @Test
+    void whenSubscriberReconnectsWithLastEventIdThenMissedEventsAreReplayed() throws Exception {
+        // given
+        MvcResult stream = subscribe(get(ELECTRONIC_CHANGES_URL_PATH));
+        electronicService.createElectronic(electronic("Notebook Feed"));
+        String lastEventId = firstEventId(awaitContent(stream, "Notebook Feed"));
+
+        // when
+        electronicService.createElectronic(electronic("Tablet Feed"));
+        MvcResult resumed = subscribe(get(ELECTRONIC_CHANGES_URL_PATH).header("Last-Event-ID", lastEventId));
+
+        // then
+        String content = awaitContent(resumed, "Tablet Feed");
+        assertThat(content, not(containsString("Notebook Feed")));
+        assertThat(content, not(containsString("event:" + ChangeFeed.RESET_EVENT)));
+    }
+
+    @Test
+    void whenSubscriberMissedMoreThanTheRingHoldsThenItIsToldToReload() throws Exception {
+        // given
+        MvcResult stream = subscribe(get(ELECTRONIC_CHANGES_URL_PATH));
+        electronicService.createElectronic(electronic("Desktop Feed 0"));
+        String lastEventId = firstEventId(awaitContent(stream, "Desktop Feed 0"));
+
+        // when
+        for (int i = 1; i <= 6; i++) {
+            electronicService.createElectronic(electronic("Desktop Feed " + i));
+        }
+        MvcResult resumed = subscribe(get(ELECTRONIC_CHANGES_URL_PATH).header("Last-Event-ID", lastEventId));
+
+        // then
+        String content = awaitContent(resumed, "Desktop Feed 6");
+        assertThat(content, startsWith("event:" + ChangeFeed.RESET_EVENT));
+        assertThat(content, not(containsString("Desktop Feed 2\"")));
+        assertThat(content, containsString("Desktop Feed 3\""));
+    }
+
+    @Test
+    void whenLastEventIdIsFromAnotherFeedThenItIsToldToReload() throws Exception {
+        MvcResult resumed = subscribe(get(ELECTRONIC_CHANGES_URL_PATH).header("Last-Event-ID", "previous-run-42"));
+
+        assertThat(awaitContent(resumed, "event:" + ChangeFeed.RESET_EVENT), containsString("not from this feed"));
+    }
+
+    private MvcResult subscribe(MockHttpServletRequestBuilder requestBuilder) throws Exception {
+        return mockMvc.perform(requestBuilder.accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private String awaitContent(MvcResult stream, String expected) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        String content = stream.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            content = stream.getResponse().getContentAsString();
+        }
+        assertThat(content, containsString(expected));
+        return content;
+    }
+
+    private String firstEventId(String content) {
+        Matcher matcher = EVENT_ID.matcher(content);
+        assertThat(matcher.find(), is(true));
+        return matcher.group(1);
+    }
+
+    private ElectronicDTO electronic(String name) {
+        ElectronicDTO electronicDTO = ElectronicDTOBuilder.builder().build().toElectronicDTO();
+        electronicDTO.setId(null);
+        electronicDTO.setName(name);
+        return electronicDTO;
+    }
+
+}
@@ -0,0 +1,153 @@
+package controller;
+
+import com.dititalinnovation.buymore.BuymoreApplication;
+import com.dititalinnovation.buymore.dto.StockAdjustmentDTO;
+import com.dititalinnovation.buymore.dto.StockAdjustmentRequestDTO;
+import com.dititalinnovation.buymore.entity.Electronic;
+import com.dititalinnovation.buymore.enums.AdjustmentMode;
+import com.dititalinnovation.buymore.enums.ElectronicType;
+import com.dititalinnovation.buymore.exception.StockAdjustmentRejectedException;
+import com.dititalinnovation.buymore.repository.ElectronicRepository;
+import com.dititalinnovation.buymore.service.ElectronicService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = BuymoreApplication.class)
+@AutoConfigureMockMvc
+public class ElectronicConditionalGetTest {
+
+    private static final String ELECTRONIC_API_URL_PATH = "/api/v1/electronics";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ElectronicService electronicService;
+
+    @Autowired
+    private ElectronicRepository electronicRepository;
+
+    @AfterEach
+    void tearDown() {
+        electronicRepository.deleteAll();
+    }
+
+    @Test
+    void whenCatalogIsUnchangedThenRevalidationIsNotModified() throws Exception {
+        // given
+        String etag = listETag();
+
+        // then
+        mockMvc.perform(get(ELECTRONIC_API_URL_PATH).param("unpaged", "true").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void whenStockChangesThenTheETagChanges() throws Exception {
+        // given
+        Electronic electronic = electronicRepository.save(new Electronic(null, "Tv Conditional", "Samsung", 50, 10, ElectronicType.TV));
+        String etag = listETag();
+
+        // when
+        electronicService.increment(electronic.getId(), 1);
+
+        // then
+        assertThat(listETag(), is(not(equalTo(etag))));
+        mockMvc.perform(get(ELECTRONIC_API_URL_PATH).param("unpaged", "true")
+                        .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void whenAdjustmentIsRolledBackThenTheETagIsKept() throws Exception {
+        // given
+        Electronic electronic = electronicRepository.save(new Electronic(null, "Notebook Conditional", "Dell", 20, 10, ElectronicType.NOTEBOOK));
+        String etag = listETag();
+        StockAdjustmentRequestDTO adjustmentRequest = new StockAdjustmentRequestDTO(AdjustmentMode.ALL_OR_NOTHING, List.of(
+                new StockAdjustmentDTO(electronic.getId(), 5),
+                new StockAdjustmentDTO(Long.MAX_VALUE, 5)));
+
+        // when
+        assertThrows(StockAdjustmentRejectedException.class, () -> electronicService.adjustStock(adjustmentRequest));
+
+        // then
+        assertThat(listETag(), is(equalTo(etag)));
+    }
+
+    @Test
+    void whenListIsGzippedThenItsETagDiffersFromThePlainOne() throws Exception {
+        // given
+        electronicRepository.save(new Electronic(null, "Tablet Conditional", "Apple", 30, 10, ElectronicType.TABLET));
+        String etag = listETag();
+
+        // when
+        String gzipETag = mockMvc.perform(get(ELECTRONIC_API_URL_PATH).param("unpaged", "true").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        // then
+        assertThat(gzipETag, is(not(equalTo(etag))));
+        mockMvc.perform(get(ELECTRONIC_API_URL_PATH).param("unpaged", "true")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, gzipETag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get(ELECTRONIC_API_URL_PATH).param("unpaged", "true").header(HttpHeaders.IF_NONE_MATCH, gzipETag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void whenCborIsAcceptedThenPagesAreServedAsCborUnderTheirOwnETag() throws Exception {
+        // given
+        electronicRepository.save(new Electronic(null, "Desktop Conditional", "Dell", 30, 10, ElectronicType.DESKTOP));
+        String jsonETag = mockMvc.perform(get(ELECTRONIC_API_URL_PATH).header(HttpHeaders.ACCEPT, "*/*"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        // when
+        String cborETag = mockMvc.perform(get(ELECTRONIC_API_URL_PATH).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        // then
+        assertThat(cborETag, is(not(equalTo(jsonETag))));
+        mockMvc.perform(get(ELECTRONIC_API_URL_PATH).accept(MediaType.APPLICATION_CBOR).header(HttpHeaders.IF_NONE_MATCH, cborETag))
+                .andExpect(status().isNotModified());
+    }
+
+    private String listETag() throws Exception {
+        return mockMvc.perform(get(ELECTRONIC_API_URL_PATH).param("unpaged", "true").header(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+    }
+
+}
@@ -2,32 +2,88 @@ package controller;
 
 import builder.ElectronicDTOBuilder;
 import com.dititalinnovation.buymore.controller.ElectronicController;
+import com.dititalinnovation.buymore.dto.BatchCreationResultDTO;
+import com.dititalinnovation.buymore.dto.DecrementRequestDTO;
 import com.dititalinnovation.buymore.dto.ElectronicDTO;
+import com.dititalinnovation.buymore.dto.ElectronicFilterDTO;
+import com.dititalinnovation.buymore.dto.ElectronicImportResultDTO;
+import com.dititalinnovation.buymore.dto.ElectronicPageDTO;
+import com.dititalinnovation.buymore.dto.ElectronicStatsDTO;
 import com.dititalinnovation.buymore.dto.QuantityDTO;
+import com.dititalinnovation.buymore.dto.RejectedElectronicDTO;
+import com.dititalinnovation.buymore.dto.ReservationDTO;
+import com.dititalinnovation.buymore.dto.ReservationRequestDTO;
+import com.dititalinnovation.buymore.dto.StockAdjustmentDTO;
+import com.dititalinnovation.buymore.dto.StockAdjustmentItemResultDTO;
+import com.dititalinnovation.buymore.dto.StockAdjustmentRequestDTO;
+import com.dititalinnovation.buymore.dto.StockAdjustmentResultDTO;
+import com.dititalinnovation.buymore.dto.StockStatsDTO;
+import com.dititalinnovation.buymore.enums.AdjustmentMode;
+import com.dititalinnovation.buymore.enums.AdjustmentStatus;
+import com.dititalinnovation.buymore.enums.ElectronicChangeType;
+import com.dititalinnovation.buymore.enums.ElectronicType;
+import com.dititalinnovation.buymore.enums.WireFormat;
+import com.dititalinnovation.buymore.event.ElectronicChangedEvent;
 import com.dititalinnovation.buymore.exception.ElectronicNotFoundException;
+import com.dititalinnovation.buymore.exception.ElectronicOutOfStockException;
+import com.dititalinnovation.buymore.exception.ReservationNotFoundException;
+import com.dititalinnovation.buymore.exception.StockAdjustmentRejectedException;
+import com.dititalinnovation.buymore.service.CatalogSnapshot;
+import com.dititalinnovation.buymore.service.ChangeFeed;
+import com.dititalinnovation.buymore.service.CatalogVersion;
+import com.dititalinnovation.buymore.service.ElectronicCsvReader;
+import com.dititalinnovation.buymore.service.ElectronicImportService;
+import com.dititalinnovation.buymore.service.ElectronicSearchIndex;
+import com.dititalinnovation.buymore.service.IdempotentRequests;
 import com.dititalinnovation.buymore.service.ElectronicService;
+import com.dititalinnovation.buymore.service.LowStockIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.servlet.view.json.MappingJackson2JsonView;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.core.Is.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.mock.http.server.reactive.MockServerHttpRequest.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static utils.JsonConvertionUtils.asJsonString;
 
@@ -45,11 +101,33 @@ public class ElectronicControllerTest {
     @Mock
     private ElectronicService electronicService;
 
-    @InjectMocks
+    @Mock
+    private ElectronicImportService electronicImportService;
+
+    @Mock
+    private ChangeFeed changeFeed;
+
+    @Mock
+    private LowStockIndex lowStockIndex;
+
+    @Mock
+    private ElectronicSearchIndex electronicSearchIndex;
+
+    @Spy
+    private IdempotentRequests idempotentRequests = new IdempotentRequests(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+    @Spy
+    private CatalogVersion catalogVersion = new CatalogVersion();
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     private ElectronicController electronicController;
 
     @BeforeEach
     void setUp(){
+        CatalogSnapshot catalogSnapshot = new CatalogSnapshot(electronicService, catalogVersion, objectMapper, Duration.ofSeconds(2));
+        electronicController = new ElectronicController(electronicService, electronicImportService, changeFeed, catalogVersion, catalogSnapshot, lowStockIndex, electronicSearchIndex, idempotentRequests, objectMapper);
         mockMvc = MockMvcBuilders.standaloneSetup(electronicController)
                 .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
                 .setViewResolvers((s, Locale) -> new MappingJackson2JsonView())
@@ -88,6 +166,32 @@ public class ElectronicControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void whenPOSTBatchIsCalledThenCreatedAndRejectedElectronicsAreReturned() throws Exception {
+        // given
+        ElectronicDTO electronicDTO = ElectronicDTOBuilder.builder().build().toElectronicDTO();
+        ElectronicDTO duplicatedElectronicDTO = ElectronicDTOBuilder.builder().build().toElectronicDTO();
+        BatchCreationResultDTO result = BatchCreationResultDTO.builder()
+                .created(Collections.singletonList(electronicDTO))
+                .rejected(Collections.singletonList(RejectedElectronicDTO.builder()
+                        .index(1)
+                        .name(duplicatedElectronicDTO.getName())
+                        .reason("duplicated")
+                        .build()))
+                .build();
+
+        //when
+        when(electronicService.createElectronics(List.of(electronicDTO, duplicatedElectronicDTO))).thenReturn(result);
+
+        // then
+        mockMvc.perform(post(ELECTRONIC_API_URL_PATH + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(List.of(electronicDTO, duplicatedElectronicDTO))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created[0].name", is(electronicDTO.getName())))
+                .andExpect(jsonPath("$.rejected[0].index", is(1)));
+    }
+
     @Test
     void whenGETIsCalledWithValidNameThenOkStatusIsReturned() throws Exception {
         // given
@@ -105,6 +209,59 @@ public class ElectronicControllerTest {
                 .andExpect(jsonPath("$.type", is(electronicDTO.getType().toString())));
     }
 
+    @Test
+    void whenGETIsCalledThenCatalogVersionIsReturnedAsETag() throws Exception {
+        // given
+        ElectronicDTO electronicDTO = ElectronicDTOBuilder.builder().build().toElectronicDTO();
+
+        //when
+        when(electronicService.findByName(electronicDTO.getName())).thenReturn(electronicDTO);
+
+        // then
+        mockMvc.perform(MockMvcRequestBuilders.get(ELECTRONIC_API_URL_PATH + "/" + electronicDTO.getName()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, catalogVersion.etag()));
+    }
+
+    @Test
+    void whenGETIsCalledWithCurrentETagThenNotModifiedIsReturnedWithoutQuerying() throws Exception {
+        // given
+        ElectronicDTO electronicDTO = ElectronicDTOBuilder.builder().build().toElectronicDTO();
+
+        // then
+        mockMvc.perform(MockMvcRequestBuilders.get(ELECTRONIC_API_URL_PATH + "/" + electronicDTO.getName())
+                        .header(HttpHeaders.IF_NONE_MATCH, catalogVersion.etag()))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(MockMvcRequestBuilders.get(ELECTRONIC_API_URL_PATH)
+                        .param("unpaged", "true")
+                        .header(HttpHeaders.IF_NONE_MATCH, catalogVersion.etag()))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(MockMvcRequestBuilders.get(ELECTRONIC_API_URL_PATH)
+                        .header(HttpHeaders.IF_NONE_MATCH, catalogVersion.etag()))
+                .andExpect(status().isNotModified());
+        verifyNoInteractions(electronicService);
+    }
+
+    @Test
+    void whenGETIsCalledWithETagOfAnOlderCatalogThenOkStatusIsReturned() throws Exception {
+        // given
+        ElectronicDTO electronicDTO = ElectronicDTOBuilder.builder().build().toElectronicDTO();
+        String staleETag = catalogVersion.etag();
+        catalogVersion.onElectronicChanged(new ElectronicChangedEvent(ElectronicChangeType.UPDATED, electronicDTO));
+
+        //when
+        when(electronicService.listAll()).thenReturn(Collections.singletonList(electronicDTO));
+
+        // then
+        mockMvc.perform(MockMvcRequestBuilders.get(ELECTRONIC_API_URL_PATH)
+                        .param("unpaged", "true")
+                        .header(HttpHeaders.IF_NONE_MATCH, staleETag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, catalogVersion.etag()))
+                .andExpect(jsonPath("$[0].name", is(electronicDTO.getName())));
+    }
+
     @Test
     void whenGETIsCalledWithoutRegisteredNameThenNotFoundStatusIsReturned() throws Exception {
         // given
@@ -129,6 +286,7 @@ public class ElectronicControllerTest {
 
         // then
         mockMvc.perform(MockMvcRequestBuilders.get(ELECTRONIC_API_URL_PATH)
+                        .param("unpaged", "true")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].name", is(electronicDTO.getName())))
@@ -146,10 +304,263 @@ public class ElectronicControllerTest {
 
         // then
         mockMvc.perform(MockMvcRequestBuilders.get(ELECTRONIC_API_URL_PATH)
+                        .param("unpaged", "true")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void whenGETListAcceptsGzipThenTheGzippedSnapshotIsReturned() throws Exception {
+        // given
+        ElectronicDTO electronicDTO = ElectronicDTOBuilder.builder().build().toElectronicDTO();
+
+        //when
+        when(electronicService.listAll()).thenReturn(Collections.singletonList(electronicDTO));
+
+        // then
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get(ELECTRONIC_API_URL_PATH)
+                        .param("unpaged", "true")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "br;q=1.0, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, CatalogSnapshot.GZIP))
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT_ENCODING)))
+                .andExpect(header().string(HttpHeaders.ETAG, catalogVersion.etag(CatalogSnapshot.GZIP)))
+                .andReturn();
+        try (GZIPInputStream gzipInputStream = new GZIPInputStream(new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            ElectronicDTO[] electronics = objectMapper.readValue(gzipInputStream, ElectronicDTO[].class);
+            assertThat(electronics[0], is(electronicDTO));
+        }
+    }
+
+    @Test
+    void whenGETAcceptsCborThenElectronicIsReturnedAsCbor() throws Exception {
+        // given
+        ElectronicDTO electronicDTO = ElectronicDTOBuilder.builder().build().toElectronicDTO();
+
+        //when
+        when(electronicService.findByName(electronicDTO.getName())).thenReturn(electronicDTO);
+
+        // then
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get(ELECTRONIC_API_URL_PATH + "/" + electronicDTO.getName())
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string(HttpHeaders.ETAG, catalogVersion.etag(WireFormat.CBOR.getVariant())))
+                .andReturn();
+        assertThat(new CBORMapper().readValue(result.getResponse().getContentAsByteArray(), ElectronicDTO.class), is(electronicDTO));
+    }
+
+    @Test
+    void whenPOSTIsCalledWithCborThenElectronicIsCreated() throws Exception {
+        // given
+        ElectronicDTO electronicDTO = ElectronicDTOBuilder.builder().build().toElectronicDTO();
+
+        //when
+        when(electronicService.createElectronic(electronicDTO)).thenReturn(electronicDTO);
+
+        // then
+        mockMvc.perform(post(ELECTRONIC_API_URL_PATH)
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .content(new CBORMapper().writeValueAsBytes(electronicDTO)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.name", is(electronicDTO.getName())));
+    }
+
+    @Test
+    void whenGETListAcceptsSmileThenTheSnapshotIsTranscoded() throws Exception {
+        // given
+        ElectronicDTO electronicDTO = ElectronicDTOBuilder.builder().build().toElectronicDTO();
+
+        //when
+        when(electronicService.listAll()).thenReturn(Collections.singletonList(electronicDTO));
+
+        // then
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get(ELECTRONIC_API_URL_PATH)
+                        .param("unpaged", "true")
+                        .header(HttpHeaders.ACCEPT, "application/json;q=0.5, application/x-jackson-smile")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(WireFormat.SMILE.getMediaType()))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(header().string(HttpHeaders.ETAG, catalogVersion.etag(WireFormat.SMILE.getVariant())))
+                .andReturn();
+        ElectronicDTO[] electronics = new SmileMapper().readValue(result.getResponse().getContentAsByteArray(), ElectronicDTO[].class);
+        assertThat(electronics[0], is(electronicDTO));
+    }
+
+    @Test
+    void whenGETListAcceptsNoSupportedFormatThenNotAcceptableIsReturned() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get(ELECTRONIC_API_URL_PATH)
+                        .param("unpaged", "true")
+                        .accept(MediaType.APPLICATION_XML))
+                .andExpect(status().isNotAcceptable());
+        verifyNoInteractions(electronicService);
+    }
+
+    @Test
+    void whenGETPageIsCalledThenContentAndNextCursorAreReturned() throws Exception {
+        // given
+        ElectronicDTO electronicDTO = ElectronicDTOBuilder.builder().build().toElectronicDTO();
+        ElectronicPageDTO page = ElectronicPageDTO.builder()
+                .content(Collections.singletonList(electronicDTO))
+                .nextCursor(electronicDTO.getId())
+                .build();
+
+        //when
+        when(electronicService.listPage(ElectronicFilterDTO.builder().type(ElectronicType.TV).brand("Samsung").build(), null, 1)).thenReturn(page);
+
+        // then
+        mockMvc.perform(MockMvcRequestBuilders.get(ELECTRONIC_API_URL_PATH)
+                        .param("limit", "1")
+                        .param("type", "TV")
+                        .param("brand", "Samsung")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name", is(electronicDTO.getName())))
+                .andExpect(jsonPath("$.nextCursor", is(electronicDTO.getId().intValue())));
+    }
+
+    @Test
+    void whenGETStatsIsCalledThenStockPerTypeAndBrandIsReturned() throws Exception {
+        // given
+        ElectronicStatsDTO stats = ElectronicStatsDTO.builder()
+                .byType(Collections.singletonList(new StockStatsDTO("TV", 2L, 25L, 100L)))
+                .byBrand(Collections.singletonList(new StockStatsDTO("Samsung", 2L, 25L, 100L)))
+                .build();
+
+        //when
+        when(electronicService.getStats()).thenReturn(stats);
+
+        // then
+        mockMvc.perform(MockMvcRequestBuilders.get(ELECTRONIC_API_URL_PATH + "/stats")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.byType[0].group", is("TV")))
+                .andExpect(jsonPath("$.byType[0].fillRatio", is(0.25)))
+                .andExpect(jsonPath("$.byBrand[0].skuCount", is(2)));
+    }
+
+    @Test
+    void whenGETSearchIsCalledThenMatchesOfTheRequestedTypeAreReturned() throws Exception {
+        // given
+        ElectronicDTO electronicDTO = ElectronicDTOBuilder.builder().build().toElectronicDTO();
+
+        //when
+        when(electronicSearchIndex.search("sam", ElectronicType.TV, 5)).thenReturn(Collections.singletonList(electronicDTO));
+
+        // then
+        mockMvc.perform(MockMvcRequestBuilders.get(ELECTRONIC_API_URL_PATH + "/search")
+                        .param("q", "sam")
+                        .param("type", "TV")
+                        .param("limit", "5")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", is(electronicDTO.getName())));
+    }
+
+    @Test
+    void whenGETSearchIsCalledWithoutQueryThenBadRequestIsReturned() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get(ELECTRONIC_API_URL_PATH + "/search")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void whenGETLowStockIsCalledWithoutThresholdThenTheConfiguredThresholdIsUsed() throws Exception {
+        // given
+        ElectronicDTO electronicDTO = ElectronicDTOBuilder.builder().build().toElectronicDTO();
+
+        //when
+        when(lowStockIndex.getThreshold()).thenReturn(0.2);
+        when(lowStockIndex.lowStock(0.2, 100)).thenReturn(Collections.singletonList(electronicDTO));
+
+        // then
+        mockMvc.perform(MockMvcRequestBuilders.get(ELECTRONIC_API_URL_PATH + "/low-stock")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", is(electronicDTO.getName())));
+    }
+
+    @Test
+    void whenGETLowStockIsCalledWithThresholdThenItOverridesTheConfiguredOne() throws Exception {
+        //when
+        when(lowStockIndex.lowStock(0.5, 10)).thenReturn(Collections.emptyList());
+
+        // then
+        mockMvc.perform(MockMvcRequestBuilders.get(ELECTRONIC_API_URL_PATH + "/low-stock")
+                        .param("threshold", "0.5")
+                        .param("limit", "10")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(0)));
+    }
+
+    @Test
+    void whenGETExportIsCalledThenElectronicsAreStreamedAsNdjson() throws Exception {
+        // given
+        ElectronicDTO electronicDTO = ElectronicDTOBuilder.builder().build().toElectronicDTO();
+
+        //when
+        doAnswer(invocation -> {
+            Consumer<ElectronicDTO> consumer = invocation.getArgument(0);
+            consumer.accept(electronicDTO);
+            consumer.accept(electronicDTO);
+            return null;
+        }).when(electronicService).exportAll(any());
+
+        // then
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.get(ELECTRONIC_API_URL_PATH + "/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(asJsonString(electronicDTO) + "\n" + asJsonString(electronicDTO) + "\n"));
+    }
+
+    @Test
+    void whenCsvIsImportedThenRejectedRowsAndSummaryAreStreamed() throws Exception {
+        // given
+        MockMultipartFile file = new MockMultipartFile("file", "catalog.csv", "text/csv",
+                "name,brand,max,quantity,type\nTv Samsung,Samsung,10,5,TV\n,Samsung,10,5,TV\n".getBytes(StandardCharsets.UTF_8));
+        RejectedElectronicDTO rejectedElectronic = RejectedElectronicDTO.builder()
+                .index(3)
+                .reason("name must not be null")
+                .build();
+
+        //when
+        when(electronicImportService.importElectronics(any(ElectronicCsvReader.class), any())).thenAnswer(invocation -> {
+            Consumer<List<RejectedElectronicDTO>> consumer = invocation.getArgument(1);
+            consumer.accept(Collections.singletonList(rejectedElectronic));
+            return new ElectronicImportResultDTO(2, 1, 1);
+        });
+
+        // then
+        MvcResult mvcResult = mockMvc.perform(multipart(ELECTRONIC_API_URL_PATH + "/import").file(file))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.rejected[0].index", is(3)))
+                .andExpect(jsonPath("$.rejected[0].reason", is("name must not be null")))
+                .andExpect(jsonPath("$.summary.rows", is(2)))
+                .andExpect(jsonPath("$.summary.imported", is(1)))
+                .andExpect(jsonPath("$.summary.rejected", is(1)));
+    }
+
+    @Test
+    void whenCsvHeaderMissesColumnsThenBadRequestIsReturned() throws Exception {
+        // given
+        MockMultipartFile file = new MockMultipartFile("file", "catalog.csv", "text/csv",
+                "name,brand\nTv Samsung,Samsung\n".getBytes(StandardCharsets.UTF_8));
+
+        // then
+        mockMvc.perform(multipart(ELECTRONIC_API_URL_PATH + "/import").file(file))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(electronicImportService);
+    }
+
     @Test
     void whenDELETEIsCalledWithValidIdThenNoContentStatusIsReturned() throws Exception {
         // given
@@ -195,4 +606,211 @@ public class ElectronicControllerTest {
                 .andExpect(jsonPath("$.quantity", is(electronicDTO.getQuantity())));
     }
 
+    @Test
+    void whenPATCHIncrementIsRetriedWithTheSameIdempotencyKeyThenStockIsIncrementedOnce() throws Exception {
+        // given
+        QuantityDTO quantityDTO = QuantityDTO.builder()
+                .quantity(10)
+                .build();
+        ElectronicDTO electronicDTO = ElectronicDTOBuilder.builder().build().toElectronicDTO();
+        electronicDTO.setQuantity(electronicDTO.getQuantity() + quantityDTO.getQuantity());
+        when(electronicService.increment(VALID_ELECTRONIC_ID, quantityDTO.getQuantity())).thenReturn(electronicDTO);
+
+        // when
+        for (int attempt = 0; attempt < 2; attempt++) {
+            mockMvc.perform(MockMvcRequestBuilders.patch(ELECTRONIC_API_URL_PATH + "/" + VALID_ELECTRONIC_ID + ELECTRONIC_API_SUBPATH_INCREMENT_URL)
+                            .header(IdempotentRequests.IDEMPOTENCY_KEY, "increment-1")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(asJsonString(quantityDTO)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.quantity", is(electronicDTO.getQuantity())));
+        }
+
+        // then
+        verify(electronicService, times(1)).increment(VALID_ELECTRONIC_ID, quantityDTO.getQuantity());
+    }
+
+    @Test
+    void whenPOSTReusesAnIdempotencyKeyForAnotherElectronicThenUnprocessableEntityIsReturned() throws Exception {
+        // given
+        ElectronicDTO electronicDTO = ElectronicDTOBuilder.builder().build().toElectronicDTO();
+        ElectronicDTO otherElectronicDTO = ElectronicDTOBuilder.builder().build().toElectronicDTO();
+        otherElectronicDTO.setName("Other " + electronicDTO.getName());
+        when(electronicService.createElectronic(electronicDTO)).thenReturn(electronicDTO);
+        mockMvc.perform(post(ELECTRONIC_API_URL_PATH)
+                        .header(IdempotentRequests.IDEMPOTENCY_KEY, "create-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(electronicDTO)))
+                .andExpect(status().isCreated());
+
+        // when
+        mockMvc.perform(post(ELECTRONIC_API_URL_PATH)
+                        .header(IdempotentRequests.IDEMPOTENCY_KEY, "create-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(otherElectronicDTO)))
+                .andExpect(status().isUnprocessableEntity());
+
+        // then
+        verify(electronicService, times(1)).createElectronic(any());
+    }
+
+    @Test
+    void whenPATCHIsCalledToDecrementThenOKstatusIsReturned() throws Exception {
+        DecrementRequestDTO decrementRequest = DecrementRequestDTO.builder()
+                .quantity(5)
+                .build();
+
+        ElectronicDTO electronicDTO = ElectronicDTOBuilder.builder().build().toElectronicDTO();
+        electronicDTO.setQuantity(electronicDTO.getQuantity() - decrementRequest.getQuantity());
+
+        when(electronicService.decrement(VALID_ELECTRONIC_ID, decrementRequest.getQuantity())).thenReturn(electronicDTO);
+
+        mockMvc.perform(MockMvcRequestBuilders.patch(ELECTRONIC_API_URL_PATH + "/" + VALID_ELECTRONIC_ID + ELECTRONIC_API_SUBPATH_DECREMENT_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(decrementRequest))).andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantity", is(electronicDTO.getQuantity())));
+    }
+
+    @Test
+    void whenPATCHIsCalledToDecrementMoreThanStockThenBadRequestIsReturned() throws Exception {
+        DecrementRequestDTO decrementRequest = DecrementRequestDTO.builder()
+                .quantity(50)
+                .build();
+
+        when(electronicService.decrement(VALID_ELECTRONIC_ID, decrementRequest.getQuantity())).thenThrow(ElectronicOutOfStockException.class);
+
+        mockMvc.perform(MockMvcRequestBuilders.patch(ELECTRONIC_API_URL_PATH + "/" + VALID_ELECTRONIC_ID + ELECTRONIC_API_SUBPATH_DECREMENT_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(decrementRequest)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void whenPATCHIsCalledToIncrementANegativeQuantityThenBadRequestIsReturned() throws Exception {
+        // given
+        QuantityDTO quantityDTO = QuantityDTO.builder()
+                .quantity(-10)
+                .build();
+
+        // then
+        mockMvc.perform(MockMvcRequestBuilders.patch(ELECTRONIC_API_URL_PATH + "/" + VALID_ELECTRONIC_ID + ELECTRONIC_API_SUBPATH_INCREMENT_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(quantityDTO)))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(electronicService);
+    }
+
+    @Test
+    void whenPATCHIsCalledToDecrementANegativeQuantityThenBadRequestIsReturned() throws Exception {
+        // given
+        DecrementRequestDTO decrementRequest = DecrementRequestDTO.builder()
+                .quantity(-50)
+                .build();
+
+        // then
+        mockMvc.perform(MockMvcRequestBuilders.patch(ELECTRONIC_API_URL_PATH + "/" + VALID_ELECTRONIC_ID + ELECTRONIC_API_SUBPATH_DECREMENT_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(decrementRequest)))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(electronicService);
+    }
+
+    @Test
+    void whenPOSTReservationIsCalledThenTheReservationIsCreated() throws Exception {
+        // given
+        ReservationRequestDTO reservationRequest = ReservationRequestDTO.builder()
+                .quantity(2)
+                .build();
+        ReservationDTO reservationDTO = ReservationDTO.builder()
+                .id("cart-1")
+                .electronicId(VALID_ELECTRONIC_ID)
+                .quantity(2)
+                .build();
+        when(electronicService.reserve(VALID_ELECTRONIC_ID, 2)).thenReturn(reservationDTO);
+
+        // then
+        mockMvc.perform(post(ELECTRONIC_API_URL_PATH + "/" + VALID_ELECTRONIC_ID + "/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(reservationRequest)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id", is("cart-1")))
+                .andExpect(jsonPath("$.quantity", is(2)));
+    }
+
+    @Test
+    void whenPOSTReservationIsCalledWithoutAPositiveQuantityThenBadRequestIsReturned() throws Exception {
+        // given
+        ReservationRequestDTO reservationRequest = ReservationRequestDTO.builder()
+                .quantity(0)
+                .build();
+
+        // then
+        mockMvc.perform(post(ELECTRONIC_API_URL_PATH + "/" + VALID_ELECTRONIC_ID + "/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(reservationRequest)))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(electronicService);
+    }
+
+    @Test
+    void whenAnExpiredReservationIsConfirmedOrReleasedThenNotFoundIsReturned() throws Exception {
+        // given
+        when(electronicService.confirmReservation("cart-1")).thenThrow(new ReservationNotFoundException("cart-1"));
+        doThrow(new ReservationNotFoundException("cart-1")).when(electronicService).releaseReservation("cart-1");
+
+        // then
+        mockMvc.perform(post(ELECTRONIC_API_URL_PATH + "/reservations/cart-1/confirm"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(MockMvcRequestBuilders.delete(ELECTRONIC_API_URL_PATH + "/reservations/cart-1"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void whenPATCHBulkIncrementIsRolledBackThenBadRequestWithItemResultsIsReturned() throws Exception {
+        StockAdjustmentRequestDTO adjustmentRequest = StockAdjustmentRequestDTO.builder()
+                .mode(AdjustmentMode.ALL_OR_NOTHING)
+                .adjustments(Collections.singletonList(new StockAdjustmentDTO(INVALID_ELECTRONIC_ID, 10)))
+                .build();
+        StockAdjustmentResultDTO result = StockAdjustmentResultDTO.builder()
+                .mode(AdjustmentMode.ALL_OR_NOTHING)
+                .failed(1)
+                .results(Collections.singletonList(new StockAdjustmentItemResultDTO(INVALID_ELECTRONIC_ID, 10, AdjustmentStatus.NOT_FOUND)))
+                .build();
+
+        when(electronicService.adjustStock(adjustmentRequest)).thenThrow(new StockAdjustmentRejectedException(result));
+
+        mockMvc.perform(MockMvcRequestBuilders.patch(ELECTRONIC_API_URL_PATH + ELECTRONIC_API_SUBPATH_INCREMENT_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(adjustmentRequest)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.failed", is(1)))
+                .andExpect(jsonPath("$.results[0].status", is(AdjustmentStatus.NOT_FOUND.toString())));
+    }
+
+    @Test
+    void whenPATCHBulkIncrementHasAZeroAdjustmentThenBadRequestIsReturned() throws Exception {
+        StockAdjustmentRequestDTO adjustmentRequest = StockAdjustmentRequestDTO.builder()
+                .mode(AdjustmentMode.BEST_EFFORT)
+                .adjustments(List.of(new StockAdjustmentDTO(VALID_ELECTRONIC_ID, 10), new StockAdjustmentDTO(INVALID_ELECTRONIC_ID, 0)))
+                .build();
+
+        mockMvc.perform(MockMvcRequestBuilders.patch(ELECTRONIC_API_URL_PATH + ELECTRONIC_API_SUBPATH_INCREMENT_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(adjustmentRequest)))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(electronicService);
+    }
+
+    @Test
+    void whenPATCHBulkIncrementIsCalledWithoutModeThenBadRequestIsReturned() throws Exception {
+        StockAdjustmentRequestDTO adjustmentRequest = StockAdjustmentRequestDTO.builder()
+                .adjustments(Collections.singletonList(new StockAdjustmentDTO(VALID_ELECTRONIC_ID, 10)))
+                .build();
+
+        mockMvc.perform(MockMvcRequestBuilders.patch(ELECTRONIC_API_URL_PATH + ELECTRONIC_API_SUBPATH_INCREMENT_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(adjustmentRequest)))
+                .andExpect(status().isBadRequest());
+    }
+
 }
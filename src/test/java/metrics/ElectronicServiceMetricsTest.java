@@ -0,0 +1,98 @@
+package metrics;
+
+import com.dititalinnovation.buymore.BuymoreApplication;
+import com.dititalinnovation.buymore.entity.Electronic;
+import com.dititalinnovation.buymore.enums.ElectronicType;
+import com.dititalinnovation.buymore.exception.ElectronicNotFoundException;
+import com.dititalinnovation.buymore.metrics.ElectronicServiceMetrics;
+import com.dititalinnovation.buymore.metrics.StockGauges;
+import com.dititalinnovation.buymore.repository.ElectronicRepository;
+import com.dititalinnovation.buymore.service.ElectronicService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = BuymoreApplication.class, properties = "buymore.hibernate.statistics=true")
+@AutoConfigureMetrics
+@AutoConfigureMockMvc
+public class ElectronicServiceMetricsTest {
+
+    @Autowired
+    private ElectronicService electronicService;
+
+    @Autowired
+    private ElectronicRepository electronicRepository;
+
+    @Autowired
+    private StockGauges stockGauges;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @AfterEach
+    void tearDown() {
+        electronicRepository.deleteAll();
+    }
+
+    @Test
+    void whenServiceThrowsDomainExceptionThenItIsCountedAndTimed() {
+        assertThrows(ElectronicNotFoundException.class, () -> electronicService.findByName("Missing Electronic"));
+
+        double notFound = meterRegistry.get(ElectronicServiceMetrics.ERROR_COUNTER)
+                .tag("exception", "ElectronicNotFoundException")
+                .counter()
+                .count();
+        long timedCalls = meterRegistry.get(ElectronicServiceMetrics.SERVICE_TIMER)
+                .tag("method", "findByName")
+                .tag("exception", "ElectronicNotFoundException")
+                .timer()
+                .count();
+        assertThat(notFound, is(greaterThanOrEqualTo(1.0)));
+        assertThat(timedCalls, is(greaterThanOrEqualTo(1L)));
+    }
+
+    @Test
+    void whenGaugesAreRefreshedThenStockPerTypeIsPublished() throws Exception {
+        electronicRepository.save(new Electronic(null, "Scanner Metrics", "HP", 40, 12, ElectronicType.SCANNER));
+
+        stockGauges.refresh();
+
+        double scannerStock = meterRegistry.get("buymore.electronic.stock.quantity").tag("type", "SCANNER").gauge().value();
+        assertThat(scannerStock, is(equalTo(12.0)));
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("buymore_electronic_stock_skus{type=\"SCANNER\",} 1.0")))
+                .andExpect(content().string(containsString("buymore_electronic_service_seconds_bucket")));
+    }
+
+    @Test
+    void whenElectronicsAreReadThenSecondLevelCacheStatisticsArePublished() throws Exception {
+        Electronic electronic = electronicRepository.save(new Electronic(null, "Tablet Metrics", "Apple", 40, 12, ElectronicType.TABLET));
+
+        electronicRepository.findById(electronic.getId());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("hibernate_second_level_cache_requests_total{entityManagerFactory=\"entityManagerFactory\",region=\"electronic\",result=\"hit\",}")))
+                .andExpect(content().string(containsString("hibernate_cache_query_requests_total")));
+    }
+
+}
@@ -0,0 +1,69 @@
+package repository;
+
+import com.dititalinnovation.buymore.BuymoreApplication;
+import com.dititalinnovation.buymore.entity.Electronic;
+import com.dititalinnovation.buymore.enums.ElectronicType;
+import com.dititalinnovation.buymore.repository.ElectronicIdSequenceMigration;
+import com.dititalinnovation.buymore.repository.ElectronicRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+
+@SpringBootTest(classes = BuymoreApplication.class)
+public class ElectronicIdSequenceMigrationTest {
+
+    @Autowired
+    private ElectronicIdSequenceMigration electronicIdSequenceMigration;
+
+    @Autowired
+    private ElectronicRepository electronicRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        electronicRepository.deleteAll();
+    }
+
+    @Test
+    void whenAnIdIsPastTheSequenceThenTheSequenceIsRestartedPastIt() {
+        // given
+        long highestId = currentValue() + 10_000;
+        jdbcTemplate.update("insert into electronic (id, name, brand, max, quantity, type, version) values (?, 'Tv Identity', 'Samsung', 50, 10, 'TV', 0)", highestId);
+
+        // when
+        electronicIdSequenceMigration.restartPastHighestId();
+
+        // then
+        long nextValue = jdbcTemplate.queryForObject("select next value for " + Electronic.ID_SEQUENCE, Long.class);
+        assertThat(nextValue - Electronic.ID_ALLOCATION_SIZE + 1, is(greaterThan(highestId)));
+    }
+
+    @Test
+    void whenTheSequenceIsPastEveryIdThenItIsLeftAlone() {
+        // given
+        electronicRepository.save(new Electronic(null, "Tv Sequence", "Samsung", 50, 10, ElectronicType.TV));
+        electronicIdSequenceMigration.restartPastHighestId();
+        long currentValue = currentValue();
+
+        // when
+        electronicIdSequenceMigration.restartPastHighestId();
+
+        // then
+        assertThat(currentValue(), is(equalTo(currentValue)));
+    }
+
+    private long currentValue() {
+        return jdbcTemplate.queryForObject("select current_value from information_schema.sequences where sequence_name = ?",
+                Long.class, Electronic.ID_SEQUENCE.toUpperCase());
+    }
+
+}
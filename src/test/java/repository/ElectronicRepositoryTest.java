@@ -0,0 +1,104 @@
+package repository;
+
+import com.dititalinnovation.buymore.BuymoreApplication;
+import com.dititalinnovation.buymore.dto.ElectronicDTO;
+import com.dititalinnovation.buymore.dto.ElectronicFilterDTO;
+import com.dititalinnovation.buymore.dto.StockStatsDTO;
+import com.dititalinnovation.buymore.entity.Electronic;
+import com.dititalinnovation.buymore.enums.ElectronicType;
+import com.dititalinnovation.buymore.repository.ElectronicRepository;
+import com.dititalinnovation.buymore.repository.ElectronicSpecifications;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+@SpringBootTest(classes = BuymoreApplication.class)
+public class ElectronicRepositoryTest {
+
+    @Autowired
+    private ElectronicRepository electronicRepository;
+
+    @BeforeEach
+    void setUp() {
+        electronicRepository.saveAll(List.of(
+                new Electronic(null, "Tv Samsung 50", "Samsung", 100, 10, ElectronicType.TV),
+                new Electronic(null, "Tv LG 43", "LG", 100, 60, ElectronicType.TV),
+                new Electronic(null, "Notebook Samsung", "Samsung", 100, 30, ElectronicType.NOTEBOOK),
+                new Electronic(null, "Tv Samsung 65", "Samsung", 100, 40, ElectronicType.TV)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        electronicRepository.deleteAll();
+    }
+
+    @Test
+    void whenFilteringByTypeAndBrandThenOnlyMatchingElectronicsAreReturnedInIdOrder() {
+        ElectronicFilterDTO filter = ElectronicFilterDTO.builder().type(ElectronicType.TV).brand("Samsung").build();
+
+        List<ElectronicDTO> page = electronicRepository.findPage(ElectronicSpecifications.matching(filter), 10);
+
+        assertThat(names(page), contains("Tv Samsung 50", "Tv Samsung 65"));
+    }
+
+    @Test
+    void whenFilteringByQuantityRangeAfterCursorThenPageStartsAfterCursor() {
+        ElectronicFilterDTO filter = ElectronicFilterDTO.builder().minQuantity(20).maxQuantity(60).build();
+        List<ElectronicDTO> firstPage = electronicRepository.findPage(ElectronicSpecifications.matching(filter), 1);
+
+        List<ElectronicDTO> secondPage = electronicRepository.findPage(ElectronicSpecifications.matching(filter)
+                .and(ElectronicSpecifications.idAfter(firstPage.get(0).getId())), 10);
+
+        assertThat(names(firstPage), contains("Tv LG 43"));
+        assertThat(names(secondPage), contains("Notebook Samsung", "Tv Samsung 65"));
+    }
+
+    @Test
+    void whenStockIsSummarizedByBrandThenTotalsAndFillRatioAreComputedInTheDatabase() {
+        List<StockStatsDTO> byBrand = electronicRepository.summarizeStockByBrand();
+
+        assertThat(byBrand, contains(
+                new StockStatsDTO("LG", 1L, 60L, 100L),
+                new StockStatsDTO("Samsung", 3L, 80L, 300L)));
+    }
+
+    @Test
+    void whenStockIsSummarizedByTypeThenEachTypeHasItsOwnGroup() {
+        List<StockStatsDTO> byType = electronicRepository.summarizeStockByType();
+
+        assertThat(byType, containsInAnyOrder(
+                new StockStatsDTO("TV", 3L, 110L, 300L),
+                new StockStatsDTO("NOTEBOOK", 1L, 30L, 100L)));
+    }
+
+    @Test
+    void whenProjectingByNameThenTheRowIsReturnedAsDTO() {
+        ElectronicDTO electronicDTO = electronicRepository.findProjectedByName("Tv LG 43").orElseThrow();
+
+        assertThat(electronicDTO, is(equalTo(new ElectronicDTO(electronicDTO.getId(), "Tv LG 43", "LG", 100, 60, ElectronicType.TV))));
+        assertThat(electronicRepository.findProjectedByName("Missing").isPresent(), is(false));
+    }
+
+    @Test
+    void whenProjectingAllThenEveryRowIsReturnedInIdOrder() {
+        List<ElectronicDTO> electronics = electronicRepository.findAllProjected();
+
+        assertThat(names(electronics), contains("Tv Samsung 50", "Tv LG 43", "Notebook Samsung", "Tv Samsung 65"));
+    }
+
+    private List<String> names(List<ElectronicDTO> electronics) {
+        return electronics.stream().map(ElectronicDTO::getName).collect(Collectors.toList());
+    }
+
+}
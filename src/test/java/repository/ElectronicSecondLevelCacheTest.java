@@ -0,0 +1,101 @@
+package repository;
+
+import com.dititalinnovation.buymore.BuymoreApplication;
+import com.dititalinnovation.buymore.entity.Electronic;
+import com.dititalinnovation.buymore.enums.ElectronicType;
+import com.dititalinnovation.buymore.repository.ElectronicRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+@SpringBootTest(classes = BuymoreApplication.class, properties = "buymore.hibernate.statistics=true")
+public class ElectronicSecondLevelCacheTest {
+
+    private static final int READS = 5;
+
+    @Autowired
+    private ElectronicRepository electronicRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+    private Electronic electronic;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        electronic = electronicRepository.save(new Electronic(null, "Tv Cached", "Samsung", 100, 10, ElectronicType.TV));
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        electronicRepository.deleteAll();
+    }
+
+    @Test
+    void whenTheSameIdIsReadRepeatedlyThenOnlyTheFirstReadHitsTheDatabase() {
+        // when
+        for (int i = 0; i < READS; i++) {
+            electronicRepository.findById(electronic.getId()).orElseThrow();
+        }
+
+        // then
+        assertThat(statistics.getPrepareStatementCount(), equalTo(1L));
+        assertThat(statistics.getSecondLevelCacheHitCount(), equalTo((long) READS - 1));
+    }
+
+    @Test
+    void whenTheSameNameIsReadRepeatedlyThenOnlyTheFirstReadHitsTheDatabase() {
+        // when
+        for (int i = 0; i < READS; i++) {
+            electronicRepository.findByName(electronic.getName()).orElseThrow();
+        }
+
+        // then
+        assertThat(statistics.getPrepareStatementCount(), equalTo(1L));
+        assertThat(statistics.getQueryCacheHitCount(), equalTo((long) READS - 1));
+    }
+
+    @Test
+    void whenStockIsIncrementedOutsideHibernateThenTheCachedRowIsEvicted() {
+        // given
+        electronicRepository.findById(electronic.getId()).orElseThrow();
+
+        // when
+        electronicRepository.incrementQuantity(electronic.getId(), 5);
+
+        // then
+        assertThat(electronicRepository.findById(electronic.getId()).orElseThrow().getQuantity(), equalTo(15));
+    }
+
+    @Test
+    void whenAnOldRowWasCachedAfterTheEvictionThenTheFreshReadReplacesIt() {
+        // given
+        electronicRepository.findById(electronic.getId()).orElseThrow();
+        jdbcTemplate.update("update electronic set quantity = quantity + 5, version = version + 1 where id = ?", electronic.getId());
+
+        // when
+        Electronic freshElectronic = electronicRepository.findFreshById(electronic.getId()).orElseThrow();
+
+        // then
+        assertThat(freshElectronic.getQuantity(), equalTo(15));
+        assertThat(electronicRepository.findById(electronic.getId()).orElseThrow().getQuantity(), equalTo(15));
+    }
+
+}
@@ -0,0 +1,180 @@
+package service;
+
+import builder.ElectronicDTOBuilder;
+import com.dititalinnovation.buymore.dto.ElectronicDTO;
+import com.dititalinnovation.buymore.enums.ElectronicChangeType;
+import com.dititalinnovation.buymore.enums.WireFormat;
+import com.dititalinnovation.buymore.event.ElectronicChangedEvent;
+import com.dititalinnovation.buymore.service.CatalogSnapshot;
+import com.dititalinnovation.buymore.service.CatalogVersion;
+import com.dititalinnovation.buymore.service.ElectronicService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CatalogSnapshotTest {
+
+    @Mock
+    private ElectronicService electronicService;
+
+    private final CatalogVersion catalogVersion = new CatalogVersion();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private CatalogSnapshot catalogSnapshot;
+
+    @BeforeEach
+    void setUp() {
+        catalogSnapshot = new CatalogSnapshot(electronicService, catalogVersion, objectMapper, Duration.ofSeconds(2));
+    }
+
+    @AfterEach
+    void tearDown() {
+        catalogSnapshot.shutdown();
+    }
+
+    @Test
+    void whenCatalogIsUnchangedThenTheSameSnapshotIsServedWithoutQuerying() throws Exception {
+        // given
+        ElectronicDTO electronicDTO = ElectronicDTOBuilder.builder().build().toElectronicDTO();
+
+        // when
+        when(electronicService.listAll()).thenReturn(Collections.singletonList(electronicDTO));
+        CatalogSnapshot.Snapshot first = catalogSnapshot.current();
+        CatalogSnapshot.Snapshot second = catalogSnapshot.current();
+
+        // then
+        assertThat(second, is(sameInstance(first)));
+        verify(electronicService, times(1)).listAll();
+        assertThat(objectMapper.readValue(first.getJson(), ElectronicDTO[].class)[0], is(equalTo(electronicDTO)));
+        try (GZIPInputStream gzipInputStream = new GZIPInputStream(new ByteArrayInputStream(first.getGzip()))) {
+            assertThat(objectMapper.readValue(gzipInputStream, ElectronicDTO[].class)[0], is(equalTo(electronicDTO)));
+        }
+    }
+
+    @Test
+    void whenBinaryFormatIsRequestedThenTheJsonBytesAreTranscodedOnce() throws Exception {
+        // given
+        ElectronicDTO electronicDTO = ElectronicDTOBuilder.builder().build().toElectronicDTO();
+        when(electronicService.listAll()).thenReturn(Collections.singletonList(electronicDTO));
+        CatalogSnapshot.Snapshot snapshot = catalogSnapshot.current();
+
+        // when
+        byte[] cbor = snapshot.body(WireFormat.CBOR);
+
+        // then
+        assertThat(snapshot.body(WireFormat.CBOR), is(sameInstance(cbor)));
+        assertThat(snapshot.body(WireFormat.JSON), is(sameInstance(snapshot.getJson())));
+        assertThat(new CBORMapper().readValue(cbor, ElectronicDTO[].class)[0], is(equalTo(electronicDTO)));
+        assertThat(new SmileMapper().readValue(snapshot.body(WireFormat.SMILE), ElectronicDTO[].class)[0], is(equalTo(electronicDTO)));
+    }
+
+    @Test
+    void whenCatalogChangesThenTheSnapshotIsRebuiltInTheBackground() {
+        // given
+        ElectronicDTO electronicDTO = ElectronicDTOBuilder.builder().build().toElectronicDTO();
+        when(electronicService.listAll()).thenReturn(Collections.singletonList(electronicDTO));
+        CatalogSnapshot.Snapshot first = catalogSnapshot.current();
+
+        // when
+        ElectronicChangedEvent event = new ElectronicChangedEvent(ElectronicChangeType.UPDATED, electronicDTO);
+        catalogVersion.onElectronicChanged(event);
+        catalogSnapshot.onElectronicChanged(event);
+
+        // then
+        verify(electronicService, timeout(5000).times(2)).listAll();
+        CatalogSnapshot.Snapshot second = catalogSnapshot.awaitCurrent();
+        assertThat(second, is(not(sameInstance(first))));
+        assertThat(second.getVersion(), is(equalTo(catalogVersion.current())));
+        verify(electronicService, times(2)).listAll();
+    }
+
+    @Test
+    void whenSnapshotIsBehindTheCatalogThenItIsServedWhileRebuildingInTheBackground() {
+        // given
+        ElectronicDTO electronicDTO = ElectronicDTOBuilder.builder().build().toElectronicDTO();
+        when(electronicService.listAll()).thenReturn(Collections.singletonList(electronicDTO));
+        CatalogSnapshot.Snapshot first = catalogSnapshot.current();
+
+        // when
+        catalogVersion.onElectronicChanged(new ElectronicChangedEvent(ElectronicChangeType.DELETED, electronicDTO));
+        CatalogSnapshot.Snapshot served = catalogSnapshot.current();
+
+        // then
+        assertThat(served.getVersion(), is(equalTo(first.getVersion())));
+        verify(electronicService, timeout(5000).times(2)).listAll();
+        assertThat(catalogSnapshot.awaitCurrent().getVersion(), is(equalTo(first.getVersion() + 1)));
+    }
+
+    @Test
+    void whenAFreshSnapshotIsAwaitedThenItWaitsForTheRebuildAtMostTheFreshWait() {
+        // given
+        catalogSnapshot = new CatalogSnapshot(electronicService, catalogVersion, objectMapper, Duration.ofMillis(50));
+        ElectronicDTO electronicDTO = ElectronicDTOBuilder.builder().build().toElectronicDTO();
+        CountDownLatch rebuildReleased = new CountDownLatch(1);
+        when(electronicService.listAll())
+                .thenReturn(Collections.singletonList(electronicDTO))
+                .thenAnswer(invocation -> {
+                    rebuildReleased.await(5, TimeUnit.SECONDS);
+                    return Collections.singletonList(electronicDTO);
+                });
+        CatalogSnapshot.Snapshot first = catalogSnapshot.current();
+        catalogVersion.onElectronicChanged(new ElectronicChangedEvent(ElectronicChangeType.UPDATED, electronicDTO));
+
+        // when
+        CatalogSnapshot.Snapshot awaited = catalogSnapshot.awaitCurrent();
+        rebuildReleased.countDown();
+
+        // then
+        assertThat(awaited, is(sameInstance(first)));
+        verify(electronicService, timeout(5000).times(2)).listAll();
+    }
+
+    @Test
+    void whenAcceptIsNegotiatedThenJsonWinsTiesAndUnsupportedTypesAreRefused() {
+        assertThat(WireFormat.negotiate(null), is(Optional.of(WireFormat.JSON)));
+        assertThat(WireFormat.negotiate("*/*"), is(Optional.of(WireFormat.JSON)));
+        assertThat(WireFormat.negotiate("application/cbor, */*;q=0.1"), is(Optional.of(WireFormat.CBOR)));
+        assertThat(WireFormat.negotiate("application/json;q=0.2, application/x-jackson-smile"), is(Optional.of(WireFormat.SMILE)));
+        assertThat(WireFormat.negotiate("application/json;q=0, */*"), is(Optional.of(WireFormat.CBOR)));
+        assertThat(WireFormat.negotiate("application/*;q=0, */*"), is(Optional.empty()));
+        assertThat(WireFormat.negotiate("*/*;q=0, application/cbor"), is(Optional.of(WireFormat.CBOR)));
+        assertThat(WireFormat.negotiate("text/html"), is(Optional.empty()));
+        assertThat(WireFormat.negotiate("not a media type"), is(Optional.empty()));
+    }
+
+    @Test
+    void whenAcceptEncodingIsParsedThenGzipIsOnlyAcceptedWhenAdmitted() {
+        assertThat(CatalogSnapshot.acceptsGzip("gzip, deflate, br"), is(true));
+        assertThat(CatalogSnapshot.acceptsGzip("br;q=1.0, GZIP;q=0.5"), is(true));
+        assertThat(CatalogSnapshot.acceptsGzip("*"), is(true));
+        assertThat(CatalogSnapshot.acceptsGzip("gzip;q=0, identity"), is(false));
+        assertThat(CatalogSnapshot.acceptsGzip("identity"), is(false));
+        assertThat(CatalogSnapshot.acceptsGzip(null), is(false));
+    }
+
+}
@@ -0,0 +1,97 @@
+package service;
+
+import com.dititalinnovation.buymore.enums.ElectronicType;
+import com.dititalinnovation.buymore.exception.InvalidCsvException;
+import com.dititalinnovation.buymore.service.ElectronicCsvReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ElectronicCsvReaderTest {
+
+    @Test
+    void whenColumnsAreReorderedAndQuotedThenRowsAreReadByHeaderName() throws Exception {
+        // given
+        String csv = "\uFEFFType,quantity,id,Name,brand,max\r\n" +
+                "tv,5,99,\"Tv \"\"Smart\"\", 55\",Samsung,10\r\n" +
+                "\r\n" +
+                "NOTEBOOK,3,,\"Notebook\nDell\",Dell,20\r\n";
+
+        // when
+        try (ElectronicCsvReader csvReader = open(csv)) {
+            ElectronicCsvReader.Row tv = csvReader.next();
+            ElectronicCsvReader.Row notebook = csvReader.next();
+
+            // then
+            assertThat(tv.getError(), is(nullValue()));
+            assertThat(tv.getLine(), is(equalTo(2)));
+            assertThat(tv.getElectronic().getName(), is(equalTo("Tv \"Smart\", 55")));
+            assertThat(tv.getElectronic().getType(), is(equalTo(ElectronicType.TV)));
+            assertThat(tv.getElectronic().getMax(), is(equalTo(10)));
+            assertThat(tv.getElectronic().getId(), is(nullValue()));
+            assertThat(notebook.getLine(), is(equalTo(4)));
+            assertThat(notebook.getElectronic().getName(), is(equalTo("Notebook\nDell")));
+            assertThat(csvReader.next(), is(nullValue()));
+        }
+    }
+
+    @Test
+    void whenFieldsCannotBeConvertedThenTheRowCarriesTheError() throws Exception {
+        // given
+        String csv = "name,brand,max,quantity,type\nTv,Samsung,ten,5,RADIO\nTablet,Apple\n";
+
+        // when
+        try (ElectronicCsvReader csvReader = open(csv)) {
+            ElectronicCsvReader.Row unconvertible = csvReader.next();
+            ElectronicCsvReader.Row truncated = csvReader.next();
+
+            // then
+            assertThat(unconvertible.getError(), containsString("max is not a whole number"));
+            assertThat(unconvertible.getError(), containsString("type must be one of"));
+            assertThat(truncated.getError(), is(nullValue()));
+            assertThat(truncated.getElectronic().getQuantity(), is(nullValue()));
+        }
+    }
+
+    @Test
+    void whenARecordHasTooManyFieldsThenItIsRejectedAndReadingCarriesOn() throws Exception {
+        // given
+        String csv = "name,brand,max,quantity,type\n" +
+                "Tv,Samsung,10,5,TV" + ",".repeat(100_000) + "\n" +
+                "Tablet,Apple,20,5,TABLET\n";
+
+        // when
+        try (ElectronicCsvReader csvReader = open(csv)) {
+            ElectronicCsvReader.Row flooded = csvReader.next();
+            ElectronicCsvReader.Row tablet = csvReader.next();
+
+            // then
+            assertThat(flooded.getError(), containsString("more than 64 fields"));
+            assertThat(flooded.getElectronic(), is(nullValue()));
+            assertThat(tablet.getLine(), is(equalTo(3)));
+            assertThat(tablet.getError(), is(nullValue()));
+            assertThat(tablet.getElectronic().getName(), is(equalTo("Tablet")));
+        }
+    }
+
+    @Test
+    void whenHeaderMissesColumnsThenTheFileIsRefused() {
+        InvalidCsvException missingColumns = assertThrows(InvalidCsvException.class, () -> open("name,brand,max\nTv,Samsung,10\n"));
+        assertThat(missingColumns.getMessage(), containsString("[quantity, type]"));
+        assertThrows(InvalidCsvException.class, () -> open(""));
+    }
+
+    private ElectronicCsvReader open(String csv) throws IOException, InvalidCsvException {
+        return ElectronicCsvReader.open(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+}
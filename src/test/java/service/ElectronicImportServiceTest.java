@@ -0,0 +1,110 @@
+package service;
+
+import com.dititalinnovation.buymore.BuymoreApplication;
+import com.dititalinnovation.buymore.dto.ElectronicImportResultDTO;
+import com.dititalinnovation.buymore.dto.RejectedElectronicDTO;
+import com.dititalinnovation.buymore.entity.Electronic;
+import com.dititalinnovation.buymore.enums.ElectronicType;
+import com.dititalinnovation.buymore.repository.ElectronicRepository;
+import com.dititalinnovation.buymore.service.CatalogVersion;
+import com.dititalinnovation.buymore.service.ElectronicCsvReader;
+import com.dititalinnovation.buymore.service.ElectronicImportService;
+import com.dititalinnovation.buymore.service.ElectronicSearchIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Batches of three rows, so duplicates are exercised both inside one batch and across batches.
+ */
+@SpringBootTest(classes = BuymoreApplication.class, properties = "buymore.import.batch-size=3")
+public class ElectronicImportServiceTest {
+
+    @Autowired
+    private ElectronicImportService electronicImportService;
+
+    @Autowired
+    private ElectronicRepository electronicRepository;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private ElectronicSearchIndex electronicSearchIndex;
+
+    @AfterEach
+    void tearDown() {
+        electronicRepository.deleteAll();
+    }
+
+    @Test
+    void whenCsvIsImportedThenValidRowsAreInsertedAndTheOthersReportedPerBatch() throws Exception {
+        // given
+        electronicRepository.save(new Electronic(null, "Tv Registered", "Samsung", 50, 10, ElectronicType.TV));
+        String csv = "name,brand,max,quantity,type\n" +
+                "Tv Imported,Samsung,50,10,TV\n" +
+                "Tv Registered,Samsung,50,10,TV\n" +
+                "Tv Imported,LG,50,10,TV\n" +
+                "Notebook Imported,Dell,20,5,NOTEBOOK\n" +
+                "Tablet Invalid,Apple,900,5,TABLET\n" +
+                "Tv Imported,Philips,50,10,TV\n" +
+                "Desktop Imported,HP,10,not a number,DESKTOP\n";
+        List<List<RejectedElectronicDTO>> batches = new ArrayList<>();
+
+        // when
+        ElectronicImportResultDTO result;
+        try (ElectronicCsvReader csvReader = ElectronicCsvReader.open(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)))) {
+            result = electronicImportService.importElectronics(csvReader, batches::add);
+        }
+
+        // then
+        assertThat(result, is(equalTo(new ElectronicImportResultDTO(7, 2, 5))));
+        assertThat(batches, hasSize(3));
+        List<RejectedElectronicDTO> rejected = batches.stream().flatMap(List::stream).collect(Collectors.toList());
+        assertThat(rejected.stream().map(RejectedElectronicDTO::getIndex).collect(Collectors.toList()), contains(3, 4, 6, 7, 8));
+        assertThat(rejected.get(0).getReason(), containsString("already registered"));
+        assertThat(rejected.get(1).getReason(), containsString("duplicated in the file"));
+        assertThat(rejected.get(2).getReason(), containsString("max"));
+        assertThat(rejected.get(3).getReason(), containsString("already registered"));
+        assertThat(rejected.get(4).getReason(), containsString("quantity is not a whole number"));
+        assertThat(electronicRepository.findAll().stream().map(Electronic::getName).collect(Collectors.toList()),
+                containsInAnyOrder("Tv Registered", "Tv Imported", "Notebook Imported"));
+    }
+
+    @Test
+    void whenBatchesAreImportedThenEachIsPublishedAsOneChange() throws Exception {
+        // given
+        String csv = "name,brand,max,quantity,type\n" +
+                "Tv Batched,Samsung,50,10,TV\n" +
+                "Notebook Batched,Dell,20,5,NOTEBOOK\n" +
+                "Tablet Batched,Apple,30,5,TABLET\n" +
+                "Desktop Batched,HP,10,2,DESKTOP\n";
+        long versionBeforeImport = catalogVersion.current();
+
+        // when
+        try (ElectronicCsvReader csvReader = ElectronicCsvReader.open(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)))) {
+            electronicImportService.importElectronics(csvReader, batch -> {
+            });
+        }
+
+        // then
+        assertThat(catalogVersion.current(), is(equalTo(versionBeforeImport + 2)));
+        assertThat(electronicSearchIndex.search("desktop batched", null, 10), hasSize(1));
+    }
+
+}
@@ -0,0 +1,205 @@
+package service;
+
+import com.dititalinnovation.buymore.dto.ElectronicDTO;
+import com.dititalinnovation.buymore.enums.ElectronicChangeType;
+import com.dititalinnovation.buymore.enums.ElectronicType;
+import com.dititalinnovation.buymore.event.ElectronicChangedEvent;
+import com.dititalinnovation.buymore.repository.ElectronicRepository;
+import com.dititalinnovation.buymore.service.ElectronicSearchIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ElectronicSearchIndexTest {
+
+    @Mock
+    private ElectronicRepository electronicRepository;
+
+    private ElectronicSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        searchIndex = new ElectronicSearchIndex(electronicRepository, new SimpleMeterRegistry());
+        searchIndex.load(Stream.of(
+                electronic(1L, "Galaxy S21", "Samsung", ElectronicType.NOTEBOOK),
+                electronic(2L, "Galaxy Tab S7", "Samsung", ElectronicType.TABLET),
+                electronic(3L, "QLED Smart TV", "Samsung", ElectronicType.TV),
+                electronic(4L, "OLED TV", "LG", ElectronicType.TV),
+                electronic(5L, "Télévision Galaxy", "Sony", ElectronicType.TV)));
+    }
+
+    @Test
+    void whenNamesStartWithTheQueryThenTheyComeFirstInNameOrder() {
+        // when
+        List<ElectronicDTO> results = searchIndex.search("gal", null, 10);
+
+        // then
+        assertThat(ids(results), contains(1L, 2L, 5L));
+    }
+
+    @Test
+    void whenEveryQueryWordStartsAWordOfNameOrBrandThenTheElectronicMatches() {
+        // when
+        List<ElectronicDTO> results = searchIndex.search("samsung tv", null, 10);
+
+        // then
+        assertThat(ids(results), contains(3L));
+    }
+
+    @Test
+    void whenTheQueryHasATypoThenSimilarWordsMatch() {
+        // when
+        List<ElectronicDTO> results = searchIndex.search("samsnug galaxy", null, 10);
+
+        // then
+        assertThat(ids(results), contains(1L, 2L));
+    }
+
+    @Test
+    void whenTheQueryHasAccentsOrPunctuationThenTheyAreIgnored() {
+        // when
+        List<ElectronicDTO> results = searchIndex.search("TELEVISION, galaxy!", null, 10);
+
+        // then
+        assertThat(ids(results), contains(5L));
+    }
+
+    @Test
+    void whenATypeIsGivenThenOnlyElectronicsOfThatTypeAreReturned() {
+        // when
+        List<ElectronicDTO> results = searchIndex.search("galaxy", ElectronicType.TABLET, 10);
+
+        // then
+        assertThat(ids(results), contains(2L));
+    }
+
+    @Test
+    void whenMoreElectronicsMatchThanTheLimitThenOnlyTheLimitIsReturned() {
+        // when
+        List<ElectronicDTO> results = searchIndex.search("samsung", null, 2);
+
+        // then
+        assertThat(results.size(), is(2));
+    }
+
+    @Test
+    void whenElectronicsChangeThenSearchFollowsWithoutReadingTheCatalog() {
+        // given
+        ElectronicDTO restocked = electronic(1L, "Galaxy S21", "Samsung", ElectronicType.NOTEBOOK);
+        restocked.setQuantity(42);
+
+        // when
+        searchIndex.onElectronicChanged(new ElectronicChangedEvent(ElectronicChangeType.UPDATED, restocked));
+        searchIndex.onElectronicChanged(new ElectronicChangedEvent(ElectronicChangeType.UPDATED, electronic(2L, "Pixel Tablet", "Google", ElectronicType.TABLET)));
+        searchIndex.onElectronicChanged(new ElectronicChangedEvent(ElectronicChangeType.DELETED, electronic(5L, "Télévision Galaxy", "Sony", ElectronicType.TV)));
+        searchIndex.onElectronicChanged(new ElectronicChangedEvent(ElectronicChangeType.CREATED, electronic(6L, "Galaxy Watch", "Samsung", ElectronicType.NOTEBOOK)));
+
+        // then
+        List<ElectronicDTO> results = searchIndex.search("galaxy", null, 10);
+        assertThat(ids(results), contains(1L, 6L));
+        assertThat(results.get(0).getQuantity(), is(42));
+        assertThat(ids(searchIndex.search("pixel", null, 10)), contains(2L));
+        verifyNoInteractions(electronicRepository);
+    }
+
+    @Test
+    void whenAChangeArrivesAfterANewerOneThenItIsDropped() {
+        // given
+        ElectronicDTO restocked = versioned(electronic(1L, "Galaxy S21", "Samsung", ElectronicType.NOTEBOOK), 3L);
+        restocked.setQuantity(42);
+        ElectronicDTO renamed = versioned(electronic(1L, "Galaxy S20", "Samsung", ElectronicType.NOTEBOOK), 2L);
+
+        // when
+        searchIndex.onElectronicChanged(new ElectronicChangedEvent(ElectronicChangeType.UPDATED, restocked));
+        searchIndex.onElectronicChanged(new ElectronicChangedEvent(ElectronicChangeType.UPDATED, renamed));
+
+        // then
+        List<ElectronicDTO> results = searchIndex.search("galaxy s2", null, 10);
+        assertThat(ids(results), contains(1L));
+        assertThat(results.get(0).getName(), is("Galaxy S21"));
+        assertThat(results.get(0).getQuantity(), is(42));
+    }
+
+    @Test
+    void whenAChangeCommittedBeforeADeletionArrivesAfterItThenTheElectronicStaysDeleted() {
+        // when
+        searchIndex.onElectronicChanged(new ElectronicChangedEvent(ElectronicChangeType.DELETED, versioned(electronic(1L, "Galaxy S21", "Samsung", ElectronicType.NOTEBOOK), 4L)));
+        searchIndex.onElectronicChanged(new ElectronicChangedEvent(ElectronicChangeType.UPDATED, versioned(electronic(1L, "Galaxy S21", "Samsung", ElectronicType.NOTEBOOK), 3L)));
+
+        // then
+        assertThat(ids(searchIndex.search("galaxy", null, 10)), contains(2L, 5L));
+    }
+
+    @Test
+    void whenNothingMatchesThenNoElectronicIsReturned() {
+        // when
+        List<ElectronicDTO> results = searchIndex.search("xyz", null, 10);
+
+        // then
+        assertThat(results, is(empty()));
+        assertThat(searchIndex.search(" ?! ", null, 10), is(empty()));
+    }
+
+    @Test
+    void whenLoadedFromTheRepositoryThenElectronicsDeletedMeanwhileAreSkipped() {
+        // given
+        ElectronicSearchIndex loadingIndex = new ElectronicSearchIndex(electronicRepository, new SimpleMeterRegistry());
+        loadingIndex.onElectronicChanged(new ElectronicChangedEvent(ElectronicChangeType.DELETED, electronic(1L, "Galaxy S21", "Samsung", ElectronicType.NOTEBOOK)));
+        when(electronicRepository.streamAllProjected()).thenReturn(Stream.of(
+                electronic(1L, "Galaxy S21", "Samsung", ElectronicType.NOTEBOOK),
+                electronic(2L, "Galaxy Tab S7", "Samsung", ElectronicType.TABLET)));
+
+        // when
+        loadingIndex.load();
+
+        // then
+        assertThat(ids(loadingIndex.search("galaxy", null, 10)), contains(2L));
+    }
+
+    @Test
+    void whenMostEntriesAreDeadThenSearchStillFindsTheLiveOnes() {
+        // given
+        for (long id = 100; id < 5100; id++) {
+            searchIndex.onElectronicChanged(new ElectronicChangedEvent(ElectronicChangeType.CREATED, electronic(id, "Cable " + id, "Acme", ElectronicType.TV)));
+        }
+
+        // when
+        for (long id = 100; id < 5000; id++) {
+            searchIndex.onElectronicChanged(new ElectronicChangedEvent(ElectronicChangeType.DELETED, electronic(id, "Cable " + id, "Acme", ElectronicType.TV)));
+        }
+
+        // then
+        assertThat(searchIndex.search("acme", null, 100).size(), is(100));
+        assertThat(searchIndex.search("cable 5099", null, 10).get(0).getId(), is(5099L));
+        assertThat(ids(searchIndex.search("galaxy", ElectronicType.TABLET, 10)), contains(2L));
+    }
+
+    private static List<Long> ids(List<ElectronicDTO> electronicDTOs) {
+        return electronicDTOs.stream().map(ElectronicDTO::getId).collect(Collectors.toList());
+    }
+
+    private static ElectronicDTO electronic(Long id, String name, String brand, ElectronicType type) {
+        return new ElectronicDTO(id, name, brand, 100, 10, type);
+    }
+
+    private static ElectronicDTO versioned(ElectronicDTO electronicDTO, Long version) {
+        electronicDTO.setVersion(version);
+        return electronicDTO;
+    }
+
+}
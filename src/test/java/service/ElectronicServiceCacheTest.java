@@ -0,0 +1,115 @@
+package service;
+
+import com.dititalinnovation.buymore.BuymoreApplication;
+import com.dititalinnovation.buymore.config.CacheConfig;
+import com.dititalinnovation.buymore.dto.ElectronicDTO;
+import com.dititalinnovation.buymore.entity.Electronic;
+import com.dititalinnovation.buymore.enums.ElectronicType;
+import com.dititalinnovation.buymore.exception.ElectronicNotFoundException;
+import com.dititalinnovation.buymore.repository.ElectronicRepository;
+import com.dititalinnovation.buymore.service.ElectronicService;
+import com.dititalinnovation.buymore.service.ElectronicsByName;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(classes = BuymoreApplication.class)
+public class ElectronicServiceCacheTest {
+
+    @Autowired
+    private ElectronicService electronicService;
+
+    @Autowired
+    private ElectronicRepository electronicRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ElectronicsByName cachedElectronics;
+
+    private Cache electronicsByName;
+
+    private Electronic electronic;
+
+    @BeforeEach
+    void setUp() {
+        electronicsByName = cacheManager.getCache(CacheConfig.ELECTRONICS_BY_NAME);
+        electronicsByName.clear();
+        electronic = electronicRepository.save(new Electronic(null, "Tablet Cached", "Apple", 50, 10, ElectronicType.TABLET));
+    }
+
+    @AfterEach
+    void tearDown() {
+        electronicRepository.deleteAll();
+    }
+
+    @Test
+    void whenNameIsFoundTwiceThenSecondLookupIsServedFromCache() throws Exception {
+        ElectronicDTO firstLookup = electronicService.findByName(electronic.getName());
+        ElectronicDTO secondLookup = electronicService.findByName(electronic.getName());
+
+        assertThat(secondLookup, is(sameInstance(firstLookup)));
+        assertThat(electronicsByName.get(electronic.getName()), is(notNullValue()));
+    }
+
+    @Test
+    void whenIncrementIsCalledThenCachedElectronicIsEvicted() throws Exception {
+        electronicService.findByName(electronic.getName());
+
+        electronicService.increment(electronic.getId(), 5);
+
+        assertThat(electronicsByName.get(electronic.getName()), is(nullValue()));
+        assertThat(electronicService.findByName(electronic.getName()).getQuantity(), is(equalTo(15)));
+    }
+
+    @Test
+    void whenDeleteIsCalledThenCachedElectronicIsEvicted() throws Exception {
+        electronicService.findByName(electronic.getName());
+
+        electronicService.deleteById(electronic.getId());
+
+        assertThat(electronicsByName.get(electronic.getName()), is(nullValue()));
+    }
+
+    @Test
+    void whenAWriteCommitsWhileTheNameIsLookedUpThenWhatTheLookupReadIsNotCached() throws Exception {
+        // given
+        long evictionsBeforeLookup = cachedElectronics.evictions();
+        ElectronicDTO readBeforeWrite = electronicService.findByName(electronic.getName());
+        electronicsByName.clear();
+
+        // when
+        electronicService.increment(electronic.getId(), 5);
+        cachedElectronics.put(electronic.getName(), evictionsBeforeLookup, readBeforeWrite);
+
+        // then
+        assertThat(electronicsByName.get(electronic.getName()), is(nullValue()));
+        assertThat(electronicService.findByName(electronic.getName()).getQuantity(), is(equalTo(15)));
+    }
+
+    @Test
+    void whenAMissingNameIsLookedUpAgainThenTheRememberedMissAnswersUntilTheNameIsCreated() throws Exception {
+        ElectronicNotFoundException firstMiss = assertThrows(ElectronicNotFoundException.class, () -> electronicService.findByName("Tablet Missing"));
+        ElectronicNotFoundException secondMiss = assertThrows(ElectronicNotFoundException.class, () -> electronicService.findByName("Tablet Missing"));
+
+        assertThat(secondMiss, is(sameInstance(firstMiss)));
+
+        electronicService.createElectronic(new ElectronicDTO(null, "Tablet Missing", "Apple", 50, 10, ElectronicType.TABLET));
+
+        assertThat(electronicService.findByName("Tablet Missing").getBrand(), is(equalTo("Apple")));
+    }
+
+}
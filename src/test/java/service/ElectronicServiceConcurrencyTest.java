@@ -0,0 +1,155 @@
+package service;
+
+import com.dititalinnovation.buymore.BuymoreApplication;
+import com.dititalinnovation.buymore.entity.Electronic;
+import com.dititalinnovation.buymore.enums.ElectronicType;
+import com.dititalinnovation.buymore.exception.BuyMoreExceededException;
+import com.dititalinnovation.buymore.exception.ElectronicOutOfStockException;
+import com.dititalinnovation.buymore.repository.ElectronicRepository;
+import com.dititalinnovation.buymore.service.ElectronicService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+@SpringBootTest(classes = BuymoreApplication.class)
+public class ElectronicServiceConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private ElectronicService electronicService;
+
+    @Autowired
+    private ElectronicRepository electronicRepository;
+
+    @AfterEach
+    void tearDown() {
+        electronicRepository.deleteAll();
+    }
+
+    @Test
+    void whenManyThreadsIncrementTheSameElectronicThenNoUpdateIsLost() throws Exception {
+        // given
+        Electronic electronic = electronicRepository.save(new Electronic(null, "Tv Concurrent", "Samsung", 500, 0, ElectronicType.TV));
+        int incrementsPerThread = 25;
+
+        // when
+        AtomicInteger exceeded = hammer(electronic.getId(), THREADS * incrementsPerThread);
+
+        // then
+        Electronic incrementedElectronic = electronicRepository.findById(electronic.getId()).orElseThrow();
+        assertThat(incrementedElectronic.getQuantity(), equalTo(THREADS * incrementsPerThread));
+        assertThat(exceeded.get(), equalTo(0));
+    }
+
+    @Test
+    void whenManyThreadsIncrementPastMaxThenStockStopsExactlyAtMax() throws Exception {
+        // given
+        Electronic electronic = electronicRepository.save(new Electronic(null, "Notebook Concurrent", "Dell", 100, 0, ElectronicType.NOTEBOOK));
+        int increments = 300;
+
+        // when
+        AtomicInteger exceeded = hammer(electronic.getId(), increments);
+
+        // then
+        Electronic incrementedElectronic = electronicRepository.findById(electronic.getId()).orElseThrow();
+        assertThat(incrementedElectronic.getQuantity(), equalTo(100));
+        assertThat(exceeded.get(), equalTo(increments - 100));
+    }
+
+    @Test
+    void whenManyThreadsDecrementPastZeroThenStockStopsExactlyAtZero() throws Exception {
+        // given
+        Electronic electronic = electronicRepository.save(new Electronic(null, "Tablet Concurrent", "Apple", 100, 80, ElectronicType.TABLET));
+        int decrements = 200;
+
+        // when
+        AtomicInteger outOfStock = hammer(decrements, () -> {
+            try {
+                electronicService.decrement(electronic.getId(), 1);
+                return false;
+            } catch (ElectronicOutOfStockException e) {
+                return true;
+            }
+        });
+
+        // then
+        Electronic decrementedElectronic = electronicRepository.findById(electronic.getId()).orElseThrow();
+        assertThat(decrementedElectronic.getQuantity(), equalTo(0));
+        assertThat(outOfStock.get(), equalTo(decrements - 80));
+    }
+
+    @Test
+    void whenIncrementsAndDecrementsRaceThenBothAreAccountedFor() throws Exception {
+        // given
+        Electronic electronic = electronicRepository.save(new Electronic(null, "Desktop Concurrent", "Lenovo", 500, 250, ElectronicType.DESKTOP));
+        AtomicInteger calls = new AtomicInteger();
+
+        // when
+        AtomicInteger rejected = hammer(200, () -> {
+            if (calls.incrementAndGet() % 2 == 0) {
+                electronicService.increment(electronic.getId(), 1);
+            } else {
+                electronicService.decrement(electronic.getId(), 1);
+            }
+            return false;
+        });
+
+        // then
+        Electronic updatedElectronic = electronicRepository.findById(electronic.getId()).orElseThrow();
+        assertThat(updatedElectronic.getQuantity(), equalTo(250));
+        assertThat(rejected.get(), equalTo(0));
+    }
+
+    private AtomicInteger hammer(Long id, int increments) throws Exception {
+        return hammer(increments, () -> {
+            try {
+                electronicService.increment(id, 1);
+                return false;
+            } catch (BuyMoreExceededException e) {
+                return true;
+            }
+        });
+    }
+
+    private AtomicInteger hammer(int calls, Callable<Boolean> call) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<Object>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < calls; i++) {
+                Callable<Object> task = () -> {
+                    start.await();
+                    if (call.call()) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                };
+                futures.add(executor.submit(task));
+            }
+            start.countDown();
+            for (Future<Object> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return rejected;
+    }
+
+}
@@ -1,26 +1,60 @@
 package service;
 
 import builder.ElectronicDTOBuilder;
+import com.dititalinnovation.buymore.dto.BatchCreationResultDTO;
 import com.dititalinnovation.buymore.dto.ElectronicDTO;
+import com.dititalinnovation.buymore.dto.ElectronicFilterDTO;
+import com.dititalinnovation.buymore.dto.ElectronicPageDTO;
+import com.dititalinnovation.buymore.dto.RejectedElectronicDTO;
+import com.dititalinnovation.buymore.dto.ReservationDTO;
 import com.dititalinnovation.buymore.entity.Electronic;
+import com.dititalinnovation.buymore.enums.ElectronicChangeType;
+import com.dititalinnovation.buymore.enums.ElectronicType;
+import com.dititalinnovation.buymore.event.ElectronicChangedEvent;
+import com.dititalinnovation.buymore.exception.BatchTooLargeException;
 import com.dititalinnovation.buymore.exception.BuyMoreExceededException;
 import com.dititalinnovation.buymore.exception.ElectronicAlreadyRegisteredException;
+import com.dititalinnovation.buymore.exception.ElectronicConcurrentUpdateException;
 import com.dititalinnovation.buymore.exception.ElectronicNotFoundException;
+import com.dititalinnovation.buymore.exception.ElectronicOutOfStockException;
+import com.dititalinnovation.buymore.exception.InvalidQuantityException;
+import com.dititalinnovation.buymore.exception.ReservationNotFoundException;
 import com.dititalinnovation.buymore.mapper.ElectronicMapper;
 import com.dititalinnovation.buymore.repository.ElectronicRepository;
 import com.dititalinnovation.buymore.service.ElectronicService;
+import com.dititalinnovation.buymore.service.ElectronicsByName;
+import com.dititalinnovation.buymore.service.MissingElectronicNames;
+import com.dititalinnovation.buymore.service.SingleFlight;
+import com.dititalinnovation.buymore.service.StockIncrementCoalescer;
+import com.dititalinnovation.buymore.service.StockLockStripes;
+import com.dititalinnovation.buymore.service.StockReservations;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.hamcrest.MatcherAssert;
+import org.hibernate.exception.ConstraintViolationException;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.hamcrest.MatcherAssert.*;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -46,6 +80,33 @@ public class ElectronicServiceTest {
     @Mock
     private ElectronicRepository electronicRepository;
 
+    @Mock
+    private Validator validator;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private StockLockStripes stockLockStripes = new StockLockStripes(4);
+
+    @Mock
+    private StockIncrementCoalescer stockIncrementCoalescer;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private MissingElectronicNames missingElectronicNames;
+
+    @Mock
+    private ElectronicsByName electronicsByName;
+
+    @Spy
+    private SingleFlight singleFlight = new SingleFlight(new SimpleMeterRegistry());
+
+    @Spy
+    private StockReservations stockReservations = new StockReservations(Duration.ofMinutes(5), 100, 64, new SimpleMeterRegistry());
+
     private ElectronicMapper electronicMapper = ElectronicMapper.INSTANCE;
 
     @InjectMocks
@@ -67,6 +128,9 @@ public class ElectronicServiceTest {
         assertThat(createdElectronicDTO.getId(), is(equalTo(expectedElectronicDTO.getId())));
         assertThat(createdElectronicDTO.getName(), is(equalTo(expectedElectronicDTO.getName())));
         assertThat(createdElectronicDTO.getQuantity(), is(equalTo(expectedElectronicDTO.getQuantity())));
+        verify(eventPublisher).publishEvent(Mockito.<Object>argThat(event -> event instanceof ElectronicChangedEvent
+                && ((ElectronicChangedEvent) event).getType() == ElectronicChangeType.CREATED
+                && ((ElectronicChangedEvent) event).getElectronic().equals(createdElectronicDTO)));
     }
 
     @Test
@@ -82,14 +146,76 @@ public class ElectronicServiceTest {
         assertThrows(ElectronicAlreadyRegisteredException.class, () -> electronicService.createElectronic(expectedElectronicDTO));
     }
 
+    @Test
+    void whenElectronicListInformedThenNewOnesAreCreatedAndDuplicatesRejected() throws BatchTooLargeException, ElectronicAlreadyRegisteredException {
+        // given
+        ElectronicDTO newElectronicDTO = ElectronicDTOBuilder.builder().id(null).name("Notebook Dell").build().toElectronicDTO();
+        ElectronicDTO registeredElectronicDTO = ElectronicDTOBuilder.builder().id(null).build().toElectronicDTO();
+        ElectronicDTO repeatedElectronicDTO = ElectronicDTOBuilder.builder().id(null).name("Notebook Dell").build().toElectronicDTO();
+        Electronic expectedSavedElectronic = electronicMapper.toModel(newElectronicDTO);
+
+        // when
+        when(electronicRepository.findNamesByNameIn(List.of("Notebook Dell", "Tv Samsung"))).thenReturn(List.of("Tv Samsung"));
+        when(electronicRepository.saveAll(List.of(expectedSavedElectronic))).thenReturn(List.of(expectedSavedElectronic));
+
+        // then
+        BatchCreationResultDTO result = electronicService.createElectronics(List.of(newElectronicDTO, registeredElectronicDTO, repeatedElectronicDTO));
+
+        assertThat(result.getCreated(), contains(newElectronicDTO));
+        assertThat(result.getRejected().stream().map(RejectedElectronicDTO::getIndex).collect(Collectors.toList()), contains(1, 2));
+    }
+
+    @Test
+    void whenABatchNameIsRegisteredConcurrentlyThenTheBatchFailsAsAlreadyRegistered() {
+        // given
+        ElectronicDTO newElectronicDTO = ElectronicDTOBuilder.builder().id(null).name("Notebook Dell").build().toElectronicDTO();
+
+        // when
+        when(electronicRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        doThrow(violationOf("PUBLIC.UK_ELECTRONIC_NAME_INDEX_A ON PUBLIC.ELECTRONIC(NAME)")).when(electronicRepository).flush();
+
+        // then
+        assertThrows(ElectronicAlreadyRegisteredException.class, () -> electronicService.createElectronics(List.of(newElectronicDTO)));
+        verify(eventPublisher, never()).publishEvent(Mockito.any());
+    }
+
+    @Test
+    void whenAnotherConstraintIsViolatedThenItIsNotReportedAsAlreadyRegistered() {
+        // given
+        ElectronicDTO expectedElectronicDTO = ElectronicDTOBuilder.builder().build().toElectronicDTO();
+
+        // when
+        when(electronicRepository.save(Mockito.any(Electronic.class))).thenThrow(violationOf("PUBLIC.CONSTRAINT_9 ON PUBLIC.ELECTRONIC(TYPE)"));
+
+        // then
+        assertThrows(DataIntegrityViolationException.class, () -> electronicService.createElectronic(expectedElectronicDTO));
+    }
+
+    @Test
+    void whenInvalidElectronicIsInformedInBatchThenItIsRejectedWithoutLookup() throws BatchTooLargeException, ElectronicAlreadyRegisteredException {
+        // given
+        ElectronicDTO invalidElectronicDTO = ElectronicDTOBuilder.builder().build().toElectronicDTO();
+        invalidElectronicDTO.setBrand(null);
+        ConstraintViolation<ElectronicDTO> violation = mock(ConstraintViolation.class);
+
+        // when
+        when(validator.validate(invalidElectronicDTO)).thenReturn(Set.of(violation));
+
+        // then
+        BatchCreationResultDTO result = electronicService.createElectronics(List.of(invalidElectronicDTO));
+
+        assertThat(result.getCreated(), is(empty()));
+        assertThat(result.getRejected(), hasSize(1));
+        verify(electronicRepository, never()).findNamesByNameIn(anyCollection());
+    }
+
     @Test
     void whenValidBeerNameIsGivenThenReturnABeer() throws ElectronicNotFoundException {
         // given
         ElectronicDTO expectedFoundElectronicDTO = ElectronicDTOBuilder.builder().build().toElectronicDTO();
-        Electronic expectedFoundElectronic = electronicMapper.toModel(expectedFoundElectronicDTO);
 
         // when
-        when(electronicRepository.findByName(expectedFoundElectronic.getName())).thenReturn(Optional.of(expectedFoundElectronic));
+        when(electronicRepository.findProjectedByName(expectedFoundElectronicDTO.getName())).thenReturn(Optional.of(expectedFoundElectronicDTO));
 
         // then
         ElectronicDTO foundElectronicDTO = electronicService.findByName(expectedFoundElectronicDTO.getName());
@@ -103,20 +229,50 @@ public class ElectronicServiceTest {
         ElectronicDTO expectedFoundElectronicDTO = ElectronicDTOBuilder.builder().build().toElectronicDTO();
 
         // when
-        when(electronicRepository.findByName(expectedFoundElectronicDTO.getName())).thenReturn(Optional.empty());
+        when(electronicRepository.findProjectedByName(expectedFoundElectronicDTO.getName())).thenReturn(Optional.empty());
 
         // then
         assertThrows(ElectronicNotFoundException.class, () -> electronicService.findByName(expectedFoundElectronicDTO.getName()));
     }
 
+    @Test
+    void whenAMissingNameIsLookedUpThenTheMissIsRememberedWithAStacklessException() {
+        // given
+        ElectronicDTO missingElectronicDTO = ElectronicDTOBuilder.builder().build().toElectronicDTO();
+        when(missingElectronicNames.creations()).thenReturn(7L);
+
+        // when
+        when(electronicRepository.findProjectedByName(missingElectronicDTO.getName())).thenReturn(Optional.empty());
+
+        // then
+        ElectronicNotFoundException notFound = assertThrows(ElectronicNotFoundException.class, () -> electronicService.findByName(missingElectronicDTO.getName()));
+        assertThat(notFound.getStackTrace().length, is(0));
+        assertThat(notFound.getMessage(), is("Electronic with name Tv Samsung not found in the system."));
+        verify(missingElectronicNames).remember(missingElectronicDTO.getName(), 7L, notFound);
+    }
+
+    @Test
+    void whenANameIsKnownMissingThenItIsAnsweredWithoutAQuery() {
+        // given
+        ElectronicDTO missingElectronicDTO = ElectronicDTOBuilder.builder().build().toElectronicDTO();
+        ElectronicNotFoundException knownMissing = ElectronicNotFoundException.withoutStackTrace(missingElectronicDTO.getName());
+
+        // when
+        when(missingElectronicNames.get(missingElectronicDTO.getName())).thenReturn(knownMissing);
+
+        // then
+        ElectronicNotFoundException notFound = assertThrows(ElectronicNotFoundException.class, () -> electronicService.findByName(missingElectronicDTO.getName()));
+        assertThat(notFound, is(sameInstance(knownMissing)));
+        verify(electronicRepository, never()).findProjectedByName(missingElectronicDTO.getName());
+    }
+
     @Test
     void whenListElectronicIsCalledThenReturnAListOfElectronics() {
         // given
         ElectronicDTO expectedFoundElectronicDTO = ElectronicDTOBuilder.builder().build().toElectronicDTO();
-        Electronic expectedFoundElectronic = electronicMapper.toModel(expectedFoundElectronicDTO);
 
         //when
-        when(electronicRepository.findAll()).thenReturn(Collections.singletonList(expectedFoundElectronic));
+        when(electronicRepository.findAllProjected()).thenReturn(Collections.singletonList(expectedFoundElectronicDTO));
 
         //then
         List<ElectronicDTO> foundListBeersDTO = electronicService.listAll();
@@ -128,7 +284,7 @@ public class ElectronicServiceTest {
     @Test
     void whenListElectronicIsCalledThenReturnAnEmptyListOfElectronics() {
         //when
-        when(electronicRepository.findAll()).thenReturn(Collections.EMPTY_LIST);
+        when(electronicRepository.findAllProjected()).thenReturn(Collections.EMPTY_LIST);
 
         //then
         List<ElectronicDTO> foundListBeersDTO = electronicService.listAll();
@@ -136,6 +292,52 @@ public class ElectronicServiceTest {
         assertThat(foundListBeersDTO, is(empty()));
     }
 
+    @Test
+    void whenPageIsFullThenNextCursorPointsToItsLastElectronic() {
+        // given
+        ElectronicDTO firstElectronic = ElectronicDTOBuilder.builder().id(1L).build().toElectronicDTO();
+        ElectronicDTO secondElectronic = ElectronicDTOBuilder.builder().id(2L).build().toElectronicDTO();
+
+        //when
+        when(electronicRepository.findPage(any(), eq(2))).thenReturn(List.of(firstElectronic, secondElectronic));
+
+        //then
+        ElectronicPageDTO page = electronicService.listPage(new ElectronicFilterDTO(), null, 1);
+
+        assertThat(page.getContent(), hasSize(1));
+        assertThat(page.getNextCursor(), is(equalTo(1L)));
+    }
+
+    @Test
+    void whenLastPageIsListedThenNextCursorIsNull() {
+        // given
+        ElectronicDTO lastElectronic = ElectronicDTOBuilder.builder().id(5L).build().toElectronicDTO();
+
+        //when
+        when(electronicRepository.findPage(any(), eq(11))).thenReturn(List.of(lastElectronic));
+
+        //then
+        ElectronicPageDTO page = electronicService.listPage(ElectronicFilterDTO.builder().type(ElectronicType.TV).build(), 4L, 10);
+
+        assertThat(page.getContent(), hasSize(1));
+        assertThat(page.getNextCursor(), is(nullValue()));
+    }
+
+    @Test
+    void whenExportIsCalledThenEachElectronicIsHandedOver() {
+        // given
+        ElectronicDTO expectedElectronicDTO = ElectronicDTOBuilder.builder().build().toElectronicDTO();
+        List<ElectronicDTO> exportedElectronics = new ArrayList<>();
+
+        //when
+        when(electronicRepository.streamAllProjected()).thenReturn(Stream.of(expectedElectronicDTO));
+
+        //then
+        electronicService.exportAll(exportedElectronics::add);
+
+        assertThat(exportedElectronics, contains(expectedElectronicDTO));
+    }
+
     @Test
     void whenExclusionIsCalledWithValidIdThenAElectronicShouldBeDeleted() throws ElectronicNotFoundException{
         // given
@@ -154,23 +356,42 @@ public class ElectronicServiceTest {
     }
 
     @Test
-    void whenIncrementIsCalledThenIncrementBuyMore() throws ElectronicNotFoundException, BuyMoreExceededException {
-        //given
+    void whenAReservedElectronicIsDeletedThenItsReservationsAreReleased() throws Exception {
+        // given
         ElectronicDTO expectedElectronicDTO = ElectronicDTOBuilder.builder().build().toElectronicDTO();
         Electronic expectedElectronic = electronicMapper.toModel(expectedElectronicDTO);
-
-        //when
+        when(electronicRepository.findFreshById(expectedElectronicDTO.getId())).thenReturn(Optional.of(expectedElectronic));
         when(electronicRepository.findById(expectedElectronicDTO.getId())).thenReturn(Optional.of(expectedElectronic));
-        when(electronicRepository.save(expectedElectronic)).thenReturn(expectedElectronic);
+        ReservationDTO reservationDTO = electronicService.reserve(expectedElectronicDTO.getId(), 3);
+
+        // when
+        electronicService.deleteById(expectedElectronicDTO.getId());
+
+        // then
+        assertThat(stockReservations.held(expectedElectronicDTO.getId()), equalTo(0));
+        assertThrows(ReservationNotFoundException.class, () -> electronicService.releaseReservation(reservationDTO.getId()));
+    }
+
+    @Test
+    void whenIncrementIsCalledThenIncrementBuyMore() throws ElectronicNotFoundException, BuyMoreExceededException, InvalidQuantityException {
+        //given
+        ElectronicDTO expectedElectronicDTO = ElectronicDTOBuilder.builder().build().toElectronicDTO();
+        Electronic expectedElectronic = electronicMapper.toModel(expectedElectronicDTO);
 
         int quantityToIncrement = 10;
         int expectedQuantityAfterIncrement = expectedElectronicDTO.getQuantity() + quantityToIncrement;
+        expectedElectronic.setQuantity(expectedQuantityAfterIncrement);
+
+        //when
+        when(electronicRepository.incrementQuantity(expectedElectronicDTO.getId(), quantityToIncrement)).thenReturn(1);
+        when(electronicRepository.findFreshById(expectedElectronicDTO.getId())).thenReturn(Optional.of(expectedElectronic));
 
         // then
         ElectronicDTO incrementedElectronicDTO = electronicService.increment(expectedElectronicDTO.getId(), quantityToIncrement);
 
         assertThat(expectedQuantityAfterIncrement, equalTo(incrementedElectronicDTO.getQuantity()));
         assertThat(expectedQuantityAfterIncrement, lessThan(expectedElectronicDTO.getMax()));
+        verify(electronicRepository, never()).save(Mockito.any(Electronic.class));
     }
 
     @Test
@@ -178,9 +399,10 @@ public class ElectronicServiceTest {
         ElectronicDTO expectedElectronicDTO = ElectronicDTOBuilder.builder().build().toElectronicDTO();
         Electronic expectedElectronic = electronicMapper.toModel(expectedElectronicDTO);
 
+        int quantityToIncrement = 80;
+        when(electronicRepository.incrementQuantity(expectedElectronicDTO.getId(), quantityToIncrement)).thenReturn(0);
         when(electronicRepository.findById(expectedElectronicDTO.getId())).thenReturn(Optional.of(expectedElectronic));
 
-        int quantityToIncrement = 80;
         assertThrows(BuyMoreExceededException.class, () -> electronicService.increment(expectedElectronicDTO.getId(), quantityToIncrement));
     }
 
@@ -189,9 +411,10 @@ public class ElectronicServiceTest {
         ElectronicDTO expectedElectronicDTO = ElectronicDTOBuilder.builder().build().toElectronicDTO();
         Electronic expectedBeer = electronicMapper.toModel(expectedElectronicDTO);
 
+        int quantityToIncrement = 45;
+        when(electronicRepository.incrementQuantity(expectedElectronicDTO.getId(), quantityToIncrement)).thenReturn(0);
         when(electronicRepository.findById(expectedElectronicDTO.getId())).thenReturn(Optional.of(expectedBeer));
 
-        int quantityToIncrement = 45;
         assertThrows(BuyMoreExceededException.class, () -> electronicService.increment(expectedElectronicDTO.getId(), quantityToIncrement));
     }
 
@@ -199,9 +422,153 @@ public class ElectronicServiceTest {
     void whenIncrementIsCalledWithInvalidIdThenThrowException() {
         int quantityToIncrement = 10;
 
+        when(electronicRepository.incrementQuantity(INVALID_BEER_ID, quantityToIncrement)).thenReturn(0);
         when(electronicRepository.findById(INVALID_BEER_ID)).thenReturn(Optional.empty());
 
         assertThrows(ElectronicNotFoundException.class, () -> electronicService.increment(INVALID_BEER_ID, quantityToIncrement));
     }
 
+    @Test
+    void whenDecrementIsCalledThenStockIsTakenOut() throws Exception {
+        ElectronicDTO expectedElectronicDTO = ElectronicDTOBuilder.builder().build().toElectronicDTO();
+        Electronic expectedElectronic = electronicMapper.toModel(expectedElectronicDTO);
+
+        when(electronicRepository.findById(expectedElectronicDTO.getId())).thenReturn(Optional.of(expectedElectronic));
+        when(electronicRepository.save(expectedElectronic)).thenReturn(expectedElectronic);
+
+        ElectronicDTO decrementedElectronicDTO = electronicService.decrement(expectedElectronicDTO.getId(), 4);
+
+        assertThat(decrementedElectronicDTO.getQuantity(), equalTo(expectedElectronicDTO.getQuantity() - 4));
+    }
+
+    @Test
+    void whenDecrementIsGreatherThanStockThenThrowException() {
+        ElectronicDTO expectedElectronicDTO = ElectronicDTOBuilder.builder().build().toElectronicDTO();
+        Electronic expectedElectronic = electronicMapper.toModel(expectedElectronicDTO);
+
+        when(electronicRepository.findById(expectedElectronicDTO.getId())).thenReturn(Optional.of(expectedElectronic));
+
+        assertThrows(ElectronicOutOfStockException.class, () -> electronicService.decrement(expectedElectronicDTO.getId(), 11));
+        verify(electronicRepository, never()).save(Mockito.any(Electronic.class));
+    }
+
+    @Test
+    void whenDecrementIsNotPositiveThenThrowExceptionWithoutTouchingStock() {
+        assertThrows(InvalidQuantityException.class, () -> electronicService.decrement(INVALID_BEER_ID, -50));
+        assertThrows(InvalidQuantityException.class, () -> electronicService.decrement(INVALID_BEER_ID, 0));
+        verifyNoInteractions(electronicRepository);
+    }
+
+    @Test
+    void whenIncrementIsNotPositiveThenThrowExceptionWithoutTouchingStock() {
+        assertThrows(InvalidQuantityException.class, () -> electronicService.increment(INVALID_BEER_ID, -10));
+        assertThrows(InvalidQuantityException.class, () -> electronicService.increment(INVALID_BEER_ID, 0));
+        verifyNoInteractions(electronicRepository);
+    }
+
+    @Test
+    void whenDecrementConflictsThenItIsRetriedWithFreshStock() throws Exception {
+        ElectronicDTO expectedElectronicDTO = ElectronicDTOBuilder.builder().build().toElectronicDTO();
+        Electronic staleElectronic = electronicMapper.toModel(expectedElectronicDTO);
+        Electronic freshElectronic = electronicMapper.toModel(expectedElectronicDTO);
+        freshElectronic.setQuantity(8);
+
+        when(electronicRepository.findById(expectedElectronicDTO.getId())).thenReturn(Optional.of(staleElectronic), Optional.of(freshElectronic));
+        when(electronicRepository.save(staleElectronic)).thenThrow(new ObjectOptimisticLockingFailureException(Electronic.class, expectedElectronicDTO.getId()));
+        when(electronicRepository.save(freshElectronic)).thenReturn(freshElectronic);
+
+        ElectronicDTO decrementedElectronicDTO = electronicService.decrement(expectedElectronicDTO.getId(), 3);
+
+        assertThat(decrementedElectronicDTO.getQuantity(), equalTo(5));
+        verify(entityManager, times(1)).detach(staleElectronic);
+    }
+
+    @Test
+    void whenDecrementKeepsConflictingThenThrowException() {
+        ElectronicDTO expectedElectronicDTO = ElectronicDTOBuilder.builder().build().toElectronicDTO();
+
+        when(electronicRepository.findById(expectedElectronicDTO.getId())).thenAnswer(invocation -> Optional.of(electronicMapper.toModel(expectedElectronicDTO)));
+        when(electronicRepository.save(Mockito.any(Electronic.class))).thenThrow(new ObjectOptimisticLockingFailureException(Electronic.class, expectedElectronicDTO.getId()));
+
+        assertThrows(ElectronicConcurrentUpdateException.class, () -> electronicService.decrement(expectedElectronicDTO.getId(), 1));
+        verify(electronicRepository, times(ElectronicService.DECREMENT_MAX_ATTEMPTS)).findById(expectedElectronicDTO.getId());
+    }
+
+    @Test
+    void whenStockIsReservedThenItCanNeitherBeReservedAgainNorSold() throws Exception {
+        // given
+        ElectronicDTO expectedElectronicDTO = ElectronicDTOBuilder.builder().build().toElectronicDTO();
+        Electronic expectedElectronic = electronicMapper.toModel(expectedElectronicDTO);
+        when(electronicRepository.findById(expectedElectronicDTO.getId())).thenReturn(Optional.of(expectedElectronic));
+        when(electronicRepository.findFreshById(expectedElectronicDTO.getId())).thenReturn(Optional.of(expectedElectronic));
+
+        // when
+        electronicService.reserve(expectedElectronicDTO.getId(), expectedElectronicDTO.getQuantity() - 2);
+
+        // then
+        assertThrows(ElectronicOutOfStockException.class, () -> electronicService.reserve(expectedElectronicDTO.getId(), 3));
+        assertThrows(ElectronicOutOfStockException.class, () -> electronicService.decrement(expectedElectronicDTO.getId(), 3));
+        verify(electronicRepository, never()).save(Mockito.any(Electronic.class));
+    }
+
+    @Test
+    void whenReservationIsConfirmedThenItsQuantityIsTakenOutOfStock() throws Exception {
+        // given
+        ElectronicDTO expectedElectronicDTO = ElectronicDTOBuilder.builder().build().toElectronicDTO();
+        Electronic expectedElectronic = electronicMapper.toModel(expectedElectronicDTO);
+        when(electronicRepository.findById(expectedElectronicDTO.getId())).thenReturn(Optional.of(expectedElectronic));
+        when(electronicRepository.findFreshById(expectedElectronicDTO.getId())).thenReturn(Optional.of(expectedElectronic));
+        when(electronicRepository.save(expectedElectronic)).thenReturn(expectedElectronic);
+        ReservationDTO reservationDTO = electronicService.reserve(expectedElectronicDTO.getId(), expectedElectronicDTO.getQuantity());
+
+        // when
+        ElectronicDTO soldElectronicDTO = electronicService.confirmReservation(reservationDTO.getId());
+
+        // then
+        assertThat(soldElectronicDTO.getQuantity(), equalTo(0));
+        assertThat(stockReservations.held(expectedElectronicDTO.getId()), equalTo(0));
+        assertThrows(ReservationNotFoundException.class, () -> electronicService.confirmReservation(reservationDTO.getId()));
+    }
+
+    @Test
+    void whenConfirmingAReservationFailsThenItKeepsHoldingItsStock() throws Exception {
+        // given
+        ElectronicDTO expectedElectronicDTO = ElectronicDTOBuilder.builder().build().toElectronicDTO();
+        when(electronicRepository.findById(expectedElectronicDTO.getId())).thenAnswer(invocation -> Optional.of(electronicMapper.toModel(expectedElectronicDTO)));
+        when(electronicRepository.findFreshById(expectedElectronicDTO.getId())).thenReturn(Optional.of(electronicMapper.toModel(expectedElectronicDTO)));
+        when(electronicRepository.save(Mockito.any(Electronic.class))).thenThrow(new ObjectOptimisticLockingFailureException(Electronic.class, expectedElectronicDTO.getId()));
+        ReservationDTO reservationDTO = electronicService.reserve(expectedElectronicDTO.getId(), 4);
+
+        // when
+        assertThrows(ElectronicConcurrentUpdateException.class, () -> electronicService.confirmReservation(reservationDTO.getId()));
+
+        // then
+        assertThat(stockReservations.held(expectedElectronicDTO.getId()), equalTo(4));
+        assertThat(stockReservations.find(reservationDTO.getId()).getQuantity(), equalTo(4));
+        electronicService.releaseReservation(reservationDTO.getId());
+        assertThat(stockReservations.held(expectedElectronicDTO.getId()), equalTo(0));
+    }
+
+    @Test
+    void whenReservationIsReleasedThenItsStockIsAvailableAgain() throws Exception {
+        // given
+        ElectronicDTO expectedElectronicDTO = ElectronicDTOBuilder.builder().build().toElectronicDTO();
+        Electronic expectedElectronic = electronicMapper.toModel(expectedElectronicDTO);
+        when(electronicRepository.findFreshById(expectedElectronicDTO.getId())).thenReturn(Optional.of(expectedElectronic));
+        ReservationDTO reservationDTO = electronicService.reserve(expectedElectronicDTO.getId(), expectedElectronicDTO.getQuantity());
+
+        // when
+        electronicService.releaseReservation(reservationDTO.getId());
+
+        // then
+        ReservationDTO nextReservationDTO = electronicService.reserve(expectedElectronicDTO.getId(), expectedElectronicDTO.getQuantity());
+        assertThat(nextReservationDTO.getQuantity(), equalTo(expectedElectronicDTO.getQuantity()));
+        assertThrows(ReservationNotFoundException.class, () -> electronicService.releaseReservation(reservationDTO.getId()));
+    }
+
+    private static DataIntegrityViolationException violationOf(String constraintName) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", new SQLException("violation", "23505"), constraintName));
+    }
+
 }
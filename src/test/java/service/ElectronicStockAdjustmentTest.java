@@ -0,0 +1,120 @@
+package service;
+
+import com.dititalinnovation.buymore.BuymoreApplication;
+import com.dititalinnovation.buymore.dto.StockAdjustmentDTO;
+import com.dititalinnovation.buymore.dto.StockAdjustmentItemResultDTO;
+import com.dititalinnovation.buymore.dto.StockAdjustmentRequestDTO;
+import com.dititalinnovation.buymore.dto.StockAdjustmentResultDTO;
+import com.dititalinnovation.buymore.entity.Electronic;
+import com.dititalinnovation.buymore.enums.AdjustmentMode;
+import com.dititalinnovation.buymore.enums.AdjustmentStatus;
+import com.dititalinnovation.buymore.enums.ElectronicType;
+import com.dititalinnovation.buymore.exception.StockAdjustmentRejectedException;
+import com.dititalinnovation.buymore.repository.ElectronicRepository;
+import com.dititalinnovation.buymore.service.ElectronicService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(classes = BuymoreApplication.class)
+public class ElectronicStockAdjustmentTest {
+
+    private static final long MISSING_ID = Long.MAX_VALUE;
+
+    @Autowired
+    private ElectronicService electronicService;
+
+    @Autowired
+    private ElectronicRepository electronicRepository;
+
+    private Electronic tv;
+
+    private Electronic notebook;
+
+    @BeforeEach
+    void setUp() {
+        tv = electronicRepository.save(new Electronic(null, "Tv Adjusted", "Samsung", 50, 10, ElectronicType.TV));
+        notebook = electronicRepository.save(new Electronic(null, "Notebook Adjusted", "Dell", 20, 15, ElectronicType.NOTEBOOK));
+    }
+
+    @AfterEach
+    void tearDown() {
+        electronicRepository.deleteAll();
+    }
+
+    @Test
+    void whenBestEffortAdjustmentPartiallyFailsThenValidItemsAreApplied() throws StockAdjustmentRejectedException {
+        StockAdjustmentResultDTO result = electronicService.adjustStock(request(AdjustmentMode.BEST_EFFORT));
+
+        assertThat(statuses(result), contains(AdjustmentStatus.APPLIED, AdjustmentStatus.EXCEEDED, AdjustmentStatus.NOT_FOUND));
+        assertThat(quantityOf(tv), is(equalTo(15)));
+        assertThat(quantityOf(notebook), is(equalTo(15)));
+    }
+
+    @Test
+    void whenAllOrNothingAdjustmentPartiallyFailsThenNothingIsApplied() {
+        StockAdjustmentRejectedException exception = assertThrows(StockAdjustmentRejectedException.class,
+                () -> electronicService.adjustStock(request(AdjustmentMode.ALL_OR_NOTHING)));
+
+        assertThat(statuses(exception.getResult()), contains(AdjustmentStatus.ROLLED_BACK, AdjustmentStatus.EXCEEDED, AdjustmentStatus.NOT_FOUND));
+        assertThat(quantityOf(tv), is(equalTo(10)));
+        assertThat(quantityOf(notebook), is(equalTo(15)));
+    }
+
+    @Test
+    void whenANegativeAdjustmentWouldGoBelowZeroThenItFails() throws StockAdjustmentRejectedException {
+        StockAdjustmentResultDTO result = electronicService.adjustStock(StockAdjustmentRequestDTO.builder()
+                .mode(AdjustmentMode.BEST_EFFORT)
+                .adjustments(List.of(new StockAdjustmentDTO(tv.getId(), -11)))
+                .build());
+
+        assertThat(statuses(result), contains(AdjustmentStatus.INSUFFICIENT_STOCK));
+        assertThat(quantityOf(tv), is(equalTo(10)));
+    }
+
+    @Test
+    void whenANegativeAdjustmentWouldTakeHeldStockThenItFails() throws Exception {
+        electronicService.reserve(notebook.getId(), 5);
+
+        StockAdjustmentResultDTO result = electronicService.adjustStock(StockAdjustmentRequestDTO.builder()
+                .mode(AdjustmentMode.BEST_EFFORT)
+                .adjustments(List.of(
+                        new StockAdjustmentDTO(notebook.getId(), -11),
+                        new StockAdjustmentDTO(tv.getId(), -4)))
+                .build());
+
+        assertThat(statuses(result), contains(AdjustmentStatus.APPLIED, AdjustmentStatus.INSUFFICIENT_STOCK));
+        assertThat(quantityOf(tv), is(equalTo(6)));
+        assertThat(quantityOf(notebook), is(equalTo(15)));
+    }
+
+    private StockAdjustmentRequestDTO request(AdjustmentMode mode) {
+        return StockAdjustmentRequestDTO.builder()
+                .mode(mode)
+                .adjustments(List.of(
+                        new StockAdjustmentDTO(MISSING_ID, 1),
+                        new StockAdjustmentDTO(notebook.getId(), 10),
+                        new StockAdjustmentDTO(tv.getId(), 5)))
+                .build();
+    }
+
+    private int quantityOf(Electronic electronic) {
+        return electronicRepository.findById(electronic.getId()).orElseThrow().getQuantity();
+    }
+
+    private List<AdjustmentStatus> statuses(StockAdjustmentResultDTO result) {
+        return result.getResults().stream().map(StockAdjustmentItemResultDTO::getStatus).collect(Collectors.toList());
+    }
+
+}
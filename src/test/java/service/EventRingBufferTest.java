@@ -0,0 +1,85 @@
+package service;
+
+import com.dititalinnovation.buymore.service.EventRingBuffer;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class EventRingBufferTest {
+
+    @Test
+    void whenCapacityIsNotAPowerOfTwoThenItIsRoundedUp() {
+        assertThat(new EventRingBuffer<String>(5).capacity(), is(equalTo(8)));
+        assertThat(new EventRingBuffer<String>(8).capacity(), is(equalTo(8)));
+        assertThat(new EventRingBuffer<String>(0).capacity(), is(equalTo(2)));
+    }
+
+    @Test
+    void whenEntriesArePublishedThenReadersSeeThemUntilTheyAreOverwritten() {
+        // given
+        EventRingBuffer<String> ring = new EventRingBuffer<>(4);
+        assertThat(ring.read(1), is(nullValue()));
+
+        // when
+        for (int i = 1; i <= 6; i++) {
+            ring.publish("event " + i);
+        }
+
+        // then
+        assertThat(ring.head(), is(equalTo(6L)));
+        assertThat(ring.oldest(), is(equalTo(3L)));
+        assertThat(ring.read(6).getSequence(), is(equalTo(6L)));
+        assertThat(ring.read(6).getValue(), is(equalTo("event 6")));
+        assertThat(ring.read(3).getValue(), is(equalTo("event 3")));
+        assertThat(ring.read(2).getSequence(), is(equalTo(6L)));
+        assertThat(ring.read(7).getSequence(), is(equalTo(3L)));
+    }
+
+    @Test
+    void whenPublishersRaceThenEverySequenceIsClaimedOnce() throws Exception {
+        // given
+        int publishers = 8;
+        int eventsPerPublisher = 1000;
+        EventRingBuffer<Integer> ring = new EventRingBuffer<>(publishers * eventsPerPublisher);
+        ExecutorService executor = Executors.newFixedThreadPool(publishers);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // when
+        for (int publisher = 0; publisher < publishers; publisher++) {
+            int base = publisher * eventsPerPublisher;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < eventsPerPublisher; i++) {
+                    ring.publish(base + i);
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS), is(true));
+
+        // then
+        Set<Integer> values = new HashSet<>();
+        for (long sequence = 1; sequence <= ring.head(); sequence++) {
+            assertThat(ring.read(sequence).getSequence(), is(equalTo(sequence)));
+            values.add(ring.read(sequence).getValue());
+        }
+        assertThat(values.size(), is(equalTo(publishers * eventsPerPublisher)));
+    }
+
+}
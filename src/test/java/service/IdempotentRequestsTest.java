@@ -0,0 +1,144 @@
+package service;
+
+import com.dititalinnovation.buymore.exception.ElectronicConcurrentUpdateException;
+import com.dititalinnovation.buymore.exception.ElectronicNotFoundException;
+import com.dititalinnovation.buymore.exception.IdempotencyKeyReusedException;
+import com.dititalinnovation.buymore.service.IdempotentRequests;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class IdempotentRequestsTest {
+
+    private static final int RETRIES = 8;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final IdempotentRequests idempotentRequests = new IdempotentRequests(100, Duration.ofMinutes(1), meterRegistry);
+    private final ExecutorService executor = Executors.newFixedThreadPool(RETRIES);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void whenRetriesArriveWhileTheFirstRequestRunsThenTheyGetItsResultWithoutRunning() throws Exception {
+        // given
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        // when
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int retry = 0; retry < RETRIES; retry++) {
+            results.add(executor.submit(() -> idempotentRequests.execute("key-1", List.of("increment", 1L, 10), () -> {
+                release.await();
+                return runs.incrementAndGet();
+            })));
+        }
+        awaitCount("replayed", RETRIES - 1);
+        release.countDown();
+
+        // then
+        for (Future<Integer> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS), is(1));
+        }
+        assertThat(runs.get(), is(1));
+        assertThat(count("executed"), is(1.0));
+        assertThat(count("replayed"), is((double) RETRIES - 1));
+    }
+
+    @Test
+    void whenTheKeyIsSentWithAnotherRequestThenItIsRejected() throws Exception {
+        // given
+        idempotentRequests.execute("key-1", List.of("increment", 1L, 10), () -> 1);
+
+        // then
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> idempotentRequests.execute("key-1", List.of("increment", 1L, 20), () -> 2));
+        assertThat(count("rejected"), is(1.0));
+    }
+
+    @Test
+    void whenTheRequestFailsWithADomainErrorThenRetriesGetTheSameError() throws Exception {
+        // given
+        AtomicInteger runs = new AtomicInteger();
+        ElectronicNotFoundException notFound = new ElectronicNotFoundException(1L);
+        ElectronicNotFoundException first = assertThrows(ElectronicNotFoundException.class,
+                () -> idempotentRequests.execute("key-1", "fingerprint", () -> {
+                    runs.incrementAndGet();
+                    throw notFound;
+                }));
+
+        // when
+        ElectronicNotFoundException retried = assertThrows(ElectronicNotFoundException.class,
+                () -> idempotentRequests.execute("key-1", "fingerprint", runs::incrementAndGet));
+
+        // then
+        assertThat(retried, is(sameInstance(first)));
+        assertThat(runs.get(), is(1));
+    }
+
+    @Test
+    void whenTheRequestFailsTransientlyThenTheRetryRunsAgain() throws Exception {
+        // given
+        assertThrows(ElectronicConcurrentUpdateException.class,
+                () -> idempotentRequests.execute("key-1", "fingerprint", () -> {
+                    throw new ElectronicConcurrentUpdateException(1L, 3);
+                }));
+        assertThrows(IllegalStateException.class,
+                () -> idempotentRequests.execute("key-2", "fingerprint", () -> {
+                    throw new IllegalStateException("connection reset");
+                }));
+
+        // when
+        Integer first = idempotentRequests.execute("key-1", "fingerprint", () -> 1);
+        Integer second = idempotentRequests.execute("key-2", "fingerprint", () -> 2);
+
+        // then
+        assertThat(first, is(1));
+        assertThat(second, is(2));
+        assertThat(count("executed"), is(4.0));
+    }
+
+    @Test
+    void whenNoKeyIsSentThenEveryRequestRuns() throws Exception {
+        // given
+        AtomicInteger runs = new AtomicInteger();
+
+        // when
+        idempotentRequests.execute(null, "fingerprint", runs::incrementAndGet);
+        idempotentRequests.execute(" ", "fingerprint", runs::incrementAndGet);
+
+        // then
+        assertThat(runs.get(), is(2));
+        assertThat(count("executed"), is(0.0));
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.counter("buymore.idempotency.requests", "outcome", outcome).count();
+    }
+
+    private void awaitCount(String outcome, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count(outcome) < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+}
@@ -0,0 +1,171 @@
+package service;
+
+import com.dititalinnovation.buymore.dto.ElectronicDTO;
+import com.dititalinnovation.buymore.enums.ElectronicChangeType;
+import com.dititalinnovation.buymore.enums.ElectronicType;
+import com.dititalinnovation.buymore.event.ElectronicChangedEvent;
+import com.dititalinnovation.buymore.repository.ElectronicRepository;
+import com.dititalinnovation.buymore.service.LowStockIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class LowStockIndexTest {
+
+    @Mock
+    private ElectronicRepository electronicRepository;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private LowStockIndex lowStockIndex;
+
+    @BeforeEach
+    void setUp() {
+        lowStockIndex = new LowStockIndex(electronicRepository, 0.2, meterRegistry);
+    }
+
+    @Test
+    void whenLoadedThenElectronicsBelowTheThresholdAreListedEmptiestFirstWithoutAlerts() {
+        // given
+        when(electronicRepository.streamAllProjected()).thenReturn(Stream.of(
+                electronic(1L, 50, 100), electronic(2L, 10, 100), electronic(3L, 1, 100), electronic(4L, 20, 100)));
+
+        // when
+        lowStockIndex.load();
+
+        // then
+        assertThat(lowStockIndex.lowStockIds(0.2, 10), contains(3L, 2L));
+        assertThat(lowStockIndex.lowStockIds(0.6, 10), contains(3L, 2L, 4L, 1L));
+        assertThat(lowStockIndex.lowStockIds(0.6, 1), contains(3L));
+        assertThat(lowStockIndex.lowStockCount(), is(2));
+        assertThat(meterRegistry.counter("buymore.stock.low.alerts").count(), is(0.0));
+    }
+
+    @Test
+    void whenQuantityDropsBelowTheThresholdThenOneAlertIsRaisedWithoutReadingTheCatalog() {
+        // given
+        when(electronicRepository.streamAllProjected()).thenReturn(Stream.of(electronic(1L, 50, 100)));
+        lowStockIndex.load();
+
+        // when
+        lowStockIndex.onElectronicChanged(new ElectronicChangedEvent(ElectronicChangeType.UPDATED, electronic(1L, 19, 100)));
+        lowStockIndex.onElectronicChanged(new ElectronicChangedEvent(ElectronicChangeType.UPDATED, electronic(1L, 5, 100)));
+
+        // then
+        assertThat(lowStockIndex.lowStockIds(0.2, 10), contains(1L));
+        assertThat(lowStockIndex.lowStockCount(), is(1));
+        assertThat(meterRegistry.counter("buymore.stock.low.alerts").count(), is(1.0));
+        assertThat(meterRegistry.get("buymore.stock.low").gauge().value(), is(1.0));
+    }
+
+    @Test
+    void whenQuantityRecoversOrTheElectronicIsDeletedThenItLeavesTheLowStockSet() {
+        // given
+        lowStockIndex.onElectronicChanged(new ElectronicChangedEvent(ElectronicChangeType.CREATED, electronic(1L, 0, 100)));
+        lowStockIndex.onElectronicChanged(new ElectronicChangedEvent(ElectronicChangeType.CREATED, electronic(2L, 0, 100)));
+
+        // when
+        lowStockIndex.onElectronicChanged(new ElectronicChangedEvent(ElectronicChangeType.UPDATED, electronic(1L, 80, 100)));
+        lowStockIndex.onElectronicChanged(new ElectronicChangedEvent(ElectronicChangeType.DELETED, electronic(2L, 0, 100)));
+
+        // then
+        assertThat(lowStockIndex.lowStockIds(0.2, 10), is(empty()));
+        assertThat(lowStockIndex.lowStockIds(1.0, 10), contains(1L));
+        assertThat(lowStockIndex.lowStockCount(), is(0));
+        verifyNoInteractions(electronicRepository);
+    }
+
+    @Test
+    void whenAnElectronicIsDeletedWhileLoadingThenTheLoadDoesNotBringItBack() {
+        // given
+        lowStockIndex.onElectronicChanged(new ElectronicChangedEvent(ElectronicChangeType.DELETED, electronic(1L, 0, 100)));
+        when(electronicRepository.streamAllProjected()).thenReturn(Stream.of(electronic(1L, 0, 100), electronic(2L, 0, 100)));
+
+        // when
+        lowStockIndex.load();
+
+        // then
+        assertThat(lowStockIndex.lowStockIds(0.2, 10), contains(2L));
+    }
+
+    @Test
+    void whenAChangeArrivesAfterANewerOneThenItIsDropped() {
+        // when
+        lowStockIndex.onElectronicChanged(new ElectronicChangedEvent(ElectronicChangeType.UPDATED, versioned(electronic(1L, 5, 100), 3L)));
+        lowStockIndex.onElectronicChanged(new ElectronicChangedEvent(ElectronicChangeType.UPDATED, versioned(electronic(1L, 80, 100), 2L)));
+
+        // then
+        assertThat(lowStockIndex.lowStockIds(0.2, 10), contains(1L));
+        assertThat(lowStockIndex.lowStockCount(), is(1));
+    }
+
+    @Test
+    void whenAChangeCommittedBeforeADeletionArrivesAfterItThenTheElectronicStaysDeleted() {
+        // given
+        lowStockIndex.onElectronicChanged(new ElectronicChangedEvent(ElectronicChangeType.CREATED, versioned(electronic(1L, 5, 100), 0L)));
+
+        // when
+        lowStockIndex.onElectronicChanged(new ElectronicChangedEvent(ElectronicChangeType.DELETED, versioned(electronic(1L, 5, 100), 2L)));
+        lowStockIndex.onElectronicChanged(new ElectronicChangedEvent(ElectronicChangeType.UPDATED, versioned(electronic(1L, 10, 100), 1L)));
+
+        // then
+        assertThat(lowStockIndex.lowStockIds(1.0, 10), is(Collections.emptyList()));
+        assertThat(lowStockIndex.lowStockCount(), is(0));
+    }
+
+    @Test
+    void whenLowStockIsListedThenElectronicsAreReadInIndexOrder() {
+        // given
+        ElectronicDTO emptiest = electronic(1L, 1, 100);
+        ElectronicDTO fuller = electronic(2L, 10, 100);
+        lowStockIndex.onElectronicChanged(new ElectronicChangedEvent(ElectronicChangeType.CREATED, fuller));
+        lowStockIndex.onElectronicChanged(new ElectronicChangedEvent(ElectronicChangeType.CREATED, emptiest));
+        when(electronicRepository.findProjectedByIdIn(Arrays.asList(1L, 2L))).thenReturn(Arrays.asList(fuller, emptiest));
+
+        // when
+        List<ElectronicDTO> lowStock = lowStockIndex.lowStock(0.2, 100);
+
+        // then
+        assertThat(lowStock, contains(emptiest, fuller));
+    }
+
+    @Test
+    void whenNothingIsLowThenTheCatalogIsNotRead() {
+        // given
+        lowStockIndex.onElectronicChanged(new ElectronicChangedEvent(ElectronicChangeType.CREATED, electronic(1L, 100, 100)));
+
+        // when
+        List<ElectronicDTO> lowStock = lowStockIndex.lowStock(0.2, 100);
+
+        // then
+        assertThat(lowStock, is(Collections.emptyList()));
+        verifyNoInteractions(electronicRepository);
+    }
+
+    private static ElectronicDTO electronic(Long id, int quantity, int max) {
+        return new ElectronicDTO(id, "Electronic " + id, "Samsung", max, quantity, ElectronicType.TV);
+    }
+
+    private static ElectronicDTO versioned(ElectronicDTO electronicDTO, Long version) {
+        electronicDTO.setVersion(version);
+        return electronicDTO;
+    }
+
+}
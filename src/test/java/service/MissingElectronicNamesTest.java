@@ -0,0 +1,71 @@
+package service;
+
+import builder.ElectronicDTOBuilder;
+import com.dititalinnovation.buymore.config.CacheConfig;
+import com.dititalinnovation.buymore.dto.ElectronicDTO;
+import com.dititalinnovation.buymore.enums.ElectronicChangeType;
+import com.dititalinnovation.buymore.event.ElectronicChangedEvent;
+import com.dititalinnovation.buymore.exception.ElectronicNotFoundException;
+import com.dititalinnovation.buymore.service.MissingElectronicNames;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class MissingElectronicNamesTest {
+
+    private final MissingElectronicNames missingElectronicNames = new MissingElectronicNames(new ConcurrentMapCacheManager(CacheConfig.MISSING_ELECTRONIC_NAMES));
+    private final ElectronicDTO electronicDTO = ElectronicDTOBuilder.builder().build().toElectronicDTO();
+    private final ElectronicNotFoundException notFound = ElectronicNotFoundException.withoutStackTrace(electronicDTO.getName());
+
+    @Test
+    void whenAMissIsRememberedThenItsExceptionIsReturned() {
+        // when
+        missingElectronicNames.remember(electronicDTO.getName(), missingElectronicNames.creations(), notFound);
+
+        // then
+        assertThat(missingElectronicNames.get(electronicDTO.getName()), is(sameInstance(notFound)));
+    }
+
+    @Test
+    void whenTheNameIsCreatedThenItIsNoLongerMissing() {
+        // given
+        missingElectronicNames.remember(electronicDTO.getName(), missingElectronicNames.creations(), notFound);
+
+        // when
+        missingElectronicNames.onElectronicChanged(new ElectronicChangedEvent(ElectronicChangeType.CREATED, electronicDTO));
+
+        // then
+        assertThat(missingElectronicNames.get(electronicDTO.getName()), is(nullValue()));
+    }
+
+    @Test
+    void whenAnElectronicWasCreatedDuringTheLookupThenTheMissIsNotRemembered() {
+        // given
+        long creationsBeforeLookup = missingElectronicNames.creations();
+        missingElectronicNames.onElectronicChanged(new ElectronicChangedEvent(ElectronicChangeType.CREATED, electronicDTO));
+
+        // when
+        missingElectronicNames.remember(electronicDTO.getName(), creationsBeforeLookup, notFound);
+
+        // then
+        assertThat(missingElectronicNames.get(electronicDTO.getName()), is(nullValue()));
+    }
+
+    @Test
+    void whenAnElectronicIsUpdatedOrDeletedThenRememberedMissesStay() {
+        // given
+        missingElectronicNames.remember("Radio Philips", missingElectronicNames.creations(), notFound);
+
+        // when
+        missingElectronicNames.onElectronicChanged(new ElectronicChangedEvent(ElectronicChangeType.UPDATED, electronicDTO));
+        missingElectronicNames.onElectronicChanged(new ElectronicChangedEvent(ElectronicChangeType.DELETED, electronicDTO));
+
+        // then
+        assertThat(missingElectronicNames.get("Radio Philips"), is(sameInstance(notFound)));
+    }
+
+}
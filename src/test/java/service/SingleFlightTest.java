@@ -0,0 +1,127 @@
+package service;
+
+import com.dititalinnovation.buymore.exception.ElectronicNotFoundException;
+import com.dititalinnovation.buymore.service.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight singleFlight = new SingleFlight(meterRegistry);
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void whenCallersLoadTheSameKeyConcurrentlyThenOneLoadServesThemAll() throws Exception {
+        // given
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        // when
+        List<Future<String>> results = startCallers(() -> singleFlight.execute("name", "Tv Samsung", () -> {
+            loads.incrementAndGet();
+            release.await();
+            return "loaded";
+        }));
+        awaitWaiting(CALLERS - 1);
+        release.countDown();
+
+        // then
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS), is("loaded"));
+        }
+        assertThat(loads.get(), is(1));
+        assertThat(meterRegistry.counter("buymore.lookups.loads", "lookup", "name").count(), is(1.0));
+        assertThat(meterRegistry.counter("buymore.lookups.coalesced", "lookup", "name").count(), is((double) CALLERS - 1));
+    }
+
+    @Test
+    void whenTheSharedLoadFailsThenEveryWaitingCallerGetsItsException() throws Exception {
+        // given
+        CountDownLatch release = new CountDownLatch(1);
+        ElectronicNotFoundException notFound = new ElectronicNotFoundException("Tv Samsung");
+
+        // when
+        List<Future<String>> results = startCallers(() -> singleFlight.execute("name", "Tv Samsung", () -> {
+            release.await();
+            throw notFound;
+        }));
+        awaitWaiting(CALLERS - 1);
+        release.countDown();
+
+        // then
+        for (Future<String> result : results) {
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertThat(failure.getCause(), is(sameInstance(notFound)));
+        }
+    }
+
+    @Test
+    void whenALoadCompletesThenTheNextCallerLoadsAgain() throws Exception {
+        // given
+        AtomicInteger loads = new AtomicInteger();
+
+        // when
+        singleFlight.execute("name", "Tv Samsung", loads::incrementAndGet);
+        Integer second = singleFlight.execute("name", "Tv Samsung", loads::incrementAndGet);
+
+        // then
+        assertThat(second, is(2));
+        assertThat(meterRegistry.counter("buymore.lookups.coalesced", "lookup", "name").count(), is(0.0));
+    }
+
+    @Test
+    void whenKeysDifferThenLoadsAreNotShared() throws Exception {
+        // when
+        String tv = singleFlight.execute("name", "Tv Samsung", () -> "tv");
+        String notebook = singleFlight.execute("name", "Notebook Dell", () -> "notebook");
+        Object byId = singleFlight.execute("id", "Tv Samsung", () -> 1L);
+
+        // then
+        assertThat(tv, is("tv"));
+        assertThat(notebook, is("notebook"));
+        assertThat(byId, is(instanceOf(Long.class)));
+    }
+
+    private List<Future<String>> startCallers(Callable<String> call) {
+        List<Future<String>> results = new ArrayList<>();
+        for (int caller = 0; caller < CALLERS; caller++) {
+            results.add(executor.submit(call));
+        }
+        return results;
+    }
+
+    private void awaitWaiting(int waiting) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.counter("buymore.lookups.coalesced", "lookup", "name").count() < waiting && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+}
@@ -0,0 +1,104 @@
+package service;
+
+import com.dititalinnovation.buymore.BuymoreApplication;
+import com.dititalinnovation.buymore.entity.Electronic;
+import com.dititalinnovation.buymore.enums.ElectronicType;
+import com.dititalinnovation.buymore.exception.BuyMoreExceededException;
+import com.dititalinnovation.buymore.repository.ElectronicRepository;
+import com.dititalinnovation.buymore.service.ElectronicService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Durable write-behind: every increment that returns has been committed by a group flush.
+ */
+@SpringBootTest(classes = BuymoreApplication.class, properties = {
+        "buymore.stock.write-behind.enabled=true",
+        "buymore.stock.write-behind.durable=true",
+        "buymore.stock.write-behind.flush-ms=5"
+})
+public class StockIncrementCoalescerDurableTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private ElectronicService electronicService;
+
+    @Autowired
+    private ElectronicRepository electronicRepository;
+
+    @AfterEach
+    void tearDown() {
+        electronicRepository.deleteAll();
+    }
+
+    @Test
+    void whenManyThreadsIncrementThenEveryReturnedIncrementIsCommitted() throws Exception {
+        // given
+        Electronic electronic = electronicRepository.save(new Electronic(null, "Tv Durable", "Samsung", 1000, 0, ElectronicType.TV));
+
+        // when
+        AtomicInteger exceeded = hammer(electronic.getId(), 400);
+
+        // then
+        Electronic incrementedElectronic = electronicRepository.findById(electronic.getId()).orElseThrow();
+        assertThat(incrementedElectronic.getQuantity(), equalTo(400));
+        assertThat(exceeded.get(), equalTo(0));
+    }
+
+    @Test
+    void whenManyThreadsIncrementPastMaxThenStockStopsExactlyAtMax() throws Exception {
+        // given
+        Electronic electronic = electronicRepository.save(new Electronic(null, "Notebook Durable", "Dell", 100, 0, ElectronicType.NOTEBOOK));
+
+        // when
+        AtomicInteger exceeded = hammer(electronic.getId(), 300);
+
+        // then
+        Electronic incrementedElectronic = electronicRepository.findById(electronic.getId()).orElseThrow();
+        assertThat(incrementedElectronic.getQuantity(), equalTo(100));
+        assertThat(exceeded.get(), equalTo(200));
+    }
+
+    private AtomicInteger hammer(Long id, int increments) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger exceeded = new AtomicInteger();
+        List<Future<Object>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < increments; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        electronicService.increment(id, 1);
+                    } catch (BuyMoreExceededException e) {
+                        exceeded.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<Object> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return exceeded;
+    }
+
+}
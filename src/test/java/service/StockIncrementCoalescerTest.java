@@ -0,0 +1,182 @@
+package service;
+
+import com.dititalinnovation.buymore.BuymoreApplication;
+import com.dititalinnovation.buymore.dto.ElectronicDTO;
+import com.dititalinnovation.buymore.entity.Electronic;
+import com.dititalinnovation.buymore.enums.ElectronicType;
+import com.dititalinnovation.buymore.event.ElectronicChangedEvent;
+import com.dititalinnovation.buymore.exception.BuyMoreExceededException;
+import com.dititalinnovation.buymore.repository.ElectronicRepository;
+import com.dititalinnovation.buymore.service.ElectronicService;
+import com.dititalinnovation.buymore.service.StockIncrementCoalescer;
+import com.dititalinnovation.buymore.service.StockLockStripes;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Lock;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Write-behind without durability and with a flush interval long enough that the tests flush by hand.
+ */
+@SpringBootTest(classes = BuymoreApplication.class, properties = {
+        "buymore.stock.write-behind.enabled=true",
+        "buymore.stock.write-behind.durable=false",
+        "buymore.stock.write-behind.flush-ms=3600000"
+})
+@RecordApplicationEvents
+public class StockIncrementCoalescerTest {
+
+    @Autowired
+    private ElectronicService electronicService;
+
+    @Autowired
+    private StockIncrementCoalescer stockIncrementCoalescer;
+
+    @Autowired
+    private ElectronicRepository electronicRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private StockLockStripes stockLockStripes;
+
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    @AfterEach
+    void tearDown() {
+        stockIncrementCoalescer.flush();
+        electronicRepository.deleteAll();
+    }
+
+    @Test
+    void whenIncrementsAreCoalescedThenTheyAreWrittenAsOneDeltaOnFlush() throws Exception {
+        // given
+        Electronic electronic = electronicRepository.save(new Electronic(null, "Tv Write Behind", "Samsung", 50, 10, ElectronicType.TV));
+
+        // when
+        ElectronicDTO incrementedElectronicDTO = null;
+        for (int i = 0; i < 5; i++) {
+            incrementedElectronicDTO = electronicService.increment(electronic.getId(), 2);
+        }
+
+        // then
+        assertThat(incrementedElectronicDTO.getQuantity(), equalTo(20));
+        assertThat(quantityOf(electronic.getId()), equalTo(10));
+        stockIncrementCoalescer.flush();
+        assertThat(quantityOf(electronic.getId()), equalTo(20));
+        assertThat(versionOf(electronic.getId()), equalTo(1L));
+    }
+
+    @Test
+    void whenProjectedQuantityWouldExceedMaxThenIncrementIsRejectedImmediately() throws Exception {
+        // given
+        Electronic electronic = electronicRepository.save(new Electronic(null, "Notebook Write Behind", "Dell", 10, 5, ElectronicType.NOTEBOOK));
+        electronicService.increment(electronic.getId(), 4);
+
+        // then
+        assertThrows(BuyMoreExceededException.class, () -> electronicService.increment(electronic.getId(), 2));
+        stockIncrementCoalescer.flush();
+        assertThat(quantityOf(electronic.getId()), equalTo(9));
+    }
+
+    @Test
+    void whenDecrementIsCalledThenPendingIncrementsAreWrittenFirst() throws Exception {
+        // given
+        Electronic electronic = electronicRepository.save(new Electronic(null, "Tablet Write Behind", "Apple", 30, 0, ElectronicType.TABLET));
+        electronicService.increment(electronic.getId(), 8);
+
+        // when
+        ElectronicDTO decrementedElectronicDTO = electronicService.decrement(electronic.getId(), 8);
+
+        // then
+        assertThat(decrementedElectronicDTO.getQuantity(), equalTo(0));
+        assertThat(electronicService.increment(electronic.getId(), 3).getQuantity(), equalTo(3));
+    }
+
+    @Test
+    void whenDatabaseRejectsAFlushedDeltaThenProjectionIsReloaded() throws Exception {
+        // given
+        Electronic electronic = electronicRepository.save(new Electronic(null, "Desktop Write Behind", "Lenovo", 20, 10, ElectronicType.DESKTOP));
+        double rejectedBefore = meterRegistry.counter("buymore.stock.coalescer.rejected").count();
+        electronicService.increment(electronic.getId(), 5);
+        jdbcTemplate.update("update electronic set max = 12 where id = ?", electronic.getId());
+
+        // when
+        stockIncrementCoalescer.flush();
+
+        // then
+        assertThat(quantityOf(electronic.getId()), equalTo(10));
+        assertThat(meterRegistry.counter("buymore.stock.coalescer.rejected").count(), equalTo(rejectedBefore + 1));
+        assertThrows(BuyMoreExceededException.class, () -> electronicService.increment(electronic.getId(), 5));
+    }
+
+    @Test
+    void whenStockChangesOnAnotherNodeThenTheFlushPublishesTheQuantityInTheDatabase() throws Exception {
+        // given
+        Electronic electronic = electronicRepository.save(new Electronic(null, "Scanner Write Behind", "Epson", 50, 10, ElectronicType.SCANNER));
+        electronicService.increment(electronic.getId(), 5);
+        jdbcTemplate.update("update electronic set quantity = quantity + 3 where id = ?", electronic.getId());
+
+        // when
+        stockIncrementCoalescer.flush();
+
+        // then
+        ElectronicChangedEvent event = applicationEvents.stream(ElectronicChangedEvent.class)
+                .filter(changedEvent -> changedEvent.getElectronic().getId().equals(electronic.getId()))
+                .reduce((first, second) -> second)
+                .orElseThrow();
+        assertThat(event.getElectronic().getQuantity(), equalTo(18));
+    }
+
+    @Test
+    void whenAnotherWriteHoldsTheLockStripeThenTheProjectionIsLoadedAfterItCommits() throws Exception {
+        // given
+        Electronic electronic = electronicRepository.save(new Electronic(null, "Console Write Behind", "Sony", 50, 10, ElectronicType.TV));
+        Lock lock = stockLockStripes.forId(electronic.getId());
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<ElectronicDTO> increment;
+        lock.lock();
+        try {
+            increment = executor.submit(() -> electronicService.increment(electronic.getId(), 2));
+
+            // when
+            assertThrows(TimeoutException.class, () -> increment.get(200, TimeUnit.MILLISECONDS));
+            jdbcTemplate.update("update electronic set quantity = 4 where id = ?", electronic.getId());
+        } finally {
+            lock.unlock();
+        }
+
+        // then
+        assertThat(increment.get(5, TimeUnit.SECONDS).getQuantity(), equalTo(6));
+        executor.shutdown();
+    }
+
+    private int quantityOf(Long id) {
+        return jdbcTemplate.queryForObject("select quantity from electronic where id = ?", Integer.class, id);
+    }
+
+    private long versionOf(Long id) {
+        return jdbcTemplate.queryForObject("select version from electronic where id = ?", Long.class, id);
+    }
+
+}
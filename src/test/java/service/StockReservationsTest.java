@@ -0,0 +1,128 @@
+package service;
+
+import com.dititalinnovation.buymore.dto.ReservationDTO;
+import com.dititalinnovation.buymore.exception.ElectronicOutOfStockException;
+import com.dititalinnovation.buymore.exception.ReservationNotFoundException;
+import com.dititalinnovation.buymore.service.StockReservations;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class StockReservationsTest {
+
+    private static final Long ELECTRONIC_ID = 1L;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void whenReservationsExpireThenTheirStockIsAvailableAgain() throws Exception {
+        // given
+        StockReservations stockReservations = new StockReservations(Duration.ofMillis(20), 5, 8, meterRegistry);
+        ReservationDTO reservationDTO = stockReservations.hold(ELECTRONIC_ID, 6, 10);
+        stockReservations.hold(ELECTRONIC_ID, 4, 10);
+        assertThrows(ElectronicOutOfStockException.class, () -> stockReservations.hold(ELECTRONIC_ID, 1, 10));
+
+        // when
+        int expired = awaitExpiry(stockReservations, 2);
+
+        // then
+        assertThat(expired, is(2));
+        assertThat(stockReservations.held(ELECTRONIC_ID), is(0));
+        assertThat(stockReservations.size(), is(0));
+        assertThrows(ReservationNotFoundException.class, () -> stockReservations.claim(reservationDTO.getId()));
+        assertThat(meterRegistry.counter("buymore.reservations", "outcome", "expired").count(), is(2.0));
+    }
+
+    @Test
+    void whenAReservationEndsThenItCannotExpireOrEndAgain() throws Exception {
+        // given
+        StockReservations stockReservations = new StockReservations(Duration.ofMillis(20), 5, 8, meterRegistry);
+        ReservationDTO confirmed = stockReservations.hold(ELECTRONIC_ID, 3, 10);
+        ReservationDTO released = stockReservations.hold(ELECTRONIC_ID, 3, 10);
+
+        // when
+        stockReservations.claim(confirmed.getId());
+        stockReservations.confirm(confirmed.getId());
+        stockReservations.release(released.getId());
+
+        // then
+        assertThat(stockReservations.held(ELECTRONIC_ID), is(0));
+        assertThrows(ReservationNotFoundException.class, () -> stockReservations.release(confirmed.getId()));
+        Thread.sleep(40);
+        assertThat(stockReservations.expireDue(), is(0));
+    }
+
+    @Test
+    void whenAClaimedReservationIsGivenBackThenItHoldsUntilItsOriginalExpiry() throws Exception {
+        // given
+        StockReservations stockReservations = new StockReservations(Duration.ofMillis(20), 5, 8, meterRegistry);
+        ReservationDTO reservationDTO = stockReservations.hold(ELECTRONIC_ID, 6, 10);
+        stockReservations.claim(reservationDTO.getId());
+
+        // when
+        Thread.sleep(40);
+        int expiredWhileClaimed = stockReservations.expireDue();
+        assertThrows(ReservationNotFoundException.class, () -> stockReservations.release(reservationDTO.getId()));
+        stockReservations.unclaim(reservationDTO.getId());
+        int expired = awaitExpiry(stockReservations, 1);
+
+        // then
+        assertThat(expiredWhileClaimed, is(0));
+        assertThat(expired, is(1));
+        assertThat(stockReservations.held(ELECTRONIC_ID), is(0));
+    }
+
+    @Test
+    void whenManyCartsHoldConcurrentlyThenStockIsNeverHeldTwice() throws Exception {
+        // given
+        int carts = 8;
+        int holdsPerCart = 5000;
+        int stock = carts * holdsPerCart;
+        StockReservations stockReservations = new StockReservations(Duration.ofMinutes(5), 100, 512, meterRegistry);
+        ExecutorService executor = Executors.newFixedThreadPool(carts);
+
+        // when
+        List<Future<?>> results = new ArrayList<>();
+        for (int cart = 0; cart < carts; cart++) {
+            Long electronicId = (long) cart;
+            results.add(executor.submit(() -> {
+                for (int hold = 0; hold < holdsPerCart; hold++) {
+                    stockReservations.hold(electronicId, 1, holdsPerCart);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> result : results) {
+            result.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // then
+        assertThat(stockReservations.size(), is(stock));
+        assertThat(stockReservations.held(0L), is(holdsPerCart));
+        assertThrows(ElectronicOutOfStockException.class, () -> stockReservations.hold(0L, 1, holdsPerCart));
+    }
+
+    private static int awaitExpiry(StockReservations stockReservations, int expected) throws InterruptedException {
+        int expired = 0;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (expired < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+            expired += stockReservations.expireDue();
+        }
+        return expired;
+    }
+
+}
@@ -0,0 +1,94 @@
+package service;
+
+import com.dititalinnovation.buymore.service.TimingWheel;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+public class TimingWheelTest {
+
+    private static final long TICK = Duration.ofMillis(10).toNanos();
+
+    private final TimingWheel<String> wheel = new TimingWheel<>(Duration.ofMillis(10), 8, 0);
+    private final List<String> fired = new ArrayList<>();
+
+    @Test
+    void whenTheDeadlineIsReachedThenTheTimeoutFiresAndNotBefore() {
+        // given
+        wheel.schedule("cart", 25 * 1_000_000L);
+
+        // when
+        wheel.advance(2 * TICK, fired::add);
+        List<String> firedEarly = new ArrayList<>(fired);
+        wheel.advance(3 * TICK, fired::add);
+
+        // then
+        assertThat(firedEarly, is(empty()));
+        assertThat(fired, contains("cart"));
+    }
+
+    @Test
+    void whenDeadlinesAreMoreThanARevolutionAwayThenTheyWaitForTheirRound() {
+        // given
+        wheel.schedule("next round", 11 * TICK);
+        wheel.schedule("this round", 3 * TICK);
+
+        // when
+        int firstRevolution = wheel.advance(10 * TICK, fired::add);
+        int secondRevolution = wheel.advance(11 * TICK, fired::add);
+
+        // then
+        assertThat(firstRevolution, is(1));
+        assertThat(secondRevolution, is(1));
+        assertThat(fired, contains("this round", "next round"));
+    }
+
+    @Test
+    void whenATimeoutIsCancelledThenItNeverFires() {
+        // given
+        TimingWheel.Timeout<String> timeout = wheel.schedule("released", TICK);
+
+        // when
+        boolean cancelled = timeout.cancel();
+        wheel.advance(5 * TICK, fired::add);
+
+        // then
+        assertThat(cancelled, is(true));
+        assertThat(fired, is(empty()));
+        assertThat(timeout.cancel(), is(false));
+    }
+
+    @Test
+    void whenATimeoutHasFiredThenItCannotBeCancelled() {
+        // given
+        TimingWheel.Timeout<String> timeout = wheel.schedule("expired", TICK);
+
+        // when
+        wheel.advance(TICK, fired::add);
+
+        // then
+        assertThat(fired, contains("expired"));
+        assertThat(timeout.cancel(), is(false));
+    }
+
+    @Test
+    void whenADeadlineIsAlreadyPastThenItFiresOnTheNextTick() {
+        // given
+        wheel.advance(4 * TICK, fired::add);
+        wheel.schedule("late", TICK);
+
+        // when
+        wheel.advance(5 * TICK, fired::add);
+
+        // then
+        assertThat(fired, contains("late"));
+    }
+
+}